@@ -56,6 +56,15 @@ public abstract class AbstractActivity extends AppCompatActivity implements View
         colors = new int[] { goldDark, goldMed, gold, goldLight };
     }
 
+    /**
+     * Enable or disable the buttons that start new confetti, e.g. while their sprites load.
+     */
+    protected void setGenerateButtonsEnabled(boolean enabled) {
+        findViewById(R.id.generate_confetti_once_btn).setEnabled(enabled);
+        findViewById(R.id.generate_confetti_stream_btn).setEnabled(enabled);
+        findViewById(R.id.generate_confetti_infinite_btn).setEnabled(enabled);
+    }
+
     @LayoutRes
     protected int getLayoutRes() {
         return R.layout.activity_confetti;
@@ -2,13 +2,13 @@ package com.github.jinatonic.confetti.sample;
 
 import android.content.res.Resources;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.os.Bundle;
 import android.widget.TextView;
 import android.widget.Toast;
 
 import com.github.jinatonic.confetti.ConfettiManager;
 import com.github.jinatonic.confetti.ConfettiSource;
+import com.github.jinatonic.confetti.ConfettiSprites;
 import com.github.jinatonic.confetti.ConfettoGenerator;
 import com.github.jinatonic.confetti.confetto.BitmapConfetto;
 import com.github.jinatonic.confetti.confetto.Confetto;
@@ -16,15 +16,30 @@ import com.github.jinatonic.confetti.confetto.Confetto;
 import java.util.Random;
 
 public class FallingConfettiWithListenerActivity extends AbstractActivity
-        implements ConfettoGenerator, ConfettiManager.ConfettiAnimationListener {
+        implements ConfettoGenerator, ConfettiManager.ConfettiFrameListener {
 
     private TextView numConfettiTxt;
-    private int numConfettiOnScreen;
 
     private int size;
     private int velocitySlow, velocityNormal;
     private Bitmap bitmap;
 
+    private final ConfettiManager.ConfettiAnimationListener animationListener =
+            new ConfettiManager.ConfettiAnimationListenerAdapter() {
+                @Override
+                public void onAnimationStart(ConfettiManager confettiManager) {
+                    Toast.makeText(FallingConfettiWithListenerActivity.this,
+                            "Starting confetti animation", Toast.LENGTH_SHORT).show();
+                }
+
+                @Override
+                public void onAnimationEnd(ConfettiManager confettiManager) {
+                    updateNumConfettiTxt(0);
+                    Toast.makeText(FallingConfettiWithListenerActivity.this,
+                            "Ending confetti animation", Toast.LENGTH_SHORT).show();
+                }
+            };
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -36,12 +51,16 @@ public class FallingConfettiWithListenerActivity extends AbstractActivity
         velocitySlow = res.getDimensionPixelOffset(R.dimen.default_velocity_slow);
         velocityNormal = res.getDimensionPixelOffset(R.dimen.default_velocity_normal);
 
-        bitmap = Bitmap.createScaledBitmap(
-                BitmapFactory.decodeResource(res, R.drawable.snowflake),
-                size,
-                size,
-                false
-        );
+        // Decode the sprite off the main thread, confetti can be generated once it is ready.
+        setGenerateButtonsEnabled(false);
+        ConfettiSprites.decodeResourceAsync(res, R.drawable.snowflake, size, size,
+                new ConfettiSprites.Callback() {
+                    @Override
+                    public void onSpriteLoaded(Bitmap loaded) {
+                        bitmap = loaded;
+                        setGenerateButtonsEnabled(loaded != null);
+                    }
+                });
     }
 
     @Override
@@ -53,7 +72,7 @@ public class FallingConfettiWithListenerActivity extends AbstractActivity
     protected ConfettiManager generateOnce() {
         return getConfettiManager().setNumInitialCount(20)
                 .setEmissionDuration(0)
-                .setConfettiAnimationListener(this)
+                .setConfettiAnimationListener(animationListener)
                 .animate();
     }
 
@@ -62,7 +81,7 @@ public class FallingConfettiWithListenerActivity extends AbstractActivity
         return getConfettiManager().setNumInitialCount(0)
                 .setEmissionDuration(3000)
                 .setEmissionRate(20)
-                .setConfettiAnimationListener(this)
+                .setConfettiAnimationListener(animationListener)
                 .animate();
     }
 
@@ -71,7 +90,7 @@ public class FallingConfettiWithListenerActivity extends AbstractActivity
         return getConfettiManager().setNumInitialCount(0)
                 .setEmissionDuration(ConfettiManager.INFINITE_DURATION)
                 .setEmissionRate(20)
-                .setConfettiAnimationListener(this)
+                .setConfettiAnimationListener(animationListener)
                 .animate();
     }
 
@@ -81,7 +100,9 @@ public class FallingConfettiWithListenerActivity extends AbstractActivity
                 .setVelocityX(0, velocitySlow)
                 .setVelocityY(velocityNormal, velocitySlow)
                 .setRotationalVelocity(180, 90)
-                .setTouchEnabled(true);
+                .setTouchEnabled(true)
+                // Update the count at most once per frame, outside of the animation callback.
+                .setConfettiFrameListener(this, false, true);
     }
 
     @Override
@@ -90,30 +111,12 @@ public class FallingConfettiWithListenerActivity extends AbstractActivity
     }
 
     @Override
-    public void onAnimationStart(ConfettiManager confettiManager) {
-        Toast.makeText(this, "Starting confetti animation", Toast.LENGTH_SHORT).show();
-    }
-
-    @Override
-    public void onAnimationEnd(ConfettiManager confettiManager) {
-        numConfettiOnScreen = 0;
-        updateNumConfettiTxt();
-        Toast.makeText(this, "Ending confetti animation", Toast.LENGTH_SHORT).show();
-    }
-
-    @Override
-    public void onConfettoEnter(Confetto confetto) {
-        numConfettiOnScreen++;
-        updateNumConfettiTxt();
-    }
-
-    @Override
-    public void onConfettoExit(Confetto confetto) {
-        numConfettiOnScreen--;
-        updateNumConfettiTxt();
+    public void onConfettiFrame(ConfettiManager confettiManager,
+            ConfettiManager.ConfettiFrame frame) {
+        updateNumConfettiTxt(frame.getNumLive());
     }
 
-    private void updateNumConfettiTxt() {
+    private void updateNumConfettiTxt(int numConfettiOnScreen) {
         numConfettiTxt.setText(getString(R.string.num_confetti_desc, numConfettiOnScreen));
     }
 }
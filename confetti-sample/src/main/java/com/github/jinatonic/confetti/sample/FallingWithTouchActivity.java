@@ -2,11 +2,11 @@ package com.github.jinatonic.confetti.sample;
 
 import android.content.res.Resources;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.os.Bundle;
 
 import com.github.jinatonic.confetti.ConfettiManager;
 import com.github.jinatonic.confetti.ConfettiSource;
+import com.github.jinatonic.confetti.ConfettiSprites;
 import com.github.jinatonic.confetti.ConfettoGenerator;
 import com.github.jinatonic.confetti.confetto.BitmapConfetto;
 import com.github.jinatonic.confetti.confetto.Confetto;
@@ -27,12 +27,16 @@ public class FallingWithTouchActivity extends AbstractActivity implements Confet
         velocitySlow = res.getDimensionPixelOffset(R.dimen.default_velocity_slow);
         velocityNormal = res.getDimensionPixelOffset(R.dimen.default_velocity_normal);
 
-        bitmap = Bitmap.createScaledBitmap(
-                BitmapFactory.decodeResource(res, R.drawable.snowflake),
-                size,
-                size,
-                false
-        );
+        // Decode the sprite off the main thread, confetti can be generated once it is ready.
+        setGenerateButtonsEnabled(false);
+        ConfettiSprites.decodeResourceAsync(res, R.drawable.snowflake, size, size,
+                new ConfettiSprites.Callback() {
+                    @Override
+                    public void onSpriteLoaded(Bitmap loaded) {
+                        bitmap = loaded;
+                        setGenerateButtonsEnabled(loaded != null);
+                    }
+                });
     }
 
     @Override
@@ -26,6 +26,8 @@ import android.widget.ListAdapter;
 import android.widget.ListView;
 import android.widget.TextView;
 
+import com.github.jinatonic.confetti.ConfettiSprites;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
@@ -64,6 +66,9 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
+        // Rasterize the default confetti shapes in the background ahead of the first animation.
+        ConfettiSprites.preload(this);
+
         final ListView listView = findViewById(android.R.id.list);
         final ListAdapter adapter = new ArrayAdapter<ConfettiSample>(this,
                 R.layout.item_confetti_sample, SAMPLES) {
@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import java.util.Random;
+
+/**
+ * Samples indices in proportion to a set of weights in constant time using Vose's alias method.
+ * Building the table is O(n), after which every sample costs a single random draw regardless of
+ * the number of weights.
+ */
+public class AliasTable {
+    private final float[] probabilities;
+    private final int[] aliases;
+
+    /**
+     * @param weights the non-negative weights of the indices, at least one of them positive.
+     */
+    public AliasTable(float[] weights) {
+        final int n = weights.length;
+        double totalWeight = 0;
+        for (float weight : weights) {
+            if (weight < 0f) {
+                throw new IllegalArgumentException("weights must not be negative");
+            }
+            totalWeight += weight;
+        }
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("at least one weight must be positive");
+        }
+
+        probabilities = new float[n];
+        aliases = new int[n];
+
+        // Scale the weights so that the average is 1 and split them into the indices that are
+        // below and above the average. Each index below the average is topped up by an index
+        // above it, which becomes its alias.
+        final double[] scaled = new double[n];
+        final int[] small = new int[n];
+        final int[] large = new int[n];
+        int numSmall = 0;
+        int numLarge = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / totalWeight;
+            if (scaled[i] < 1) {
+                small[numSmall++] = i;
+            } else {
+                large[numLarge++] = i;
+            }
+        }
+
+        while (numSmall > 0 && numLarge > 0) {
+            final int less = small[--numSmall];
+            final int more = large[--numLarge];
+            probabilities[less] = (float) scaled[less];
+            aliases[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) {
+                small[numSmall++] = more;
+            } else {
+                large[numLarge++] = more;
+            }
+        }
+        // Whatever is left is at the average, up to rounding errors.
+        while (numLarge > 0) {
+            final int index = large[--numLarge];
+            probabilities[index] = 1f;
+            aliases[index] = index;
+        }
+        while (numSmall > 0) {
+            final int index = small[--numSmall];
+            probabilities[index] = 1f;
+            aliases[index] = index;
+        }
+    }
+
+    /**
+     * @return the number of indices in this table.
+     */
+    public int size() {
+        return probabilities.length;
+    }
+
+    /**
+     * @param random the random to draw from.
+     * @return a random index in [0, size) with a probability proportional to its weight.
+     */
+    public int sample(Random random) {
+        // A single draw picks both the column and the coin flip within the column.
+        final float value = random.nextFloat() * probabilities.length;
+        final int index = Math.min((int) value, probabilities.length - 1);
+        return value - index < probabilities[index] ? index : aliases[index];
+    }
+}
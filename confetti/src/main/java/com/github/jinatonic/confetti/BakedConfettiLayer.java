@@ -0,0 +1,205 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.graphics.RectF;
+
+import com.github.jinatonic.confetti.confetto.Confetto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * An offscreen bitmap that static confetti, e.g. settled ones, are rasterized into once. The
+ * whole layer is then drawn with a single bitmap draw per frame, so a pile of resting confetti
+ * costs the same as a single one.
+ *
+ * <p>Updates are incremental: adding a confetto draws just that confetto into the layer, and
+ * removing one erases the area it covered and re-draws only the other confetti overlapping that
+ * area on the next draw.
+ */
+class BakedConfettiLayer {
+    // Past this many removals between two draws, re-rendering everything is cheaper.
+    private static final int MAX_PENDING_REMOVALS = 32;
+
+    // Removed confetti leave a null slot behind until the next draw compacts the list, so that
+    // removing one is O(1) while the rest keep their order.
+    private final ArrayList<Confetto> confetti = new ArrayList<>();
+    private int numRemoved;
+    // The area each confetto covered when it was baked, as left, top, right, bottom.
+    private float[] bounds = new float[4 * 16];
+    // The areas of the removed confetti that have yet to be erased.
+    private final float[] pendingRemovals = new float[4 * MAX_PENDING_REMOVALS];
+    private int numPendingRemovals;
+    private final RectF workRect = new RectF();
+
+    private Bitmap bitmap;
+    private Canvas bitmapCanvas;
+    private boolean dirty;
+
+    void add(Confetto confetto) {
+        final int index = confetti.size();
+        if (bounds.length < 4 * (index + 1)) {
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        }
+        confetto.getDrawBounds(workRect);
+        bounds[4 * index] = workRect.left;
+        bounds[4 * index + 1] = workRect.top;
+        bounds[4 * index + 2] = workRect.right;
+        bounds[4 * index + 3] = workRect.bottom;
+        confetti.add(confetto);
+        confetto.setBakedIndex(index);
+
+        // Pending removals that overlap this confetto re-draw it along with the others.
+        if (bitmapCanvas != null && !dirty) {
+            confetto.draw(bitmapCanvas);
+        }
+    }
+
+    void remove(Confetto confetto) {
+        final int index = confetto.getBakedIndex();
+        if (index < 0 || index >= confetti.size() || confetti.get(index) != confetto) {
+            return;
+        }
+        confetto.setBakedIndex(-1);
+        if (bitmapCanvas != null && !dirty) {
+            addPendingRemoval(index);
+        }
+        confetti.set(index, null);
+        numRemoved++;
+    }
+
+    void clear() {
+        for (int i = 0; i < confetti.size(); i++) {
+            final Confetto confetto = confetti.get(i);
+            if (confetto != null) {
+                confetto.setBakedIndex(-1);
+            }
+        }
+        confetti.clear();
+        numRemoved = 0;
+        dirty = true;
+    }
+
+    int size() {
+        return confetti.size() - numRemoved;
+    }
+
+    void draw(Canvas canvas, int width, int height) {
+        compact();
+        if ((confetti.isEmpty() && numPendingRemovals == 0) || width <= 0 || height <= 0) {
+            return;
+        }
+        if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            release();
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            bitmapCanvas = new Canvas(bitmap);
+            dirty = true;
+        }
+        if (dirty) {
+            bitmap.eraseColor(Color.TRANSPARENT);
+            for (int i = 0; i < confetti.size(); i++) {
+                confetti.get(i).draw(bitmapCanvas);
+            }
+            dirty = false;
+            numPendingRemovals = 0;
+        } else {
+            for (int i = 0; i < numPendingRemovals; i++) {
+                redrawRegion(4 * i);
+            }
+            numPendingRemovals = 0;
+        }
+        canvas.drawBitmap(bitmap, 0, 0, null);
+    }
+
+    /**
+     * Release the offscreen bitmap, which is re-rendered on the next draw if needed.
+     *
+     * @return the approximate number of bytes released.
+     */
+    long release() {
+        if (bitmap == null) {
+            return 0;
+        }
+        final long released = bitmap.getByteCount();
+        bitmap.recycle();
+        bitmap = null;
+        bitmapCanvas = null;
+        numPendingRemovals = 0;
+        return released;
+    }
+
+    /**
+     * Drop the slots of the removed confetti in a single pass, keeping the rest in order.
+     */
+    private void compact() {
+        if (numRemoved == 0) {
+            return;
+        }
+        final int size = confetti.size();
+        int newSize = 0;
+        for (int i = 0; i < size; i++) {
+            final Confetto confetto = confetti.get(i);
+            if (confetto == null) {
+                continue;
+            }
+            if (newSize != i) {
+                confetti.set(newSize, confetto);
+                System.arraycopy(bounds, 4 * i, bounds, 4 * newSize, 4);
+                confetto.setBakedIndex(newSize);
+            }
+            newSize++;
+        }
+        confetti.subList(newSize, size).clear();
+        numRemoved = 0;
+    }
+
+    private void addPendingRemoval(int index) {
+        if (numPendingRemovals == MAX_PENDING_REMOVALS) {
+            dirty = true;
+            return;
+        }
+        System.arraycopy(bounds, 4 * index, pendingRemovals, 4 * numPendingRemovals, 4);
+        numPendingRemovals++;
+    }
+
+    /**
+     * Erase the provided pending removal and re-draw the confetti that overlap it, in their
+     * original order, clipped to the erased area.
+     */
+    private void redrawRegion(int offset) {
+        bitmapCanvas.save();
+        bitmapCanvas.clipRect(pendingRemovals[offset], pendingRemovals[offset + 1],
+                pendingRemovals[offset + 2], pendingRemovals[offset + 3]);
+        bitmapCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        for (int i = 0; i < confetti.size(); i++) {
+            if (overlaps(bounds, 4 * i, pendingRemovals, offset)) {
+                confetti.get(i).draw(bitmapCanvas);
+            }
+        }
+        bitmapCanvas.restore();
+    }
+
+    private static boolean overlaps(float[] a, int aOffset, float[] b, int bOffset) {
+        return a[aOffset] < b[bOffset + 2] && b[bOffset] < a[aOffset + 2]
+                && a[aOffset + 1] < b[bOffset + 3] && b[bOffset + 1] < a[aOffset + 3];
+    }
+}
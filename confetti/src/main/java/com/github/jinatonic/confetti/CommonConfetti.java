@@ -22,8 +22,8 @@ import android.graphics.Bitmap;
 import android.graphics.Rect;
 import android.view.ViewGroup;
 
-import com.github.jinatonic.confetti.confetto.BitmapConfetto;
 import com.github.jinatonic.confetti.confetto.Confetto;
+import com.github.jinatonic.confetti.confetto.MaskConfetto;
 
 import java.util.List;
 import java.util.Random;
@@ -132,13 +132,14 @@ public class CommonConfetti {
                 .animate();
     }
 
-    private ConfettoGenerator getDefaultGenerator(int[] colors) {
-        final List<Bitmap> bitmaps = Utils.generateConfettiBitmaps(colors, defaultConfettiSize);
-        final int numBitmaps = bitmaps.size();
+    private ConfettoGenerator getDefaultGenerator() {
+        // The shapes are colorless masks, the colors are assigned by the manager's palette.
+        final List<Bitmap> masks = ConfettiSprites.getDefaultMasks(defaultConfettiSize);
+        final int numMasks = masks.size();
         return new ConfettoGenerator() {
             @Override
             public Confetto generateConfetto(Random random) {
-                return new BitmapConfetto(bitmaps.get(random.nextInt(numBitmaps)));
+                return new MaskConfetto(masks.get(random.nextInt(numMasks)));
             }
         };
     }
@@ -146,9 +147,10 @@ public class CommonConfetti {
     private void configureRainingConfetti(ViewGroup container, ConfettiSource confettiSource,
             int[] colors) {
         final Context context = container.getContext();
-        final ConfettoGenerator generator = getDefaultGenerator(colors);
+        final ConfettoGenerator generator = getDefaultGenerator();
 
         confettiManager = new ConfettiManager(context, generator, confettiSource, container)
+                .setColors(colors)
                 .setVelocityX(0, defaultVelocitySlow)
                 .setVelocityY(defaultVelocityNormal, defaultVelocitySlow)
                 .setInitialRotation(180, 180)
@@ -158,10 +160,11 @@ public class CommonConfetti {
 
     private void configureExplosion(ViewGroup container, int x, int y, int[] colors) {
         final Context context = container.getContext();
-        final ConfettoGenerator generator = getDefaultGenerator(colors);
+        final ConfettoGenerator generator = getDefaultGenerator();
         final ConfettiSource confettiSource = new ConfettiSource(x, y);
 
         confettiManager = new ConfettiManager(context, generator, confettiSource, container)
+                .setColors(colors)
                 .setTTL(1000)
                 .setBound(new Rect(
                         x - explosionRadius, y - explosionRadius,
@@ -175,6 +178,14 @@ public class CommonConfetti {
                 .setTargetRotationalVelocity(360);
     }
 
+    /**
+     * Reset the cached default dimensions so that they are resolved again, e.g. after a
+     * configuration change that affects the display density.
+     */
+    static void resetStaticResources() {
+        defaultConfettiSize = 0;
+    }
+
     private static void ensureStaticResources(ViewGroup container) {
         if (defaultConfettiSize == 0) {
             final Resources res = container.getResources();
@@ -0,0 +1,221 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A process-wide budget of confetti shared by every animating {@link ConfettiManager}. The
+ * budget limits the total number of live confetti and the number of confetti spawned per frame,
+ * and splits both limits among the animating managers in proportion to their weights (see
+ * {@link ConfettiManager#setBudgetWeight(float)}). A manager can never exceed its share, so a
+ * single noisy effect cannot take the budget away from the others.
+ *
+ * <p>By default the budget is unlimited.
+ */
+public class ConfettiBudget {
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private static final ConfettiBudget INSTANCE = new ConfettiBudget();
+
+    private final List<Allocation> activeAllocations = new ArrayList<>();
+    private int maxLiveConfetti = UNLIMITED;
+    private int maxSpawnsPerFrame = UNLIMITED;
+    private float totalWeight;
+
+    // Visible for testing
+    ConfettiBudget() {
+    }
+
+    public static ConfettiBudget getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param maxLiveConfetti the maximum number of confetti alive at once across all managers,
+     *   or {@link #UNLIMITED}.
+     */
+    public synchronized void setMaxLiveConfetti(int maxLiveConfetti) {
+        this.maxLiveConfetti = maxLiveConfetti;
+        updateShares();
+    }
+
+    /**
+     * @param maxSpawnsPerFrame the maximum number of confetti spawned per frame across all
+     *   managers, or {@link #UNLIMITED}.
+     */
+    public synchronized void setMaxSpawnsPerFrame(int maxSpawnsPerFrame) {
+        this.maxSpawnsPerFrame = maxSpawnsPerFrame;
+        updateShares();
+    }
+
+    /**
+     * @return a snapshot of the allocations of all of the currently animating managers.
+     */
+    public synchronized List<Allocation> getAllocations() {
+        return new ArrayList<>(activeAllocations);
+    }
+
+    /**
+     * @return the number of live confetti across all animating managers.
+     */
+    public synchronized int getTotalLiveCount() {
+        int total = 0;
+        for (int i = 0; i < activeAllocations.size(); i++) {
+            total += activeAllocations.get(i).liveCount;
+        }
+        return total;
+    }
+
+    synchronized void activate(Allocation allocation) {
+        if (!activeAllocations.contains(allocation)) {
+            activeAllocations.add(allocation);
+            updateShares();
+        }
+    }
+
+    synchronized void deactivate(Allocation allocation) {
+        if (activeAllocations.remove(allocation)) {
+            allocation.liveCount = 0;
+            allocation.spawnedThisFrame = 0;
+            updateShares();
+        }
+    }
+
+    synchronized void setWeight(Allocation allocation, float weight) {
+        allocation.weight = weight;
+        updateShares();
+    }
+
+    /**
+     * Request to spawn new confetti for the provided allocation in the current frame.
+     *
+     * @return the number of confetti that may be spawned, at most the requested number.
+     */
+    synchronized int acquireSpawns(Allocation allocation, int requested) {
+        final int liveRoom = allocation.liveLimit - allocation.liveCount;
+        final int spawnRoom = allocation.spawnLimitPerFrame - allocation.spawnedThisFrame;
+        final int granted = Math.max(0, Math.min(requested, Math.min(liveRoom, spawnRoom)));
+        allocation.spawnedThisFrame += granted;
+        allocation.liveCount += granted;
+        return granted;
+    }
+
+    synchronized void onFrame(Allocation allocation, int liveCount) {
+        allocation.liveCount = liveCount;
+        allocation.spawnedThisFrame = 0;
+    }
+
+    private void updateShares() {
+        totalWeight = 0;
+        for (int i = 0; i < activeAllocations.size(); i++) {
+            totalWeight += activeAllocations.get(i).weight;
+        }
+        for (int i = 0; i < activeAllocations.size(); i++) {
+            final Allocation allocation = activeAllocations.get(i);
+            allocation.share = totalWeight > 0 ? allocation.weight / totalWeight : 0f;
+        }
+        final int[] liveLimits = getSharesOf(maxLiveConfetti);
+        final int[] spawnLimits = getSharesOf(maxSpawnsPerFrame);
+        for (int i = 0; i < activeAllocations.size(); i++) {
+            final Allocation allocation = activeAllocations.get(i);
+            allocation.liveLimit = liveLimits[i];
+            allocation.spawnLimitPerFrame = spawnLimits[i];
+        }
+    }
+
+    /**
+     * Split the limit among the active allocations in proportion to their shares. Every share is
+     * rounded down and the units left over go to the largest remainders, so that the shares never
+     * add up to more than the limit.
+     */
+    private int[] getSharesOf(int limit) {
+        final int numAllocations = activeAllocations.size();
+        final int[] shares = new int[numAllocations];
+        if (limit == UNLIMITED) {
+            Arrays.fill(shares, UNLIMITED);
+            return shares;
+        }
+
+        final double[] remainders = new double[numAllocations];
+        int leftover = limit;
+        for (int i = 0; i < numAllocations; i++) {
+            final double exact = (double) limit * activeAllocations.get(i).share;
+            shares[i] = (int) Math.floor(exact);
+            remainders[i] = exact - shares[i];
+            leftover -= shares[i];
+        }
+        for (; leftover > 0; leftover--) {
+            int largest = -1;
+            for (int i = 0; i < numAllocations; i++) {
+                if (remainders[i] > 0 && (largest < 0 || remainders[i] > remainders[largest])) {
+                    largest = i;
+                }
+            }
+            if (largest < 0) {
+                break;
+            }
+            shares[largest]++;
+            remainders[largest] = 0;
+        }
+        return shares;
+    }
+
+    /**
+     * The share of the {@link ConfettiBudget} held by a single {@link ConfettiManager}.
+     */
+    public static class Allocation {
+        private float weight = 1f;
+        private float share;
+        private int liveLimit = UNLIMITED;
+        private int spawnLimitPerFrame = UNLIMITED;
+        private int liveCount;
+        private int spawnedThisFrame;
+
+        Allocation() {
+        }
+
+        public float getWeight() {
+            return weight;
+        }
+
+        /**
+         * @return the fraction [0, 1] of the budget held by this allocation.
+         */
+        public float getShare() {
+            return share;
+        }
+
+        public int getLiveLimit() {
+            return liveLimit;
+        }
+
+        public int getSpawnLimitPerFrame() {
+            return spawnLimitPerFrame;
+        }
+
+        public int getLiveCount() {
+            return liveCount;
+        }
+
+        public int getSpawnedThisFrame() {
+            return spawnedThisFrame;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+import com.github.jinatonic.confetti.confetto.Confetto;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Draws {@link ConfettiDebugStats} on top of the confetti: counters as text, the update and draw
+ * times as sparklines against the frame interval, and outlines of the confetti bound and of the
+ * area that the confetti actually covered on the last frame. {@link ConfettiView} draws this
+ * automatically when the debug overlay is enabled, but a host can also draw it itself.
+ */
+public class ConfettiDebugOverlay {
+    private static final float TEXT_SIZE = 28f;
+    private static final float SPARKLINE_WIDTH = 240f;
+    private static final float SPARKLINE_HEIGHT = 80f;
+
+    private final ConfettiDebugStats stats;
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint linePaint = new Paint();
+    private final Paint backgroundPaint = new Paint();
+    private final float[] sparkline = new float[(ConfettiDebugStats.NUM_SAMPLES - 1) * 4];
+    private final RectF dirtyRect = new RectF();
+
+    public ConfettiDebugOverlay(ConfettiDebugStats stats) {
+        this.stats = stats;
+        textPaint.setColor(Color.WHITE);
+        textPaint.setTextSize(TEXT_SIZE);
+        linePaint.setStyle(Paint.Style.STROKE);
+        linePaint.setStrokeWidth(2f);
+        backgroundPaint.setColor(0xAA000000);
+    }
+
+    public ConfettiDebugStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Compute the area covered by the provided confetti, outlined on the next draw.
+     *
+     * @param confetti the confetti that were just drawn.
+     */
+    public void updateDirtyRect(List<Confetto> confetti) {
+        dirtyRect.setEmpty();
+        for (int i = 0; i < confetti.size(); i++) {
+            final Confetto confetto = confetti.get(i);
+            if (confetto.isDrawable()) {
+                final float x = confetto.getCurrentX();
+                final float y = confetto.getCurrentY();
+                dirtyRect.union(x, y, x + confetto.getWidth(), y + confetto.getHeight());
+            }
+        }
+    }
+
+    public void draw(Canvas canvas) {
+        if (stats.getBound() != null) {
+            linePaint.setColor(Color.CYAN);
+            canvas.drawRect(stats.getBound(), linePaint);
+        }
+        if (!dirtyRect.isEmpty()) {
+            linePaint.setColor(Color.MAGENTA);
+            canvas.drawRect(dirtyRect, linePaint);
+        }
+
+        final float lineHeight = TEXT_SIZE * 1.2f;
+        final float left = TEXT_SIZE / 2;
+        float y = lineHeight;
+        canvas.drawRect(0, 0, left * 2 + SPARKLINE_WIDTH * 1.5f,
+                lineHeight * 5 + SPARKLINE_HEIGHT + left, backgroundPaint);
+        canvas.drawText("live " + stats.getNumLive()
+                + "  spawns/s " + Math.round(stats.getSpawnsPerSecond()), left, y, textPaint);
+        y += lineHeight;
+        canvas.drawText("pool " + stats.getPoolSize() + "/" + stats.getPoolCapacity()
+                + "  dropped " + stats.getNumDroppedFrames(), left, y, textPaint);
+        y += lineHeight;
+        canvas.drawText(String.format(Locale.US, "update %.2fms  draw %.2fms",
+                stats.getUpdateMillis(0), stats.getDrawMillis(0)), left, y, textPaint);
+        y += lineHeight;
+        textPaint.setColor(Color.GREEN);
+        canvas.drawText("update", left, y, textPaint);
+        textPaint.setColor(Color.YELLOW);
+        canvas.drawText("draw", left + SPARKLINE_WIDTH / 2, y, textPaint);
+        textPaint.setColor(Color.WHITE);
+        y += left;
+
+        // The top of the sparkline is one full frame interval.
+        final float bottom = y + SPARKLINE_HEIGHT;
+        linePaint.setColor(Color.GRAY);
+        canvas.drawLine(left, y, left + SPARKLINE_WIDTH, y, linePaint);
+        drawSparkline(canvas, left, bottom, true, Color.GREEN);
+        drawSparkline(canvas, left, bottom, false, Color.YELLOW);
+    }
+
+    private void drawSparkline(Canvas canvas, float left, float bottom, boolean update,
+            int color) {
+        final int numSamples = ConfettiDebugStats.NUM_SAMPLES;
+        final float step = SPARKLINE_WIDTH / (numSamples - 1);
+        final float scale = SPARKLINE_HEIGHT / stats.getFrameIntervalMillis();
+        float prevX = left;
+        float prevY = 0;
+        for (int i = 0; i < numSamples; i++) {
+            // Oldest sample on the left.
+            final int age = numSamples - 1 - i;
+            final float millis = update ? stats.getUpdateMillis(age) : stats.getDrawMillis(age);
+            final float x = left + i * step;
+            final float y = bottom - Math.min(SPARKLINE_HEIGHT, millis * scale);
+            if (i > 0) {
+                final int p = (i - 1) * 4;
+                sparkline[p] = prevX;
+                sparkline[p + 1] = prevY;
+                sparkline[p + 2] = x;
+                sparkline[p + 3] = y;
+            }
+            prevX = x;
+            prevY = y;
+        }
+        linePaint.setColor(color);
+        canvas.drawLines(sparkline, linePaint);
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import android.graphics.Rect;
+
+/**
+ * Performance counters of a single {@link ConfettiManager}, collected only while its debug
+ * overlay is enabled. See {@link ConfettiManager#setDebugOverlayEnabled(boolean)}.
+ */
+public class ConfettiDebugStats {
+    /**
+     * The number of frames kept for the update and draw time sparklines.
+     */
+    public static final int NUM_SAMPLES = 60;
+
+    // A frame that takes this many frame intervals or longer counts as dropped.
+    private static final float DROPPED_FRAME_THRESHOLD = 1.5f;
+
+    private final float[] updateMillis = new float[NUM_SAMPLES];
+    private final float[] drawMillis = new float[NUM_SAMPLES];
+    private int updateIndex, drawIndex;
+
+    private int numLive;
+    private int poolSize, poolCapacity;
+    private float spawnsPerSecond;
+    private int spawnsInWindow;
+    private long windowStartTime;
+    private long lastFrameTime = -1;
+    private float frameIntervalMillis = 1000f / 60;
+    private int numDroppedFrames;
+    private Rect bound;
+
+    ConfettiDebugStats() {
+    }
+
+    void reset(float frameIntervalMillis, Rect bound) {
+        this.frameIntervalMillis = frameIntervalMillis;
+        this.bound = bound;
+        lastFrameTime = -1;
+        windowStartTime = 0;
+        spawnsInWindow = 0;
+        spawnsPerSecond = 0;
+        numDroppedFrames = 0;
+    }
+
+    /**
+     * Record the start of an animation frame, counting the frames that were dropped since the
+     * previous one.
+     */
+    void onFrame(long elapsedTime) {
+        if (lastFrameTime >= 0) {
+            final float numIntervals = (elapsedTime - lastFrameTime) / frameIntervalMillis;
+            if (numIntervals >= DROPPED_FRAME_THRESHOLD) {
+                numDroppedFrames += Math.round(numIntervals) - 1;
+            }
+        }
+        lastFrameTime = elapsedTime;
+    }
+
+    void recordUpdate(long elapsedTime, long durationNanos, int numSpawned, int numLive,
+            ConfettoPool pool) {
+        updateMillis[updateIndex] = durationNanos / 1000000f;
+        updateIndex = (updateIndex + 1) % NUM_SAMPLES;
+
+        this.numLive = numLive;
+        this.poolSize = pool.size();
+        this.poolCapacity = pool.capacity();
+
+        spawnsInWindow += numSpawned;
+        final long windowDuration = elapsedTime - windowStartTime;
+        if (windowDuration >= 1000) {
+            spawnsPerSecond = spawnsInWindow * 1000f / windowDuration;
+            spawnsInWindow = 0;
+            windowStartTime = elapsedTime;
+        }
+    }
+
+    void recordDraw(long durationNanos) {
+        drawMillis[drawIndex] = durationNanos / 1000000f;
+        drawIndex = (drawIndex + 1) % NUM_SAMPLES;
+    }
+
+    public int getNumLive() {
+        return numLive;
+    }
+
+    public float getSpawnsPerSecond() {
+        return spawnsPerSecond;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getPoolCapacity() {
+        return poolCapacity;
+    }
+
+    public int getNumDroppedFrames() {
+        return numDroppedFrames;
+    }
+
+    public float getFrameIntervalMillis() {
+        return frameIntervalMillis;
+    }
+
+    /**
+     * @param age 0 for the latest frame, up to {@link #NUM_SAMPLES} - 1 for the oldest one.
+     * @return the time spent emitting and updating the confetti on that frame.
+     */
+    public float getUpdateMillis(int age) {
+        return updateMillis[(updateIndex - 1 - age + 2 * NUM_SAMPLES) % NUM_SAMPLES];
+    }
+
+    /**
+     * @param age 0 for the latest frame, up to {@link #NUM_SAMPLES} - 1 for the oldest one.
+     * @return the time spent recording the confetti draw operations on that frame.
+     */
+    public float getDrawMillis(int age) {
+        return drawMillis[(drawIndex - 1 - age + 2 * NUM_SAMPLES) % NUM_SAMPLES];
+    }
+
+    /**
+     * @return the bound that the confetti are clipped to.
+     */
+    public Rect getBound() {
+        return bound;
+    }
+}
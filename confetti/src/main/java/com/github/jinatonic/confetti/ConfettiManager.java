@@ -17,20 +17,26 @@
 package com.github.jinatonic.confetti;
 
 import android.animation.ValueAnimator;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
 import android.graphics.Rect;
+import android.os.Build;
+import android.view.Display;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.ViewParent;
 import android.view.animation.Interpolator;
 
+import com.github.jinatonic.confetti.confetto.CircleConfetto;
+import com.github.jinatonic.confetti.confetto.Collider;
+import com.github.jinatonic.confetti.confetto.ColorCurve;
 import com.github.jinatonic.confetti.confetto.Confetto;
+import com.github.jinatonic.confetti.confetto.ForceField;
+import com.github.jinatonic.confetti.confetto.LifetimeCurve;
 
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Queue;
 import java.util.Random;
 
 /**
@@ -39,16 +45,43 @@ import java.util.Random;
 public class ConfettiManager {
     public static final long INFINITE_DURATION = Long.MAX_VALUE;
 
+    // Rough per-confetto footprint: the confetto object itself plus its Paint, Matrix and work
+    // arrays. Used to estimate memory usage in {@link #estimateCapacity()}.
+    static final int ESTIMATED_CONFETTO_BYTES = 512;
+    // Per-confetto footprint in procedural mode: a long spawn time, an int seed, a source and a
+    // float time to reach the bound.
+    static final int PROCEDURAL_CONFETTO_BYTES = 20;
+    // Upper bound on the number of confetti pre-allocated by the pre-warm option so that
+    // never-ending configurations don't pre-allocate an unbounded pool.
+    static final int MAX_PREWARM_COUNT = 5000;
+    // Upper bound on the number of fixed simulation steps taken on a single frame. After a long
+    // stall the simulation skips ahead instead of trying to catch up step by step.
+    private static final int MAX_STEPS_PER_FRAME = 8;
+    // In long-running mode the time origin is moved forward by this much whenever the animation
+    // time reaches twice this value. A whole number of seconds so that fixed simulation steps
+    // line up exactly after a rebase, and much longer than any confetto lifetime.
+    static final long REBASE_INTERVAL_MILLIS = 60 * 60 * 1000;
+    // Default upper bound on the number of confetti that sub-emitters can spawn on one frame.
+    private static final int DEFAULT_MAX_SUB_EMITTER_SPAWNS_PER_FRAME = 500;
+
     private final Random random = new Random();
     private final ConfettoGenerator confettoGenerator;
     private final ConfettiSource confettiSource;
+    private final MultiConfettiSource multiSource;
     private final ViewGroup parentView;
     private final ConfettiView confettiView;
 
-    private final Queue<Confetto> recycledConfetti = new LinkedList<>();
-    private final List<Confetto> confetti = new ArrayList<>(300);
+    private final ConfettoPool recycledConfetti = new ConfettoPool(300);
+    private final ArrayList<Confetto> confetti = new ArrayList<>(300);
     private ValueAnimator animator;
     private long lastEmittedTimestamp;
+    private long lastSourceEmissionTime;
+    private final float[] workPosition = new float[2];
+    private boolean prewarmEnabled;
+    private int largestConfettoWidth, largestConfettoHeight;
+    private int numProceduralTemplates;
+    private ProceduralConfetti proceduralConfetti;
+    private long proceduralMaxLifetime;
 
     // All of the below configured values are in milliseconds despite the setter methods take them
     // in seconds as the parameters. The parameters for the setters are in seconds to allow for
@@ -58,7 +91,10 @@ public class ConfettiManager {
     private int numInitialCount;
     private long emissionDuration;
     private float emissionRate, emissionRateInverse;
-    private Interpolator fadeOutInterpolator;
+    private LifetimeCurve alphaCurve, scaleCurve;
+    private ColorCurve colorCurve;
+    private int[] colors;
+    private float[] colorWeights;
     private Rect bound;
 
     // Configured attributes for each confetto
@@ -72,9 +108,54 @@ public class ConfettiManager {
     private float rotationalVelocity, rotationalVelocityDeviation;
     private float rotationalAcceleration, rotationalAccelerationDeviation;
     private Float targetRotationalVelocity, targetRotationalVelocityDeviation;
+    private float scale, scaleDeviation;
     private long ttl;
+    // Compiled snapshot of the above, cleared whenever any of them change.
+    private EmitterConfig emitterConfig;
 
     private ConfettiAnimationListener animationListener;
+    private ConfettiFrameListener frameListener;
+    private boolean postFrames;
+    private ConfettiFrame recordingFrame, spareFrame, pendingFrame;
+    private final Runnable deliverPendingFrame = new Runnable() {
+        @Override
+        public void run() {
+            final ConfettiFrame frame = pendingFrame;
+            pendingFrame = null;
+            if (frame != null && frameListener != null) {
+                frameListener.onConfettiFrame(ConfettiManager.this, frame);
+            }
+            if (frame != null) {
+                frame.clear();
+                spareFrame = frame;
+            }
+        }
+    };
+    private final ConfettiBudget.Allocation budgetAllocation = new ConfettiBudget.Allocation();
+    private ConfettiPowerPolicy powerPolicy;
+    private ConfettiPowerMonitor powerMonitor;
+    private ConfettiPowerProfile powerProfile = ConfettiPowerProfile.FULL;
+    private int powerStateVersion;
+    // When the power profile caps the frame rate, the time at which the next frame is due.
+    private double nextFrameTime;
+    // Half of the display's frame interval, or -1 until the next capped frame looks it up.
+    private float frameSlackMillis = -1f;
+    private int numSpawnedThisFrame;
+    private ConfettiDebugStats debugStats;
+    private int simulationHz;
+    private long simulationStep;
+    private double emissionCarry;
+    private boolean longRunningMode;
+    // The animator play time that the animation time is measured from, see REBASE_INTERVAL_MILLIS.
+    private long timeOrigin;
+    private final ArrayList<SubEmitter> subEmitters = new ArrayList<>();
+    private int maxSubEmitterSpawnsPerFrame = DEFAULT_MAX_SUB_EMITTER_SPAWNS_PER_FRAME;
+    private long lastUpdateTime;
+    private ConfettiTrails trails;
+    // Shared by all of the confetti emitted while it is set, null if there are no force fields.
+    private ForceField[] forceFields;
+    private Collider collider;
+    private View[] collisionViews;
 
     public ConfettiManager(Context context, ConfettoGenerator confettoGenerator,
             ConfettiSource confettiSource, ViewGroup parentView) {
@@ -85,6 +166,8 @@ public class ConfettiManager {
             ConfettiSource confettiSource, ViewGroup parentView, ConfettiView confettiView) {
         this.confettoGenerator = confettoGenerator;
         this.confettiSource = confettiSource;
+        this.multiSource = confettiSource instanceof MultiConfettiSource
+                ? (MultiConfettiSource) confettiSource : null;
         this.parentView = parentView;
         this.confettiView = confettiView;
         this.confettiView.bind(confetti);
@@ -100,8 +183,11 @@ public class ConfettiManager {
             }
         });
 
+        ConfettiMemoryTrimmer.register(confettiView.getContext(), this);
+
         // Set the defaults
         this.ttl = -1;
+        this.scale = 1f;
         this.bound = new Rect(0, 0, parentView.getWidth(), parentView.getHeight());
     }
 
@@ -163,6 +249,7 @@ public class ConfettiManager {
     public ConfettiManager setVelocityX(float velocityX, float velocityDeviationX) {
         this.velocityX = velocityX / 1000f;
         this.velocityDeviationX = velocityDeviationX / 1000f;
+        this.emitterConfig = null;
         return this;
     }
 
@@ -189,6 +276,7 @@ public class ConfettiManager {
     public ConfettiManager setVelocityY(float velocityY, float velocityDeviationY) {
         this.velocityY = velocityY / 1000f;
         this.velocityDeviationY = velocityDeviationY / 1000f;
+        this.emitterConfig = null;
         return this;
     }
 
@@ -214,6 +302,7 @@ public class ConfettiManager {
     public ConfettiManager setAccelerationX(float accelerationX, float accelerationDeviationX) {
         this.accelerationX = accelerationX / 1000000f;
         this.accelerationDeviationX = accelerationDeviationX / 1000000f;
+        this.emitterConfig = null;
         return this;
     }
 
@@ -240,6 +329,7 @@ public class ConfettiManager {
     public ConfettiManager setAccelerationY(float accelerationY, float accelerationDeviationY) {
         this.accelerationY = accelerationY / 1000000f;
         this.accelerationDeviationY = accelerationDeviationY / 1000000f;
+        this.emitterConfig = null;
         return this;
     }
 
@@ -265,6 +355,7 @@ public class ConfettiManager {
             float targetVelocityXDeviation) {
         this.targetVelocityX = targetVelocityX / 1000f;
         this.targetVelocityXDeviation = targetVelocityXDeviation / 1000f;
+        this.emitterConfig = null;
         return this;
     }
 
@@ -290,6 +381,7 @@ public class ConfettiManager {
             float targetVelocityYDeviation) {
         this.targetVelocityY = targetVelocityY / 1000f;
         this.targetVelocityYDeviation = targetVelocityYDeviation / 1000f;
+        this.emitterConfig = null;
         return this;
     }
 
@@ -315,6 +407,7 @@ public class ConfettiManager {
     public ConfettiManager setInitialRotation(int initialRotation, int initialRotationDeviation) {
         this.initialRotation = initialRotation;
         this.initialRotationDeviation = initialRotationDeviation;
+        this.emitterConfig = null;
         return this;
     }
 
@@ -342,6 +435,7 @@ public class ConfettiManager {
             float rotationalVelocityDeviation) {
         this.rotationalVelocity = rotationalVelocity / 1000f;
         this.rotationalVelocityDeviation = rotationalVelocityDeviation / 1000f;
+        this.emitterConfig = null;
         return this;
     }
 
@@ -369,6 +463,7 @@ public class ConfettiManager {
             float rotationalAccelerationDeviation) {
         this.rotationalAcceleration = rotationalAcceleration / 1000000f;
         this.rotationalAccelerationDeviation = rotationalAccelerationDeviation / 1000000f;
+        this.emitterConfig = null;
         return this;
     }
 
@@ -396,6 +491,37 @@ public class ConfettiManager {
             float targetRotationalVelocityDeviation) {
         this.targetRotationalVelocity = targetRotationalVelocity / 1000f;
         this.targetRotationalVelocityDeviation = targetRotationalVelocityDeviation / 1000f;
+        this.emitterConfig = null;
+        return this;
+    }
+
+    /**
+     * @see #setScale(float, float)
+     *
+     * @param scale the scale of the confetti, 1 being their original size.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setScale(float scale) {
+        return setScale(scale, 0f);
+    }
+
+    /**
+     * Set the scale used by this manager. This value defines the size of the generated confetti
+     * relative to their original size. The actual confetti's scale will be
+     * (scale +- [0, scaleDeviation]). The scale is combined with
+     * {@link #setScaleOverLifetime(LifetimeCurve)} if set.
+     *
+     * <p>Use {@link com.github.jinatonic.confetti.confetto.SpriteMipmap} with bitmap confetti
+     * to keep scaled-down bitmaps crisp and cheap to draw.
+     *
+     * @param scale the scale of the confetti, 1 being their original size.
+     * @param scaleDeviation the deviation from the scale.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setScale(float scale, float scaleDeviation) {
+        this.scale = scale;
+        this.scaleDeviation = scaleDeviation;
+        this.emitterConfig = null;
         return this;
     }
 
@@ -409,6 +535,9 @@ public class ConfettiManager {
      */
     public ConfettiManager setBound(Rect bound) {
         this.bound = bound;
+        if (trails != null) {
+            trails.setBound(bound);
+        }
         return this;
     }
 
@@ -423,6 +552,39 @@ public class ConfettiManager {
      */
     public ConfettiManager setTTL(long ttlInMillis) {
         this.ttl = ttlInMillis;
+        this.emitterConfig = null;
+        return this;
+    }
+
+    /**
+     * Sets the palette used to color the confetti generated by this manager. Each confetto is
+     * assigned a random color from the palette every time it is emitted, so the palette can be
+     * changed while the animation is running. Only confetti that are tinted at draw time, e.g.
+     * {@link com.github.jinatonic.confetti.confetto.MaskConfetto}, are affected.
+     *
+     * @param colors the palette of colors, or null to keep the generated confetto colors.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setColors(int[] colors) {
+        return setColors(colors, null);
+    }
+
+    /**
+     * Sets the palette used to color the confetti generated by this manager, picking each color
+     * in proportion to its weight, e.g. 80% gold and 20% silver. The pick takes constant time
+     * regardless of the size of the palette.
+     *
+     * @see #setColors(int[])
+     *
+     * @param colors the palette of colors, or null to keep the generated confetto colors.
+     * @param weights the weight of each color in the same order, or null to pick uniformly.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setColors(int[] colors, float[] weights) {
+        EmitterConfig.checkColorWeights(colors, weights);
+        this.colors = colors != null && colors.length > 0 ? colors : null;
+        this.colorWeights = this.colors != null ? weights : null;
+        this.emitterConfig = null;
         return this;
     }
 
@@ -431,12 +593,16 @@ public class ConfettiManager {
      * the confetti will animate alpha according to the fadeOutInterpolator according
      * to its TTL or, if TTL is not set, its bounds.
      *
+     * <p>The interpolator is baked into a {@link LifetimeCurve} right away, so it is not invoked
+     * while the confetti animate.
+     *
      * @param fadeOutInterpolator an interpolator that interpolates animation progress [0, 1] into
      *   an alpha value [0, 1], 0 being transparent and 1 being opaque.
      * @return the confetti manager so that the set calls can be chained.
      */
     public ConfettiManager enableFadeOut(Interpolator fadeOutInterpolator) {
-        this.fadeOutInterpolator = fadeOutInterpolator;
+        this.alphaCurve = LifetimeCurve.fromInterpolator(fadeOutInterpolator);
+        this.emitterConfig = null;
         return this;
     }
 
@@ -446,10 +612,174 @@ public class ConfettiManager {
      * @return the confetti manager so that the set calls can be chained.
      */
     public ConfettiManager disableFadeOut() {
-        this.fadeOutInterpolator = null;
+        this.alphaCurve = null;
+        this.emitterConfig = null;
+        return this;
+    }
+
+    /**
+     * Sets the alpha over lifetime for all of the confetti generated by this manager. This is
+     * the same as {@link #enableFadeOut(Interpolator)} but with an already baked curve.
+     *
+     * @param alphaCurve the alpha [0, 1] over the confetto lifetime, or null to disable.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setAlphaOverLifetime(LifetimeCurve alphaCurve) {
+        this.alphaCurve = alphaCurve;
+        this.emitterConfig = null;
+        return this;
+    }
+
+    /**
+     * Sets the scale over lifetime for all of the confetti generated by this manager. The
+     * confetti are scaled around their center.
+     *
+     * @param scaleCurve the scale over the confetto lifetime, or null to disable.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setScaleOverLifetime(LifetimeCurve scaleCurve) {
+        this.scaleCurve = scaleCurve;
+        this.emitterConfig = null;
+        return this;
+    }
+
+    /**
+     * Sets the color over lifetime for all of the confetti generated by this manager. The
+     * confetti are tinted with the sampled color.
+     *
+     * @param colorCurve the color over the confetto lifetime, or null to disable.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setColorOverLifetime(ColorCurve colorCurve) {
+        this.colorCurve = colorCurve;
+        this.emitterConfig = null;
         return this;
     }
 
+    /**
+     * Sets all of the per-confetto parameters (velocity, acceleration, rotation, scale, TTL,
+     * lifetime curves and colors) at once from a shared config.
+     *
+     * @param emitterConfig the config, which can be shared with other managers.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setEmitterConfig(EmitterConfig emitterConfig) {
+        this.velocityX = emitterConfig.velocityX;
+        this.velocityDeviationX = emitterConfig.velocityDeviationX;
+        this.velocityY = emitterConfig.velocityY;
+        this.velocityDeviationY = emitterConfig.velocityDeviationY;
+        this.accelerationX = emitterConfig.accelerationX;
+        this.accelerationDeviationX = emitterConfig.accelerationDeviationX;
+        this.accelerationY = emitterConfig.accelerationY;
+        this.accelerationDeviationY = emitterConfig.accelerationDeviationY;
+        this.targetVelocityX = emitterConfig.targetVelocityX;
+        this.targetVelocityXDeviation = emitterConfig.targetVelocityXDeviation;
+        this.targetVelocityY = emitterConfig.targetVelocityY;
+        this.targetVelocityYDeviation = emitterConfig.targetVelocityYDeviation;
+        this.initialRotation = emitterConfig.initialRotation;
+        this.initialRotationDeviation = emitterConfig.initialRotationDeviation;
+        this.rotationalVelocity = emitterConfig.rotationalVelocity;
+        this.rotationalVelocityDeviation = emitterConfig.rotationalVelocityDeviation;
+        this.rotationalAcceleration = emitterConfig.rotationalAcceleration;
+        this.rotationalAccelerationDeviation = emitterConfig.rotationalAccelerationDeviation;
+        this.targetRotationalVelocity = emitterConfig.targetRotationalVelocity;
+        this.targetRotationalVelocityDeviation =
+                emitterConfig.targetRotationalVelocityDeviation;
+        this.scale = emitterConfig.scale;
+        this.scaleDeviation = emitterConfig.scaleDeviation;
+        this.ttl = emitterConfig.ttl;
+        this.alphaCurve = emitterConfig.alphaCurve;
+        this.scaleCurve = emitterConfig.scaleCurve;
+        this.colorCurve = emitterConfig.colorCurve;
+        this.colors = emitterConfig.getColors();
+        this.colorWeights = emitterConfig.getColorWeights();
+        this.emitterConfig = emitterConfig;
+        return this;
+    }
+
+    ConfettoGenerator getConfettoGenerator() {
+        return confettoGenerator;
+    }
+
+    ConfettiSource getConfettiSource() {
+        return confettiSource;
+    }
+
+    Rect getBound() {
+        return bound;
+    }
+
+    int getNumInitialCount() {
+        return numInitialCount;
+    }
+
+    long getEmissionDuration() {
+        return emissionDuration;
+    }
+
+    /**
+     * @return the configured emission rate in confetti per millisecond.
+     */
+    float getEmissionRate() {
+        return emissionRate;
+    }
+
+    /**
+     * @return the number of template confetti of procedural mode, or 0 if it isn't enabled.
+     */
+    int getNumProceduralTemplates() {
+        return numProceduralTemplates;
+    }
+
+    /**
+     * @return whether or not the confetti depend on the history of the animation through force
+     *   fields, collisions, sub-emitters or trails, so that they can't be replayed from their
+     *   spawn time and seed alone.
+     */
+    boolean hasStatefulEffects() {
+        return forceFields != null || collider != null || !subEmitters.isEmpty() || trails != null;
+    }
+
+    /**
+     * @return an immutable snapshot of the per-confetto parameters currently configured on this
+     *   manager.
+     */
+    public EmitterConfig getEmitterConfig() {
+        if (emitterConfig == null) {
+            final EmitterConfig.Builder builder = new EmitterConfig.Builder();
+            builder.velocityX = velocityX;
+            builder.velocityDeviationX = velocityDeviationX;
+            builder.velocityY = velocityY;
+            builder.velocityDeviationY = velocityDeviationY;
+            builder.accelerationX = accelerationX;
+            builder.accelerationDeviationX = accelerationDeviationX;
+            builder.accelerationY = accelerationY;
+            builder.accelerationDeviationY = accelerationDeviationY;
+            builder.targetVelocityX = targetVelocityX;
+            builder.targetVelocityXDeviation = targetVelocityXDeviation;
+            builder.targetVelocityY = targetVelocityY;
+            builder.targetVelocityYDeviation = targetVelocityYDeviation;
+            builder.initialRotation = initialRotation;
+            builder.initialRotationDeviation = initialRotationDeviation;
+            builder.rotationalVelocity = rotationalVelocity;
+            builder.rotationalVelocityDeviation = rotationalVelocityDeviation;
+            builder.rotationalAcceleration = rotationalAcceleration;
+            builder.rotationalAccelerationDeviation = rotationalAccelerationDeviation;
+            builder.targetRotationalVelocity = targetRotationalVelocity;
+            builder.targetRotationalVelocityDeviation = targetRotationalVelocityDeviation;
+            builder.scale = scale;
+            builder.scaleDeviation = scaleDeviation;
+            builder.ttl = ttl;
+            builder.alphaCurve = alphaCurve;
+            builder.scaleCurve = scaleCurve;
+            builder.colorCurve = colorCurve;
+            builder.colors = colors;
+            builder.colorWeights = colorWeights;
+            emitterConfig = builder.build();
+        }
+        return emitterConfig;
+    }
+
     /**
      * Enables or disables touch events for the confetti generated by this manager. By enabling
      * touch, the user can touch individual confetto and drag/fling them on the screen independent
@@ -463,6 +793,314 @@ public class ConfettiManager {
         return this;
     }
 
+    /**
+     * Enables the point-sprite fast path for small {@link CircleConfetto}. Circles whose
+     * diameter is at most the threshold are grouped by color and alpha and drawn in a single
+     * batched call per group instead of one circle at a time. Larger circles and any other
+     * confetti are drawn as usual.
+     *
+     * @param maxDiameter the largest circle diameter in pixels to draw as a point, or 0 to
+     *   disable the fast path.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setPointSpriteThreshold(float maxDiameter) {
+        this.confettiView.setPointSpriteThreshold(maxDiameter);
+        return this;
+    }
+
+    /**
+     * Sets the weight of this manager in the process-wide {@link ConfettiBudget}. While
+     * animating, each manager gets a share of the budget's limits proportional to its weight
+     * relative to the other animating managers. The default weight is 1.
+     *
+     * @param weight the non-negative weight of this manager.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setBudgetWeight(float weight) {
+        if (weight < 0f) {
+            throw new IllegalArgumentException("weight must not be negative");
+        }
+        ConfettiBudget.getInstance().setWeight(budgetAllocation, weight);
+        return this;
+    }
+
+    /**
+     * @return the current share of the process-wide {@link ConfettiBudget} held by this manager.
+     */
+    public ConfettiBudget.Allocation getBudgetAllocation() {
+        return budgetAllocation;
+    }
+
+    /**
+     * Enables fixed-timestep simulation. The confetti are updated and new confetti are emitted
+     * at exactly the provided rate regardless of the display refresh rate or dropped frames, so
+     * the emission is deterministic and looks the same on 60, 90 and 120Hz displays. Frames in
+     * between simulation steps are drawn by interpolating between the last two steps.
+     *
+     * @param simulationHz the number of simulation steps per second, must be positive.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setFixedTimestep(int simulationHz) {
+        if (simulationHz <= 0) {
+            throw new IllegalArgumentException("simulationHz must be positive");
+        }
+        this.simulationHz = simulationHz;
+        return this;
+    }
+
+    /**
+     * Disables fixed-timestep simulation so that the confetti are updated on every frame.
+     *
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager disableFixedTimestep() {
+        this.simulationHz = 0;
+        this.confettiView.setInterpolation(1f);
+        return this;
+    }
+
+    /**
+     * Enables long-running mode for animations with {@link #INFINITE_DURATION}. The time origin
+     * of the emitter and of every live confetto is periodically moved forward so that all of the
+     * times used for the animation stay bounded, no matter how many days the animation runs for.
+     * The rebasing is invisible: the confetti keep moving exactly as before.
+     *
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager enableLongRunningMode() {
+        this.longRunningMode = true;
+        return this;
+    }
+
+    /**
+     * Disables long-running mode so that the animation time is always the animator's play time.
+     *
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager disableLongRunningMode() {
+        this.longRunningMode = false;
+        return this;
+    }
+
+    /**
+     * Enables trails behind the confetti. The last few positions of every confetto are kept in
+     * a shared ring buffer and all of the trails are drawn in a single batched call per frame.
+     * When many confetti are alive the trails are shortened so that no more than
+     * {@link #setMaxTrailSegments(int)} segments are drawn per frame. Procedural confetti have
+     * no position history and are drawn without trails.
+     *
+     * @param length the number of positions to keep per confetto, at least 2.
+     * @param strokeWidth the width of the trails in pixels.
+     * @param color the color of the trails.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager enableTrails(int length, float strokeWidth, int color) {
+        if (length < 2) {
+            throw new IllegalArgumentException("length must be at least 2");
+        }
+        trails = new ConfettiTrails(length, strokeWidth, color);
+        trails.setBound(bound);
+        trails.setAntiAlias(powerProfile.isAntiAlias());
+        for (int i = 0; i < confetti.size(); i++) {
+            trails.add(i);
+        }
+        confettiView.setTrails(trails);
+        return this;
+    }
+
+    /**
+     * Disables the trails enabled by {@link #enableTrails(int, float, int)}.
+     *
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager disableTrails() {
+        trails = null;
+        confettiView.setTrails(null);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of trail segments drawn per frame, which bounds the cost of the
+     * trails under load. The default is {@value ConfettiTrails#DEFAULT_MAX_SEGMENTS}.
+     *
+     * @param maxSegments the maximum number of segments per frame.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setMaxTrailSegments(int maxSegments) {
+        if (trails != null) {
+            trails.setMaxSegments(maxSegments);
+        }
+        return this;
+    }
+
+    /**
+     * @see #enablePowerSaving(ConfettiPowerPolicy)
+     *
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager enablePowerSaving() {
+        return enablePowerSaving(ConfettiPowerPolicy.DEFAULT);
+    }
+
+    /**
+     * Enables power saving for this manager. Whenever the device's power-save mode or thermal
+     * status changes, the provided policy picks a {@link ConfettiPowerProfile} that can cap the
+     * frame rate, reduce the emission rate and turn off anti-aliasing. Because the confetti
+     * motion is computed from the elapsed time, a lower frame rate doesn't change where the
+     * confetti are, only how often they are redrawn.
+     *
+     * @param powerPolicy the policy that decides how aggressively to save power.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager enablePowerSaving(ConfettiPowerPolicy powerPolicy) {
+        this.powerPolicy = powerPolicy;
+        this.powerMonitor = ConfettiPowerMonitor.getInstance(confettiView.getContext());
+        updatePowerProfile();
+        return this;
+    }
+
+    /**
+     * Disables power saving for this manager so that it always animates at full quality.
+     *
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager disablePowerSaving() {
+        this.powerPolicy = null;
+        this.powerMonitor = null;
+        applyPowerProfile(ConfettiPowerProfile.FULL);
+        return this;
+    }
+
+    /**
+     * @return the power profile that this manager is currently animating with.
+     */
+    public ConfettiPowerProfile getPowerProfile() {
+        return powerProfile;
+    }
+
+    /**
+     * Adds a sub-emitter that bursts child confetti from this manager's confetti when its
+     * trigger fires. The children share this manager's pool, bound and draw pass.
+     *
+     * @param subEmitter the sub-emitter to add.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager addSubEmitter(SubEmitter subEmitter) {
+        subEmitters.add(subEmitter);
+        return this;
+    }
+
+    /**
+     * @param subEmitter the sub-emitter to remove.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager removeSubEmitter(SubEmitter subEmitter) {
+        subEmitters.remove(subEmitter);
+        subEmitter.numPending = 0;
+        return this;
+    }
+
+    /**
+     * Adds a force field, e.g. wind, drag or turbulence, that acts on the confetti emitted from
+     * now on. Confetti with force fields are simulated with a fixed-step integrator instead of
+     * the closed-form motion, which is kept for confetti without any. Procedural confetti are
+     * always closed-form and ignore force fields.
+     *
+     * <p>Since the time at which these confetti leave the bound can't be computed ahead of time,
+     * the fade out and the lifetime curves progress over the {@link #setTTL(long) TTL}, which
+     * must be set when either of them is.
+     *
+     * @param forceField the force field to add.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager addForceField(ForceField forceField) {
+        if (forceFields == null) {
+            forceFields = new ForceField[] { forceField };
+        } else {
+            // Copy on write since the confetti that were already emitted share the old array.
+            forceFields = Arrays.copyOf(forceFields, forceFields.length + 1);
+            forceFields[forceFields.length - 1] = forceField;
+        }
+        return this;
+    }
+
+    /**
+     * Removes a force field from the confetti emitted from now on.
+     *
+     * @param forceField the force field to remove.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager removeForceField(ForceField forceField) {
+        if (forceFields != null) {
+            final ArrayList<ForceField> remaining = new ArrayList<>(Arrays.asList(forceFields));
+            remaining.remove(forceField);
+            forceFields = remaining.isEmpty()
+                    ? null : remaining.toArray(new ForceField[remaining.size()]);
+        }
+        return this;
+    }
+
+    /**
+     * Caps the number of child confetti that all of the sub-emitters together can spawn on a
+     * single frame, so that cascading bursts stay bounded. Bursts beyond the cap are dropped.
+     * Defaults to 500.
+     *
+     * @param maxSpawns the maximum number of child confetti per frame.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setMaxSubEmitterSpawnsPerFrame(int maxSpawns) {
+        this.maxSubEmitterSpawnsPerFrame = maxSpawns;
+        return this;
+    }
+
+    /**
+     * Makes the confetti emitted from now on collide with the obstacles of the provided
+     * {@link Collider}, so that they bounce off of and pile up on them instead of leaving the
+     * bound. Settled confetti are frozen and drawn from a cached layer. Procedural confetti are
+     * always closed-form and don't collide. Like with {@link #addForceField(ForceField)}, the
+     * fade out and the lifetime curves require a TTL.
+     *
+     * @param collider the collider, or null to disable collisions.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setCollider(Collider collider) {
+        this.collider = collider;
+        return this;
+    }
+
+    /**
+     * Uses the bounds of the provided descendants of the parent view as the obstacles of the
+     * {@link #setCollider(Collider) collider}. The bounds are captured when the animation starts
+     * and on {@link #updateCollisionObstacles()}.
+     *
+     * @param views the views that the confetti collide with.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setCollisionViews(View... views) {
+        this.collisionViews = views;
+        return this;
+    }
+
+    /**
+     * Re-capture the bounds of the {@link #setCollisionViews(View...) collision views}, e.g.
+     * after they moved.
+     */
+    public void updateCollisionObstacles() {
+        if (collider == null || collisionViews == null) {
+            return;
+        }
+        final List<Rect> obstacles = new ArrayList<>(collisionViews.length);
+        for (View view : collisionViews) {
+            if (view.getVisibility() == View.VISIBLE) {
+                final Rect rect = new Rect();
+                view.getDrawingRect(rect);
+                parentView.offsetDescendantRectToMyCoords(view, rect);
+                obstacles.add(rect);
+            }
+        }
+        collider.setObstacles(obstacles);
+    }
+
     /**
      * Sets a {@link ConfettiAnimationListener} for this confetti manager.
      *
@@ -474,21 +1112,193 @@ public class ConfettiManager {
         return this;
     }
 
+    /**
+     * Enables an on-screen overlay that shows what the current configuration costs: the number
+     * of live confetti, spawns per second, pool occupancy, update and draw times per frame,
+     * dropped frames, and outlines of the bound and of the area covered by the confetti. The
+     * counters are only collected while the overlay is enabled.
+     *
+     * @param enabled whether or not to show the debug overlay.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setDebugOverlayEnabled(boolean enabled) {
+        if (enabled && debugStats == null) {
+            debugStats = new ConfettiDebugStats();
+            debugStats.reset(getFrameIntervalMillis(), bound);
+            confettiView.setDebugOverlay(new ConfettiDebugOverlay(debugStats));
+        } else if (!enabled && debugStats != null) {
+            debugStats = null;
+            confettiView.setDebugOverlay(null);
+        }
+        return this;
+    }
+
+    /**
+     * @return the counters shown by the debug overlay, or null if it is not enabled.
+     */
+    public ConfettiDebugStats getDebugStats() {
+        return debugStats;
+    }
+
+    /**
+     * @see #setConfettiFrameListener(ConfettiFrameListener, boolean, boolean)
+     *
+     * @param listener the frame listener, or null to clear out the existing listener.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setConfettiFrameListener(ConfettiFrameListener listener) {
+        return setConfettiFrameListener(listener, false, false);
+    }
+
+    /**
+     * Sets a {@link ConfettiFrameListener} for this confetti manager. Unlike the per-confetto
+     * callbacks of {@link ConfettiAnimationListener}, the frame listener is called at most once
+     * per frame with the number of confetti that were spawned and expired since the last call,
+     * and only on frames where anything changed.
+     *
+     * @param listener the frame listener, or null to clear out the existing listener.
+     * @param collectConfetti whether to also collect the spawned and expired confetti. Procedural
+     *   confetti are only counted.
+     * @param post whether to post the delivery to the main thread's queue instead of calling
+     *   the listener from within the animation callback. Frames that happen before a posted
+     *   delivery runs are merged into it. Can't be combined with collectConfetti, since the
+     *   pooled confetti may be re-used by other spawns before a posted delivery runs.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setConfettiFrameListener(ConfettiFrameListener listener,
+            boolean collectConfetti, boolean post) {
+        if (collectConfetti && post) {
+            throw new IllegalArgumentException("Collected confetti can only be delivered "
+                    + "from within the animation callback");
+        }
+        this.frameListener = listener;
+        this.postFrames = post;
+        this.recordingFrame = listener != null ? new ConfettiFrame(collectConfetti) : null;
+        this.spareFrame = listener != null && post ? new ConfettiFrame(false) : null;
+        this.pendingFrame = null;
+        return this;
+    }
+
+    /**
+     * Enables or disables pre-warming for this manager. When enabled, the confetto pool and the
+     * backing arrays are pre-allocated to the peak live count from {@link #estimateCapacity()}
+     * when {@link #animate()} is called so that no confetto needs to be generated once the
+     * animation is running.
+     *
+     * <p>At most 5000 confetti are pre-allocated so that never-ending configurations don't
+     * pre-allocate an unbounded pool. Configurations with a larger peak still generate the
+     * remaining confetti while animating, unless they use
+     * {@link #enableProceduralMode(int) procedural mode}, whose backing arrays are always
+     * pre-allocated in full.
+     *
+     * @param prewarmEnabled whether or not to pre-allocate confetti before animating.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager setPrewarmEnabled(boolean prewarmEnabled) {
+        this.prewarmEnabled = prewarmEnabled;
+        return this;
+    }
+
+    /**
+     * Enables procedural mode for this manager. In procedural mode, each confetto is stored as
+     * only a spawn timestamp and a seed, and its initial state is regenerated from the seed
+     * whenever it is drawn. The confetti are rendered through a fixed set of template confetti
+     * created by the {@link ConfettoGenerator}, so the generator output should be the same for
+     * any confetto drawn from the same template.
+     *
+     * <p>This makes very large numbers of ambient confetti feasible, but procedural confetti do
+     * not support touch and are not reported to {@link ConfettiAnimationListener}'s
+     * per-confetto callbacks.
+     *
+     * @param numTemplates the number of template confetti to generate, must be positive.
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager enableProceduralMode(int numTemplates) {
+        if (numTemplates <= 0) {
+            throw new IllegalArgumentException("numTemplates must be positive");
+        }
+        this.numProceduralTemplates = numTemplates;
+        return this;
+    }
+
+    /**
+     * Disables procedural mode for this manager.
+     *
+     * @return the confetti manager so that the set calls can be chained.
+     */
+    public ConfettiManager disableProceduralMode() {
+        this.numProceduralTemplates = 0;
+        return this;
+    }
+
+    /**
+     * Estimate the resources that the current configuration needs at its peak. Since the motion
+     * of each confetto is closed-form, the longest possible lifetime can be derived from the
+     * configured velocity, acceleration, TTL and bound without running the animation. With force
+     * fields the bound can't be solved for, so only the TTL limits the lifetime.
+     *
+     * <p>The bound computation accounts for the size of the confetti that this manager has
+     * generated so far, so the estimate is the most accurate after pre-warming or animating once.
+     *
+     * @return the capacity estimate for the current configuration.
+     */
+    public CapacityEstimate estimateCapacity() {
+        final long maxLifetime = forceFields != null && numProceduralTemplates == 0
+                ? (ttl >= 0 ? ttl : Long.MAX_VALUE)
+                : computeMaxLifetime(largestConfettoWidth, largestConfettoHeight);
+        final int peakLiveCount = computePeakLiveCount(maxLifetime);
+        // Every live confetto, the children that sub-emitters can add on one frame, one draw for
+        // all of the trails and one blit of the baked layer.
+        final long maxSprites = (long) peakLiveCount
+                + (subEmitters.isEmpty() ? 0 : maxSubEmitterSpawnsPerFrame)
+                + (trails != null ? 1 : 0) + 1;
+        final long particleStateBytes = numProceduralTemplates > 0
+                ? (long) peakLiveCount * PROCEDURAL_CONFETTO_BYTES
+                        + (long) numProceduralTemplates * ESTIMATED_CONFETTO_BYTES
+                : (long) peakLiveCount * ESTIMATED_CONFETTO_BYTES;
+        return new CapacityEstimate(maxLifetime, peakLiveCount, particleStateBytes,
+                (int) Math.min(maxSprites, Integer.MAX_VALUE));
+    }
+
     /**
      * Start the confetti animation configured by this manager.
      *
      * @return the confetti manager itself that just started animating.
      */
     public ConfettiManager animate() {
-        if (animationListener != null) {
-            animationListener.onAnimationStart(this);
-        }
+        ConfettiTrace.beginSection(ConfettiTrace.SECTION_ANIMATE);
+        try {
+            if (animationListener != null) {
+                animationListener.onAnimationStart(this);
+            }
 
-        cleanupExistingAnimation();
-        attachConfettiViewToParent();
-        addNewConfetti(numInitialCount, 0);
-        startNewAnimation();
-        return this;
+            cleanupExistingAnimation();
+            // Compile the per-confetto parameters once instead of re-reading them per confetto.
+            getEmitterConfig();
+            if (powerPolicy != null) {
+                updatePowerProfile();
+            }
+            setupProceduralConfetti();
+            if (prewarmEnabled) {
+                prewarm();
+            }
+            attachConfettiViewToParent();
+            if (collider != null) {
+                collider.setPileRange(bound.left, bound.right);
+                updateCollisionObstacles();
+            }
+            if (debugStats != null) {
+                debugStats.reset(getFrameIntervalMillis(), bound);
+            }
+            final ConfettiBudget budget = ConfettiBudget.getInstance();
+            budget.activate(budgetAllocation);
+            budget.onFrame(budgetAllocation, 0);
+            addNewConfetti(numInitialCount, 0);
+            startNewAnimation();
+            return this;
+        } finally {
+            ConfettiTrace.endSection();
+        }
     }
 
     /**
@@ -499,23 +1309,161 @@ public class ConfettiManager {
             animator.cancel();
         }
         confettiView.terminate();
+        ConfettiBudget.getInstance().deactivate(budgetAllocation);
+        dispatchFrame();
 
         if (animationListener != null) {
             animationListener.onAnimationEnd(this);
         }
     }
 
+    /**
+     * Release memory held by this manager in response to memory pressure. Stopped managers
+     * drop all of their pooled confetti and shrink their backing arrays. Running managers keep
+     * their pool unless memory is critically low, so that they don't have to re-generate
+     * confetti mid-animation.
+     *
+     * @param level the trim level from {@link ComponentCallbacks2#onTrimMemory(int)}.
+     * @return the approximate number of bytes released.
+     */
+    long trimMemory(int level) {
+        final boolean running = animator != null && animator.isRunning();
+        if (running && level != ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL
+                && level < ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            return 0;
+        }
+
+        long released = recycledConfetti.trim(0, ESTIMATED_CONFETTO_BYTES);
+        released += confettiView.releaseBakedLayer();
+        if (!running) {
+            confetti.trimToSize();
+            if (proceduralConfetti != null) {
+                released += proceduralConfetti.trimToSize();
+            }
+        }
+        return released;
+    }
+
     private void cleanupExistingAnimation() {
         if (animator != null) {
             animator.cancel();
         }
 
         lastEmittedTimestamp = 0;
-        final Iterator<Confetto> iterator = confetti.iterator();
-        while (iterator.hasNext()) {
-            removeConfetto(iterator.next());
-            iterator.remove();
+        lastSourceEmissionTime = 0;
+        nextFrameTime = 0;
+        simulationStep = 0;
+        emissionCarry = 0;
+        timeOrigin = 0;
+        lastUpdateTime = 0;
+        for (int i = 0; i < subEmitters.size(); i++) {
+            subEmitters.get(i).numPending = 0;
+        }
+        confettiView.setInterpolation(1f);
+        for (int i = confetti.size() - 1; i >= 0; i--) {
+            removeConfetto(confetti.remove(i));
+        }
+        if (proceduralConfetti != null) {
+            proceduralConfetti.clear();
+        }
+        if (trails != null) {
+            trails.clear();
+        }
+        confettiView.clearBaked();
+        if (collider != null) {
+            collider.clearPiles();
+        }
+    }
+
+    private void setupProceduralConfetti() {
+        if (numProceduralTemplates > 0) {
+            final Confetto[] templates = new Confetto[numProceduralTemplates];
+            for (int i = 0; i < numProceduralTemplates; i++) {
+                templates[i] = generateConfetto();
+            }
+            proceduralMaxLifetime =
+                    computeMaxLifetime(largestConfettoWidth, largestConfettoHeight);
+            proceduralConfetti =
+                    new ProceduralConfetti(this, bound, templates, 300);
+        } else {
+            proceduralConfetti = null;
+        }
+        confettiView.bindProcedural(proceduralConfetti);
+    }
+
+    private void prewarm() {
+        if (proceduralConfetti != null) {
+            // Procedural confetti only need their primitive backing arrays. The templates have
+            // already been generated, so the estimate accounts for their size.
+            proceduralConfetti.ensureCapacity(estimateCapacity().peakLiveCount);
+            return;
+        }
+
+        if (largestConfettoWidth == 0 && largestConfettoHeight == 0) {
+            // Generate a first confetto so that the estimated lifetime accounts for the size of
+            // the confetti leaving the bound.
+            recycledConfetti.recycle(generateConfetto());
         }
+        final int count = Math.min(estimateCapacity().peakLiveCount, MAX_PREWARM_COUNT);
+        confetti.ensureCapacity(count);
+        recycledConfetti.ensureCapacity(count);
+        while (recycledConfetti.size() < count) {
+            recycledConfetti.recycle(generateConfetto());
+        }
+    }
+
+    /**
+     * @param confettoWidth the width of the largest confetto that can be emitted.
+     * @param confettoHeight the height of the largest confetto that can be emitted.
+     * @return the longest time that any confetto emitted with the current configuration can
+     *   stay within the bound.
+     */
+    long computeMaxLifetime(int confettoWidth, int confettoHeight) {
+        final long ttlLifetime = ttl >= 0 ? ttl : Long.MAX_VALUE;
+        final long xLifetime = computeMaxMillisToLeaveBound(
+                confettiSource.getMinX(), confettiSource.getMaxX(),
+                velocityX, velocityDeviationX, accelerationX, accelerationDeviationX,
+                targetVelocityX, targetVelocityXDeviation,
+                bound.left - confettoWidth, bound.right);
+        final long yLifetime = computeMaxMillisToLeaveBound(
+                confettiSource.getMinY(), confettiSource.getMaxY(),
+                velocityY, velocityDeviationY, accelerationY, accelerationDeviationY,
+                targetVelocityY, targetVelocityYDeviation,
+                bound.top - confettoHeight, bound.bottom);
+        return Math.min(ttlLifetime, Math.min(xLifetime, yLifetime));
+    }
+
+    private static long computeMaxMillisToLeaveBound(float minPos, float maxPos,
+            float velocity, float velocityDeviation, float acceleration,
+            float accelerationDeviation, Float targetVelocity, Float targetVelocityDeviation,
+            int minBound, int maxBound) {
+        // Evaluate the extremes and the center of every configured range. The center matters
+        // because a range that crosses zero acceleration contains the slowest confetto.
+        long maxTime = 0;
+        for (int p = 0; p < 2; p++) {
+            final float pos = p == 0 ? minPos : maxPos;
+            for (int v = -1; v <= 1; v++) {
+                final float vel = velocity + v * velocityDeviation;
+                for (int a = -1; a <= 1; a++) {
+                    final float acc = acceleration + a * accelerationDeviation;
+                    for (int tv = -1; tv <= 1; tv++) {
+                        final Float target = targetVelocity == null ? null
+                                : targetVelocity + tv * targetVelocityDeviation;
+                        maxTime = Math.max(maxTime, Confetto.computeMillisToLeaveBound(
+                                pos, vel, acc, target, minBound, maxBound));
+                    }
+                }
+            }
+        }
+        return maxTime;
+    }
+
+    private int computePeakLiveCount(long maxLifetime) {
+        double peak = maxLifetime > 0 ? numInitialCount : 0;
+        if (emissionDuration > 0 && emissionRate > 0) {
+            peak += Math.ceil((double) emissionRate * Math.min(emissionDuration, maxLifetime));
+        }
+        return (int) Math.min(peak, Integer.MAX_VALUE);
     }
 
     private void attachConfettiViewToParent() {
@@ -532,21 +1480,61 @@ public class ConfettiManager {
         confettiView.reset();
     }
 
-    private void addNewConfetti(int numConfetti, long initialDelay) {
-        for (int i = 0; i < numConfetti; i++) {
-            Confetto confetto = recycledConfetti.poll();
-            if (confetto == null) {
-                confetto = confettoGenerator.generateConfetto(random);
+    private void addNewConfetti(int numRequested, long initialDelay) {
+        if (multiSource != null && !multiSource.hasWeightedSources()) {
+            // Only the per-source emission rates are emitting.
+            return;
+        }
+        addNewConfetti(numRequested, initialDelay, confettiSource);
+    }
+
+    private void addNewConfetti(int numRequested, long initialDelay, ConfettiSource source) {
+        ConfettiTrace.beginSection(ConfettiTrace.SECTION_ADD_CONFETTI);
+        try {
+            final int numConfetti =
+                    ConfettiBudget.getInstance().acquireSpawns(budgetAllocation, numRequested);
+            numSpawnedThisFrame += numConfetti;
+            if (recordingFrame != null) {
+                recordingFrame.numSpawned += numConfetti;
             }
+            if (proceduralConfetti != null) {
+                // Store the concrete source rather than the multi source, which would pick a
+                // different one on replay once its sources change.
+                final boolean pickSource = source == multiSource;
+                for (int i = 0; i < numConfetti; i++) {
+                    proceduralConfetti.add(initialDelay, random.nextInt(),
+                            pickSource ? multiSource.pickSource(random) : source);
+                }
+                return;
+            }
+
+            for (int i = 0; i < numConfetti; i++) {
+                Confetto confetto = recycledConfetti.poll();
+                if (confetto == null) {
+                    confetto = generateConfetto();
+                }
 
-            confetto.reset();
-            configureConfetto(confetto, confettiSource, random, initialDelay);
-            confetto.prepare(bound);
+                confetto.reset();
+                configureConfetto(confetto, source, random, initialDelay);
+                confetto.setForceFields(forceFields);
+                confetto.setForceFieldTimeOffset(timeOrigin);
+                confetto.setCollider(collider);
+                confetto.prepare(bound);
 
-            addConfetto(confetto);
+                addConfetto(confetto);
+            }
+        } finally {
+            ConfettiTrace.endSection();
         }
     }
 
+    private Confetto generateConfetto() {
+        final Confetto confetto = confettoGenerator.generateConfetto(random);
+        largestConfettoWidth = Math.max(largestConfettoWidth, confetto.getWidth());
+        largestConfettoHeight = Math.max(largestConfettoHeight, confetto.getHeight());
+        return confetto;
+    }
+
     private void startNewAnimation() {
         // Never-ending animator, we will cancel once the termination condition is reached.
         animator = ValueAnimator.ofInt(0)
@@ -554,93 +1542,557 @@ public class ConfettiManager {
         animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
             @Override
             public void onAnimationUpdate(ValueAnimator valueAnimator) {
-                final long elapsedTime = valueAnimator.getCurrentPlayTime();
-                processNewEmission(elapsedTime);
-                updateConfetti(elapsedTime);
-
-                if (confetti.size() == 0 && elapsedTime >= emissionDuration) {
-                    terminate();
-                } else {
-                    confettiView.invalidate();
-                }
+                onAnimationFrame(valueAnimator.getCurrentPlayTime());
             }
         });
 
         animator.start();
     }
 
+    /**
+     * Seed the random generator used to emit and configure confetti so that an animation can be
+     * reproduced exactly.
+     *
+     * @param seed the seed for the random generator.
+     */
+    // Visible for testing
+    void setRandomSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    /**
+     * Advance the animation to the provided time and invalidate the view for the next draw.
+     *
+     * @param playTime the time in milliseconds since the animation started.
+     */
+    // Visible for testing
+    void onAnimationFrame(long playTime) {
+        if (debugStats != null) {
+            debugStats.onFrame(playTime);
+        }
+        if (longRunningMode && emissionDuration == INFINITE_DURATION
+                && playTime - timeOrigin >= 2 * REBASE_INTERVAL_MILLIS) {
+            rebaseTimeOrigin(REBASE_INTERVAL_MILLIS);
+        }
+        final long elapsedTime = playTime - timeOrigin;
+        if (powerPolicy != null && powerMonitor.getVersion() != powerStateVersion) {
+            updatePowerProfile();
+        }
+        if (shouldSkipFrame(elapsedTime)) {
+            return;
+        }
+        numSpawnedThisFrame = 0;
+        final long updateStartTime = debugStats != null ? System.nanoTime() : 0;
+
+        ConfettiBudget.getInstance().onFrame(budgetAllocation, getNumLiveConfetti());
+        if (simulationHz > 0) {
+            stepSimulation(elapsedTime);
+        } else {
+            processNewEmission(elapsedTime);
+            updateConfetti(elapsedTime);
+        }
+        if (debugStats != null) {
+            debugStats.recordUpdate(playTime, System.nanoTime() - updateStartTime,
+                    numSpawnedThisFrame, getNumLiveConfetti(), recycledConfetti);
+        }
+        ConfettiTrace.setCounter(ConfettiTrace.COUNTER_LIVE, getNumLiveConfetti());
+        ConfettiTrace.setCounter(ConfettiTrace.COUNTER_SPAWNS, numSpawnedThisFrame);
+
+        dispatchFrame();
+        if (getNumLiveConfetti() == 0 && elapsedTime >= emissionDuration) {
+            terminate();
+        } else {
+            confettiView.invalidate();
+        }
+    }
+
+    /**
+     * Move the time origin forward by the provided amount, shifting every stored time back by
+     * the same amount so that the animation continues seamlessly.
+     *
+     * @param delta the amount of time in milliseconds, a whole number of seconds.
+     */
+    private void rebaseTimeOrigin(long delta) {
+        timeOrigin += delta;
+        if (lastEmittedTimestamp != 0) {
+            lastEmittedTimestamp -= delta;
+        }
+        lastSourceEmissionTime -= delta;
+        nextFrameTime -= delta;
+        lastUpdateTime -= delta;
+        simulationStep -= delta / 1000L * simulationHz;
+        final int size = confetti.size();
+        for (int i = 0; i < size; i++) {
+            confetti.get(i).offsetTime(delta);
+        }
+        if (proceduralConfetti != null) {
+            proceduralConfetti.offsetTime(delta);
+        }
+    }
+
+    // Visible for testing
+    ProceduralConfetti getProceduralConfetti() {
+        return proceduralConfetti;
+    }
+
+    // Visible for testing
+    ConfettoPool getRecycledConfetti() {
+        return recycledConfetti;
+    }
+
+    // Visible for testing
+    long getTimeOrigin() {
+        return timeOrigin;
+    }
+
+    // Visible for testing
+    List<Confetto> getConfetti() {
+        return confetti;
+    }
+
+    private long getStepTime(long step) {
+        return step * 1000L / simulationHz;
+    }
+
+    private void stepSimulation(long elapsedTime) {
+        final long lastStep = simulationStep;
+        if (getStepTime(lastStep + MAX_STEPS_PER_FRAME) <= elapsedTime) {
+            // Too far behind, drop the simulated time that we can't catch up on.
+            simulationStep = elapsedTime * simulationHz / 1000L - MAX_STEPS_PER_FRAME;
+        }
+        while (getStepTime(simulationStep + 1) <= elapsedTime) {
+            simulationStep++;
+            processFixedEmission(getStepTime(simulationStep - 1), getStepTime(simulationStep));
+        }
+
+        if (simulationStep != lastStep) {
+            // The confetti motion is closed-form, so only the last two steps need evaluating:
+            // they are the states that the frames until the next step interpolate between.
+            if (simulationStep - lastStep > 1) {
+                updateConfetti(getStepTime(simulationStep - 1));
+            }
+            updateConfetti(getStepTime(simulationStep));
+        }
+
+        final long stepTime = getStepTime(simulationStep);
+        final long stepDuration = getStepTime(simulationStep + 1) - stepTime;
+        final float interpolation =
+                Math.min(1f, (float) (elapsedTime - stepTime) / stepDuration);
+        confettiView.setInterpolation(interpolation);
+        if (proceduralConfetti != null) {
+            proceduralConfetti.setRenderTime(
+                    stepTime - stepDuration + Math.round(interpolation * stepDuration));
+        }
+    }
+
+    private void processFixedEmission(long previousStepTime, long stepTime) {
+        ConfettiTrace.beginSection(ConfettiTrace.SECTION_EMISSION);
+        try {
+            if (stepTime < emissionDuration) {
+                processSourceEmission(stepTime - previousStepTime, stepTime);
+
+                // Emit exactly the configured rate, carrying the fractional confetti over to the
+                // next step instead of rounding them away at random.
+                emissionCarry += (double) emissionRate * powerProfile.getEmissionRateMultiplier()
+                        * (stepTime - previousStepTime);
+                final int numNewConfetti = (int) emissionCarry;
+                if (numNewConfetti > 0) {
+                    emissionCarry -= numNewConfetti;
+                    addNewConfetti(numNewConfetti, stepTime);
+                }
+            }
+        } finally {
+            ConfettiTrace.endSection();
+        }
+    }
+
+    private float getFrameIntervalMillis() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            final Display display = confettiView.getDisplay();
+            if (display != null && display.getRefreshRate() > 0) {
+                return 1000f / display.getRefreshRate();
+            }
+        }
+        return 1000f / 60;
+    }
+
+    private boolean shouldSkipFrame(long elapsedTime) {
+        final int maxFramesPerSecond = powerProfile.getMaxFramesPerSecond();
+        if (maxFramesPerSecond == ConfettiPowerProfile.UNLIMITED_FRAME_RATE) {
+            return false;
+        }
+        if (frameSlackMillis < 0) {
+            frameSlackMillis = getFrameIntervalMillis() / 2;
+        }
+        // Frames land on vsyncs, so one that is up to half a vsync early is on time.
+        if (elapsedTime < nextFrameTime - frameSlackMillis) {
+            return true;
+        }
+        // Advance the due time by whole intervals rather than restarting it from this frame, so
+        // that frames drawn slightly early don't raise the rate, e.g. a 30fps cap on a 120Hz
+        // display draws every fourth vsync instead of every third.
+        final double frameInterval = 1000.0 / maxFramesPerSecond;
+        nextFrameTime += frameInterval;
+        if (nextFrameTime < elapsedTime) {
+            // Fell behind, e.g. after a stall, so don't draw a burst of frames to catch up.
+            nextFrameTime = elapsedTime + frameInterval;
+        }
+        return false;
+    }
+
+    private void updatePowerProfile() {
+        powerStateVersion = powerMonitor.getVersion();
+        applyPowerProfile(powerPolicy.getProfile(
+                powerMonitor.isPowerSaveMode(), powerMonitor.getThermalStatus()));
+    }
+
+    private void applyPowerProfile(ConfettiPowerProfile newProfile) {
+        final boolean antiAliasChanged = newProfile.isAntiAlias() != powerProfile.isAntiAlias();
+        powerProfile = newProfile;
+        // The display may have changed along with the power state, e.g. its refresh rate.
+        frameSlackMillis = -1f;
+        if (antiAliasChanged) {
+            // New and procedural confetti pick this up in configureConfetto.
+            final boolean antiAlias = newProfile.isAntiAlias();
+            for (int i = 0; i < confetti.size(); i++) {
+                confetti.get(i).setAntiAlias(antiAlias);
+            }
+            confettiView.setAntiAlias(antiAlias);
+            if (trails != null) {
+                trails.setAntiAlias(antiAlias);
+            }
+        }
+    }
+
     private void processNewEmission(long elapsedTime) {
-        if (elapsedTime < emissionDuration) {
-            if (lastEmittedTimestamp == 0) {
-                lastEmittedTimestamp = elapsedTime;
-            } else {
-                final long timeSinceLastEmission = elapsedTime - lastEmittedTimestamp;
-
-                // Randomly determine how many confetti to emit
-                final int numNewConfetti = (int)
-                        (random.nextFloat() * emissionRate * timeSinceLastEmission);
+        ConfettiTrace.beginSection(ConfettiTrace.SECTION_EMISSION);
+        try {
+            if (elapsedTime < emissionDuration) {
+                processSourceEmission(elapsedTime - lastSourceEmissionTime, elapsedTime);
+                lastSourceEmissionTime = elapsedTime;
+
+                if (lastEmittedTimestamp == 0) {
+                    lastEmittedTimestamp = elapsedTime;
+                } else {
+                    final long timeSinceLastEmission = elapsedTime - lastEmittedTimestamp;
+
+                    // Randomly determine how many confetti to emit
+                    final float multiplier = powerProfile.getEmissionRateMultiplier();
+                    final int numNewConfetti = (int) (random.nextFloat() * emissionRate * multiplier
+                            * timeSinceLastEmission);
+                    if (numNewConfetti > 0) {
+                        // Confetti denied by the budget are dropped rather than deferred so that
+                        // they don't all burst out once the budget frees up.
+                        lastEmittedTimestamp +=
+                                Math.round(emissionRateInverse / multiplier * numNewConfetti);
+                        addNewConfetti(numNewConfetti, elapsedTime);
+                    }
+                }
+            }
+        } finally {
+            ConfettiTrace.endSection();
+        }
+    }
+
+    private void processSourceEmission(long millis, long elapsedTime) {
+        if (multiSource != null) {
+            for (int i = 0; i < multiSource.getNumSources(); i++) {
+                final int numNewConfetti = multiSource.pollEmissions(i, millis);
                 if (numNewConfetti > 0) {
-                    lastEmittedTimestamp += Math.round(emissionRateInverse * numNewConfetti);
-                    addNewConfetti(numNewConfetti, elapsedTime);
+                    addNewConfetti(numNewConfetti, elapsedTime, multiSource.getSource(i));
                 }
             }
         }
     }
 
+    private int getNumLiveConfetti() {
+        return proceduralConfetti != null
+                ? confetti.size() + proceduralConfetti.size() : confetti.size();
+    }
+
     private void updateConfetti(long elapsedTime) {
-        final Iterator<Confetto> iterator = confetti.iterator();
-        while (iterator.hasNext()) {
-            final Confetto confetto = iterator.next();
-            if (!confetto.applyUpdate(elapsedTime)) {
-                iterator.remove();
-                removeConfetto(confetto);
+        ConfettiTrace.beginSection(ConfettiTrace.SECTION_UPDATE);
+        try {
+            if (proceduralConfetti != null) {
+                final int numExpired =
+                        proceduralConfetti.update(elapsedTime, proceduralMaxLifetime);
+                if (recordingFrame != null) {
+                    recordingFrame.numExpired += numExpired;
+                }
+            }
+
+            // Compact the live confetti in place (preserving draw order) to avoid allocating an
+            // iterator on every frame.
+            final int size = confetti.size();
+            final int numSubEmitters = subEmitters.size();
+            final long millisSinceLastUpdate = elapsedTime - lastUpdateTime;
+            boolean pilesChanged = false;
+            int numAlive = 0;
+            for (int i = 0; i < size; i++) {
+                final Confetto confetto = confetti.get(i);
+                final boolean alive = confetto.applyUpdate(elapsedTime);
+                for (int j = 0; j < numSubEmitters; j++) {
+                    subEmitters.get(j).onConfettoUpdated(confetto, alive, millisSinceLastUpdate);
+                }
+                if (confetto.isPiled() && (!alive || !confetto.isSettled())) {
+                    // Expired or dragged away, whether or not it was ever baked.
+                    confetto.setPiled(false);
+                    pilesChanged = true;
+                }
+                if (confetto.isBaked() && (!alive || !confetto.isStatic())) {
+                    confettiView.unbake(confetto);
+                } else if (alive && confetto.isStatic() && !confetto.isBaked()
+                        && confetto.isLookConstant()) {
+                    confettiView.bake(confetto);
+                }
+                if (alive) {
+                    if (trails != null) {
+                        trails.move(i, numAlive);
+                        trails.record(numAlive, confetto);
+                    }
+                    confetti.set(numAlive++, confetto);
+                } else {
+                    if (trails != null) {
+                        trails.remove(i);
+                    }
+                    removeConfetto(confetto);
+                }
+            }
+            for (int i = size - 1; i >= numAlive; i--) {
+                confetti.remove(i);
+            }
+            lastUpdateTime = elapsedTime;
+            if (pilesChanged && collider != null) {
+                rebuildPiles();
+            }
+            if (numSubEmitters > 0) {
+                spawnSubEmitterBursts(elapsedTime);
+            }
+        } finally {
+            ConfettiTrace.endSection();
+        }
+    }
+
+    /**
+     * Re-build the piles from the confetti that are still piled after some have left them.
+     */
+    private void rebuildPiles() {
+        collider.clearPiles();
+        for (int i = 0; i < confetti.size(); i++) {
+            final Confetto confetto = confetti.get(i);
+            if (confetto.isPiled()) {
+                collider.addToPile(confetto);
+            }
+        }
+    }
+
+    /**
+     * Spawn the bursts that the sub-emitters queued during the last update. The children are
+     * appended after the update so that they don't disturb the in-place compaction.
+     */
+    private void spawnSubEmitterBursts(long elapsedTime) {
+        int remaining = maxSubEmitterSpawnsPerFrame;
+        for (int i = 0; i < subEmitters.size(); i++) {
+            final SubEmitter subEmitter = subEmitters.get(i);
+            for (int j = 0; j < subEmitter.numPending; j++) {
+                final int numConfetti = ConfettiBudget.getInstance().acquireSpawns(
+                        budgetAllocation, Math.min(subEmitter.numConfetti, remaining));
+                remaining -= numConfetti;
+                numSpawnedThisFrame += numConfetti;
+                if (recordingFrame != null) {
+                    recordingFrame.numSpawned += numConfetti;
+                }
+
+                for (int k = 0; k < numConfetti; k++) {
+                    Confetto confetto = recycledConfetti.poll();
+                    if (confetto == null) {
+                        confetto = generateConfetto();
+                    }
+
+                    confetto.reset();
+                    confetto.setInitialDelay(elapsedTime);
+                    confetto.setInitialX(subEmitter.pendingX[j] - confetto.getWidth() / 2f);
+                    confetto.setInitialY(subEmitter.pendingY[j] - confetto.getHeight() / 2f);
+                    subEmitter.emitterConfig.apply(confetto, random);
+                    confetto.setAntiAlias(powerProfile.isAntiAlias());
+                    confetto.setGeneration(subEmitter.pendingGeneration[j]);
+                    confetto.setForceFields(forceFields);
+                    confetto.setForceFieldTimeOffset(timeOrigin);
+                    confetto.setCollider(collider);
+                    confetto.prepare(bound);
+                    confetto.applyUpdate(elapsedTime);
+                    addConfetto(confetto);
+                }
             }
+            subEmitter.numPending = 0;
         }
     }
 
     private void addConfetto(Confetto confetto) {
         this.confetti.add(confetto);
+        if (trails != null) {
+            trails.add(confetti.size() - 1);
+        }
         if (animationListener != null) {
             animationListener.onConfettoEnter(confetto);
         }
+        if (recordingFrame != null && recordingFrame.spawnedConfetti != null) {
+            recordingFrame.spawnedConfetti.add(confetto);
+        }
     }
 
     private void removeConfetto(Confetto confetto) {
         if (this.animationListener != null) {
             this.animationListener.onConfettoExit(confetto);
         }
-        recycledConfetti.add(confetto);
+        if (recordingFrame != null) {
+            recordingFrame.numExpired++;
+            if (recordingFrame.expiredConfetti != null) {
+                recordingFrame.expiredConfetti.add(confetto);
+            }
+        }
+        recycledConfetti.recycle(confetto);
+    }
+
+    private void dispatchFrame() {
+        if (frameListener == null || recordingFrame.isEmpty()) {
+            return;
+        }
+
+        recordingFrame.numLive = getNumLiveConfetti();
+        if (!postFrames) {
+            frameListener.onConfettiFrame(this, recordingFrame);
+            recordingFrame.clear();
+        } else if (pendingFrame == null) {
+            pendingFrame = recordingFrame;
+            recordingFrame = spareFrame;
+            spareFrame = null;
+            confettiView.post(deliverPendingFrame);
+        } else {
+            // The previous delivery hasn't run yet, coalesce this frame into it.
+            pendingFrame.merge(recordingFrame);
+            recordingFrame.clear();
+        }
     }
 
     protected void configureConfetto(Confetto confetto, ConfettiSource confettiSource,
             Random random, long initialDelay) {
         confetto.setInitialDelay(initialDelay);
-        confetto.setInitialX(confettiSource.getInitialX(random.nextFloat()));
-        confetto.setInitialY(confettiSource.getInitialY(random.nextFloat()));
-        confetto.setInitialVelocityX(getVarianceAmount(velocityX, velocityDeviationX, random));
-        confetto.setInitialVelocityY(getVarianceAmount(velocityY, velocityDeviationY, random));
-        confetto.setAccelerationX(getVarianceAmount(accelerationX, accelerationDeviationX, random));
-        confetto.setAccelerationY(getVarianceAmount(accelerationY, accelerationDeviationY, random));
-        confetto.setTargetVelocityX(targetVelocityX == null ? null
-                : getVarianceAmount(targetVelocityX, targetVelocityXDeviation, random));
-        confetto.setTargetVelocityY(targetVelocityY == null ? null
-                : getVarianceAmount(targetVelocityY, targetVelocityYDeviation, random));
-        confetto.setInitialRotation(
-                getVarianceAmount(initialRotation, initialRotationDeviation, random));
-        confetto.setInitialRotationalVelocity(
-                getVarianceAmount(rotationalVelocity, rotationalVelocityDeviation, random));
-        confetto.setRotationalAcceleration(
-                getVarianceAmount(rotationalAcceleration, rotationalAccelerationDeviation, random));
-        confetto.setTargetRotationalVelocity(targetRotationalVelocity == null ? null
-                : getVarianceAmount(targetRotationalVelocity, targetRotationalVelocityDeviation,
-                        random));
-        confetto.setTTL(ttl);
-        confetto.setFadeOut(fadeOutInterpolator);
-    }
-
-    private float getVarianceAmount(float base, float deviation, Random random) {
-        // Normalize random to be [-1, 1] rather than [0, 1]
-        return base + (deviation * (random.nextFloat() * 2 - 1));
+        confettiSource.getInitialPosition(random, workPosition);
+        confetto.setInitialX(workPosition[0]);
+        confetto.setInitialY(workPosition[1]);
+        getEmitterConfig().apply(confetto, random);
+        confetto.setAntiAlias(powerProfile.isAntiAlias());
+    }
+
+    /**
+     * The estimated peak resource usage of a {@link ConfettiManager} configuration.
+     *
+     * @see #estimateCapacity()
+     */
+    public static class CapacityEstimate {
+        /**
+         * The longest time in milliseconds that a single confetto can stay alive, or
+         * {@link Long#MAX_VALUE} if confetti can live forever.
+         */
+        public final long maxLifetimeMillis;
+        /**
+         * The maximum number of confetti that can be alive at the same time.
+         */
+        public final int peakLiveCount;
+        /**
+         * The approximate number of bytes held by the confetti when at the peak live count.
+         */
+        public final long particleStateBytes;
+        /**
+         * The worst-case number of sprites that are drawn in a single frame: the live confetti,
+         * the sub-emitter children spawned on that frame, the trails and the baked layer.
+         */
+        public final int maxSpritesPerFrame;
+
+        CapacityEstimate(long maxLifetimeMillis, int peakLiveCount, long particleStateBytes,
+                int maxSpritesPerFrame) {
+            this.maxLifetimeMillis = maxLifetimeMillis;
+            this.peakLiveCount = peakLiveCount;
+            this.particleStateBytes = particleStateBytes;
+            this.maxSpritesPerFrame = maxSpritesPerFrame;
+        }
+    }
+
+    /**
+     * The confetti spawned and expired over one or more frames, see
+     * {@link #setConfettiFrameListener(ConfettiFrameListener, boolean, boolean)}. The frame
+     * object and its lists are re-used, so they are only valid during the callback.
+     */
+    public static class ConfettiFrame {
+        private int numSpawned, numExpired, numLive;
+        private final List<Confetto> spawnedConfetti, expiredConfetti;
+
+        ConfettiFrame(boolean collectConfetti) {
+            this.spawnedConfetti = collectConfetti ? new ArrayList<Confetto>() : null;
+            this.expiredConfetti = collectConfetti ? new ArrayList<Confetto>() : null;
+        }
+
+        /**
+         * @return the number of confetti spawned since the last delivery.
+         */
+        public int getNumSpawned() {
+            return numSpawned;
+        }
+
+        /**
+         * @return the number of confetti that finished animating since the last delivery.
+         */
+        public int getNumExpired() {
+            return numExpired;
+        }
+
+        /**
+         * @return the number of confetti alive as of the latest frame in this delivery.
+         */
+        public int getNumLive() {
+            return numLive;
+        }
+
+        /**
+         * @return the spawned confetti, or null if they are not collected.
+         */
+        public List<Confetto> getSpawnedConfetti() {
+            return spawnedConfetti;
+        }
+
+        /**
+         * @return the expired confetti, or null if they are not collected.
+         */
+        public List<Confetto> getExpiredConfetti() {
+            return expiredConfetti;
+        }
+
+        boolean isEmpty() {
+            return numSpawned == 0 && numExpired == 0;
+        }
+
+        void merge(ConfettiFrame frame) {
+            numSpawned += frame.numSpawned;
+            numExpired += frame.numExpired;
+            numLive = frame.numLive;
+            if (spawnedConfetti != null) {
+                spawnedConfetti.addAll(frame.spawnedConfetti);
+                expiredConfetti.addAll(frame.expiredConfetti);
+            }
+        }
+
+        void clear() {
+            numSpawned = numExpired = numLive = 0;
+            if (spawnedConfetti != null) {
+                spawnedConfetti.clear();
+                expiredConfetti.clear();
+            }
+        }
+    }
+
+    public interface ConfettiFrameListener {
+        void onConfettiFrame(ConfettiManager confettiManager, ConfettiFrame frame);
     }
 
     public interface ConfettiAnimationListener {
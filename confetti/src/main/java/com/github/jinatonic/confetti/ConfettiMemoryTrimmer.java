@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Releases memory held by confetti in response to {@link ComponentCallbacks2#onTrimMemory(int)}:
+ * pooled confetti and backing arrays of {@link ConfettiManager}s, and cached sprites from
+ * {@link ConfettiSprites}. Managers register themselves automatically on construction and are
+ * only weakly referenced.
+ *
+ * <p>{@link #trimMemory(int)} can also be called directly, e.g. from soak tests, and reports
+ * how many bytes were released.
+ */
+public class ConfettiMemoryTrimmer implements ComponentCallbacks2 {
+    private static final ConfettiMemoryTrimmer INSTANCE = new ConfettiMemoryTrimmer();
+
+    private final Map<ConfettiManager, Boolean> managers = new WeakHashMap<>();
+    private final List<ConfettiManager> workManagers = new ArrayList<>();
+    private boolean registered;
+    private long totalReleasedBytes;
+
+    private ConfettiMemoryTrimmer() {
+    }
+
+    public static ConfettiMemoryTrimmer getInstance() {
+        return INSTANCE;
+    }
+
+    static void register(Context context, ConfettiManager manager) {
+        synchronized (INSTANCE) {
+            if (!INSTANCE.registered) {
+                final Context appContext = context.getApplicationContext();
+                (appContext != null ? appContext : context).registerComponentCallbacks(INSTANCE);
+                INSTANCE.registered = true;
+            }
+            INSTANCE.managers.put(manager, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Release confetti memory appropriate for the provided trim level.
+     *
+     * @param level the trim level, one of the {@code TRIM_MEMORY_*} constants from
+     *   {@link ComponentCallbacks2}.
+     * @return the approximate number of bytes released.
+     */
+    public long trimMemory(int level) {
+        synchronized (this) {
+            workManagers.addAll(managers.keySet());
+        }
+
+        long released = 0;
+        for (int i = 0; i < workManagers.size(); i++) {
+            released += workManagers.get(i).trimMemory(level);
+        }
+        workManagers.clear();
+
+        // Sprites are cheap to re-create compared to the app's own memory once it is in the
+        // background or memory is critically low.
+        if (level >= TRIM_MEMORY_UI_HIDDEN || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            released += ConfettiSprites.evictAll();
+        }
+
+        synchronized (this) {
+            totalReleasedBytes += released;
+        }
+        return released;
+    }
+
+    /**
+     * @return the approximate number of bytes released since the process started.
+     */
+    public synchronized long getTotalReleasedBytes() {
+        return totalReleasedBytes;
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        trimMemory(level);
+    }
+
+    @Override
+    public void onLowMemory() {
+        trimMemory(TRIM_MEMORY_COMPLETE);
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        // The default confetti dimensions depend on the display density.
+        CommonConfetti.resetStaticResources();
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import android.annotation.TargetApi;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Build;
+import android.os.PowerManager;
+
+/**
+ * Process-wide cache of the device's power-save mode and thermal status, kept up to date via
+ * broadcasts and thermal listeners so that {@link ConfettiManager}s don't have to query the
+ * {@link PowerManager} on every frame. Every change bumps {@link #getVersion()}.
+ */
+class ConfettiPowerMonitor {
+    private static ConfettiPowerMonitor instance;
+
+    private final PowerManager powerManager;
+    private volatile boolean powerSaveMode;
+    private volatile int thermalStatus = PowerManager.THERMAL_STATUS_NONE;
+    private volatile int version;
+
+    private ConfettiPowerMonitor(Context context) {
+        this.powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        if (powerManager == null) {
+            return;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            registerPowerSaveReceiver(context);
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            registerThermalListener();
+        }
+    }
+
+    static synchronized ConfettiPowerMonitor getInstance(Context context) {
+        if (instance == null) {
+            final Context appContext = context.getApplicationContext();
+            instance = new ConfettiPowerMonitor(appContext != null ? appContext : context);
+        }
+        return instance;
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private void registerPowerSaveReceiver(Context context) {
+        powerSaveMode = powerManager.isPowerSaveMode();
+        context.registerReceiver(new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                powerSaveMode = powerManager.isPowerSaveMode();
+                version++;
+            }
+        }, new IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED));
+    }
+
+    @TargetApi(Build.VERSION_CODES.Q)
+    private void registerThermalListener() {
+        thermalStatus = powerManager.getCurrentThermalStatus();
+        powerManager.addThermalStatusListener(new PowerManager.OnThermalStatusChangedListener() {
+            @Override
+            public void onThermalStatusChanged(int status) {
+                thermalStatus = status;
+                version++;
+            }
+        });
+    }
+
+    boolean isPowerSaveMode() {
+        return powerSaveMode;
+    }
+
+    int getThermalStatus() {
+        return thermalStatus;
+    }
+
+    /**
+     * @return a counter that changes whenever the power-save mode or thermal status changes.
+     */
+    int getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import android.os.PowerManager;
+
+/**
+ * Decides how aggressively a {@link ConfettiManager} should save power based on the device's
+ * power-save mode and thermal status.
+ *
+ * @see ConfettiManager#enablePowerSaving(ConfettiPowerPolicy)
+ */
+public interface ConfettiPowerPolicy {
+    /**
+     * Throttles to 30fps with half the emission and no anti-aliasing when power-save mode is on
+     * or the device is moderately hot, and to 20fps with a quarter of the emission once the
+     * device is severely hot.
+     */
+    ConfettiPowerPolicy DEFAULT = new ConfettiPowerPolicy() {
+        private final ConfettiPowerProfile reduced = new ConfettiPowerProfile(30, 0.5f, false);
+        private final ConfettiPowerProfile minimal = new ConfettiPowerProfile(20, 0.25f, false);
+
+        @Override
+        public ConfettiPowerProfile getProfile(boolean powerSaveMode, int thermalStatus) {
+            if (thermalStatus >= PowerManager.THERMAL_STATUS_SEVERE) {
+                return minimal;
+            } else if (powerSaveMode || thermalStatus >= PowerManager.THERMAL_STATUS_MODERATE) {
+                return reduced;
+            } else {
+                return ConfettiPowerProfile.FULL;
+            }
+        }
+    };
+
+    /**
+     * @param powerSaveMode whether the device is in power-save mode.
+     * @param thermalStatus one of the {@code PowerManager.THERMAL_STATUS_*} constants. This is
+     *   always {@link PowerManager#THERMAL_STATUS_NONE} before API 29.
+     * @return the profile that the manager should run with, never null.
+     */
+    ConfettiPowerProfile getProfile(boolean powerSaveMode, int thermalStatus);
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+/**
+ * Describes how much work a {@link ConfettiManager} is allowed to do, as decided by a
+ * {@link ConfettiPowerPolicy} for the current power-save and thermal state.
+ */
+public class ConfettiPowerProfile {
+    public static final int UNLIMITED_FRAME_RATE = 0;
+
+    /**
+     * Render at the full display refresh rate with every feature enabled.
+     */
+    public static final ConfettiPowerProfile FULL =
+            new ConfettiPowerProfile(UNLIMITED_FRAME_RATE, 1f, true);
+
+    private final int maxFramesPerSecond;
+    private final float emissionRateMultiplier;
+    private final boolean antiAlias;
+
+    /**
+     * @param maxFramesPerSecond the maximum number of frames per second to update and redraw
+     *   the confetti, or {@link #UNLIMITED_FRAME_RATE}.
+     * @param emissionRateMultiplier the multiplier [0, 1] applied to the configured emission rate.
+     * @param antiAlias whether the confetti should be drawn with anti-aliasing.
+     */
+    public ConfettiPowerProfile(int maxFramesPerSecond, float emissionRateMultiplier,
+            boolean antiAlias) {
+        if (maxFramesPerSecond < 0) {
+            throw new IllegalArgumentException("maxFramesPerSecond must not be negative");
+        }
+        this.maxFramesPerSecond = maxFramesPerSecond;
+        this.emissionRateMultiplier = Math.max(0f, Math.min(1f, emissionRateMultiplier));
+        this.antiAlias = antiAlias;
+    }
+
+    public int getMaxFramesPerSecond() {
+        return maxFramesPerSecond;
+    }
+
+    public float getEmissionRateMultiplier() {
+        return emissionRateMultiplier;
+    }
+
+    public boolean isAntiAlias() {
+        return antiAlias;
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.github.jinatonic.confetti;
 
+import java.util.Random;
+
 /**
  * The source from which confetti will appear. This can be either a line or a point.
  *
@@ -58,4 +60,36 @@ public class ConfettiSource {
     protected float getInitialY(float random) {
         return y0 + (y1 - y0) * random;
     }
+
+    /**
+     * Pick the initial position of a new confetto. By default this picks a random point on the
+     * line via {@link #getInitialX(float)} and {@link #getInitialY(float)}.
+     *
+     * @param random the random to draw from.
+     * @param position the array to write the x and y coordinates into.
+     */
+    protected void getInitialPosition(Random random, float[] position) {
+        position[0] = getInitialX(random.nextFloat());
+        position[1] = getInitialY(random.nextFloat());
+    }
+
+    /**
+     * @return the smallest x-coordinate that {@link #getInitialPosition(Random, float[])} can
+     *   return, used to estimate confetti lifetimes.
+     */
+    protected float getMinX() {
+        return Math.min(x0, x1);
+    }
+
+    protected float getMaxX() {
+        return Math.max(x0, x1);
+    }
+
+    protected float getMinY() {
+        return Math.min(y0, y1);
+    }
+
+    protected float getMaxY() {
+        return Math.max(y0, y1);
+    }
 }
@@ -0,0 +1,302 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Process-wide loader and cache for confetti sprites. Sprites are decoded directly to their
+ * target size (rather than decoded at full size and then scaled) and every sprite is created at
+ * most once per process, even if it is requested from multiple threads at the same time.
+ *
+ * <p>All of the loading methods can be called from any thread. Use {@link #preload(Context)}
+ * or the async variants early on, e.g. in {@code Application#onCreate}, so that the first
+ * confetti animation does not have to rasterize or decode anything on the main thread.
+ */
+public class ConfettiSprites {
+    private static final ConcurrentHashMap<String, FutureTask<Object>> CACHE =
+            new ConcurrentHashMap<>();
+    private static final Executor EXECUTOR = Executors.newSingleThreadExecutor(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "ConfettiSprites");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }
+            });
+    private static Handler mainHandler;
+
+    private ConfettiSprites() {
+    }
+
+    /**
+     * Rasterize the default confetti masks used by {@link CommonConfetti} on a background
+     * thread.
+     *
+     * @param context a context to resolve the default confetti size with.
+     */
+    public static void preload(Context context) {
+        final int size = context.getResources()
+                .getDimensionPixelSize(R.dimen.default_confetti_size);
+        EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                getDefaultMasks(size);
+            }
+        });
+    }
+
+    /**
+     * @param size the size of the masks in pixels.
+     * @return the cached default confetti masks, rasterizing them first if needed.
+     * @see Utils#generateConfettiMasks(int)
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Bitmap> getDefaultMasks(final int size) {
+        return (List<Bitmap>) get("masks:" + size, new Callable<Object>() {
+            @Override
+            public Object call() {
+                return Utils.generateConfettiMasks(size);
+            }
+        });
+    }
+
+    /**
+     * Decode a bitmap resource directly to the requested size. The result is cached for the
+     * lifetime of the process.
+     *
+     * @param res the resources to decode from.
+     * @param resId the id of the bitmap resource.
+     * @param width the target width in pixels.
+     * @param height the target height in pixels.
+     * @return the decoded bitmap.
+     */
+    public static Bitmap decodeResource(final Resources res, final int resId, final int width,
+            final int height) {
+        return (Bitmap) get("res:" + resId + ":" + width + "x" + height, new Callable<Object>() {
+            @Override
+            public Object call() {
+                final BitmapFactory.Options options = new BitmapFactory.Options();
+                options.inJustDecodeBounds = true;
+                options.inScaled = false;
+                BitmapFactory.decodeResource(res, resId, options);
+                prepareDecodeToSize(options, width, height);
+                return ensureSize(BitmapFactory.decodeResource(res, resId, options),
+                        width, height, res.getDisplayMetrics().densityDpi);
+            }
+        });
+    }
+
+    /**
+     * Decode a bitmap stream directly to the requested size. The result is cached for the
+     * lifetime of the process under the provided key, and the stream is only read if there is
+     * no cached bitmap for that key yet. The stream is not closed.
+     *
+     * @param key the cache key uniquely identifying the stream contents.
+     * @param stream the stream to decode.
+     * @param width the target width in pixels.
+     * @param height the target height in pixels.
+     * @return the decoded bitmap, or null if the stream could not be read or decoded.
+     */
+    public static Bitmap decodeStream(String key, final InputStream stream, final int width,
+            final int height) {
+        return (Bitmap) get("stream:" + key + ":" + width + "x" + height,
+                new Callable<Object>() {
+                    @Override
+                    public Object call() throws IOException {
+                        // Buffer the stream so that it can be decoded twice: bounds, then pixels.
+                        final byte[] data = readFully(stream);
+                        final BitmapFactory.Options options = new BitmapFactory.Options();
+                        options.inJustDecodeBounds = true;
+                        BitmapFactory.decodeByteArray(data, 0, data.length, options);
+                        prepareDecodeToSize(options, width, height);
+                        return ensureSize(
+                                BitmapFactory.decodeByteArray(data, 0, data.length, options),
+                                width, height, Bitmap.DENSITY_NONE);
+                    }
+                });
+    }
+
+    /**
+     * Asynchronous version of {@link #decodeResource(Resources, int, int, int)}. The callback
+     * is invoked on the main thread.
+     */
+    public static void decodeResourceAsync(final Resources res, final int resId, final int width,
+            final int height, final Callback callback) {
+        EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                deliver(decodeResource(res, resId, width, height), callback);
+            }
+        });
+    }
+
+    /**
+     * Evict all of the cached sprites. Sprites that are still referenced elsewhere, e.g. by
+     * running confetti, stay in memory until they are no longer used.
+     *
+     * @return the approximate number of bytes of sprites dropped from the cache.
+     */
+    public static long evictAll() {
+        long released = 0;
+        for (String key : CACHE.keySet()) {
+            final FutureTask<Object> task = CACHE.remove(key);
+            if (task != null && task.isDone()) {
+                released += getByteCount(task);
+            }
+        }
+        return released;
+    }
+
+    private static long getByteCount(FutureTask<Object> task) {
+        final Object value;
+        try {
+            value = task.get();
+        } catch (InterruptedException | ExecutionException e) {
+            return 0;
+        }
+
+        if (value instanceof Bitmap) {
+            return ((Bitmap) value).getByteCount();
+        } else if (value instanceof List) {
+            long byteCount = 0;
+            for (Object item : (List<?>) value) {
+                if (item instanceof Bitmap) {
+                    byteCount += ((Bitmap) item).getByteCount();
+                }
+            }
+            return byteCount;
+        } else {
+            return 0;
+        }
+    }
+
+    private static void prepareDecodeToSize(BitmapFactory.Options options, int width, int height) {
+        final int sourceWidth = options.outWidth;
+        final int sourceHeight = options.outHeight;
+
+        // Sub-sample by the largest power of two that keeps the image at least as large as the
+        // target, then let the decoder scale the rest of the way through the densities.
+        int sampleSize = 1;
+        while (sourceWidth / (sampleSize * 2) >= width
+                && sourceHeight / (sampleSize * 2) >= height) {
+            sampleSize *= 2;
+        }
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize;
+        final int sampledWidth = sourceWidth / sampleSize;
+        if (sampledWidth > 0 && width > 0 && sampledWidth != width) {
+            options.inScaled = true;
+            options.inDensity = sampledWidth;
+            options.inTargetDensity = width;
+        } else {
+            options.inScaled = false;
+        }
+    }
+
+    private static Bitmap ensureSize(Bitmap bitmap, int width, int height, int density) {
+        if (bitmap == null) {
+            return null;
+        }
+        // The density scaling keeps the aspect ratio and rounds, so fix up any difference.
+        if (bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            final Bitmap scaled = Bitmap.createScaledBitmap(bitmap, width, height, true);
+            if (scaled != bitmap) {
+                bitmap.recycle();
+            }
+            bitmap = scaled;
+        }
+        // Scaling through the densities leaves the target width as the density of the bitmap,
+        // which would make density-aware drawing scale it again.
+        bitmap.setDensity(density);
+        return bitmap;
+    }
+
+    private static byte[] readFully(InputStream stream) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[16 * 1024];
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static Object get(String key, Callable<Object> loader) {
+        FutureTask<Object> task = CACHE.get(key);
+        if (task == null) {
+            final FutureTask<Object> newTask = new FutureTask<>(loader);
+            task = CACHE.putIfAbsent(key, newTask);
+            if (task == null) {
+                task = newTask;
+                task.run();
+            }
+        }
+
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            // Don't cache failures so that a later call can retry.
+            CACHE.remove(key, task);
+            return null;
+        }
+    }
+
+    private static void deliver(final Bitmap bitmap, final Callback callback) {
+        synchronized (ConfettiSprites.class) {
+            if (mainHandler == null) {
+                mainHandler = new Handler(Looper.getMainLooper());
+            }
+        }
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                callback.onSpriteLoaded(bitmap);
+            }
+        });
+    }
+
+    public interface Callback {
+        /**
+         * @param bitmap the loaded sprite, or null if it could not be loaded.
+         */
+        void onSpriteLoaded(Bitmap bitmap);
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+/**
+ * Named trace sections and counters around every stage of the confetti pipeline, routed to a
+ * pluggable {@link ConfettiTracer}. By default they go to {@link ConfettiTracer#SYSTEM}; tests
+ * can install a recording tracer instead via {@link #setTracer(ConfettiTracer)}.
+ */
+public final class ConfettiTrace {
+    public static final String SECTION_ANIMATE = "Confetti#animate";
+    public static final String SECTION_ADD_CONFETTI = "Confetti#addNewConfetti";
+    public static final String SECTION_EMISSION = "Confetti#processNewEmission";
+    public static final String SECTION_UPDATE = "Confetti#updateConfetti";
+    public static final String SECTION_DRAW = "Confetti#onDraw";
+    public static final String SECTION_TOUCH = "Confetti#onTouchEvent";
+
+    public static final String COUNTER_LIVE = "Confetti live";
+    public static final String COUNTER_SPAWNS = "Confetti spawns";
+
+    private static volatile ConfettiTracer tracer = ConfettiTracer.SYSTEM;
+
+    private ConfettiTrace() {
+    }
+
+    /**
+     * @param tracer the tracer to route all confetti sections and counters to, or null to
+     *   restore {@link ConfettiTracer#SYSTEM}.
+     */
+    public static void setTracer(ConfettiTracer tracer) {
+        ConfettiTrace.tracer = tracer != null ? tracer : ConfettiTracer.SYSTEM;
+    }
+
+    public static ConfettiTracer getTracer() {
+        return tracer;
+    }
+
+    static void beginSection(String name) {
+        tracer.beginSection(name);
+    }
+
+    static void endSection() {
+        tracer.endSection();
+    }
+
+    static void setCounter(String name, long value) {
+        tracer.setCounter(name, value);
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Receives the named sections and counters of the confetti pipeline, see {@link ConfettiTrace}.
+ * Implementations are called on the main thread in the middle of the animation and draw
+ * callbacks, so they should be cheap.
+ */
+public interface ConfettiTracer {
+    /**
+     * Routes everything to {@link Trace} so that confetti work shows up in systrace and Perfetto.
+     * Sections require API 18 and counters require API 29; they are dropped on older devices.
+     */
+    ConfettiTracer SYSTEM = new ConfettiTracer() {
+        @Override
+        @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+        public void beginSection(String name) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+                Trace.beginSection(name);
+            }
+        }
+
+        @Override
+        @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+        public void endSection() {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+                Trace.endSection();
+            }
+        }
+
+        @Override
+        @TargetApi(Build.VERSION_CODES.Q)
+        public void setCounter(String name, long value) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && Trace.isEnabled()) {
+                Trace.setCounter(name, value);
+            }
+        }
+    };
+
+    /**
+     * Begin a named section. Sections nest and are ended in reverse order.
+     *
+     * @param name the name of the section, one of the {@code SECTION_*} constants in
+     *   {@link ConfettiTrace}.
+     */
+    void beginSection(String name);
+
+    /**
+     * End the most recently begun section.
+     */
+    void endSection();
+
+    /**
+     * Record the current value of a counter.
+     *
+     * @param name the name of the counter, one of the {@code COUNTER_*} constants in
+     *   {@link ConfettiTrace}.
+     * @param value the current value.
+     */
+    void setCounter(String name, long value);
+}
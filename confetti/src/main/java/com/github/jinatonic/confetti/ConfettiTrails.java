@@ -0,0 +1,206 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import com.github.jinatonic.confetti.confetto.Confetto;
+
+import java.util.Arrays;
+
+/**
+ * Records the last few positions of every live confetto and draws them as trails behind the
+ * confetti. The history of all confetti lives in one shared ring buffer of primitive arrays,
+ * with a fixed-size slot per confetto, so recording and drawing never allocate once the buffer
+ * is large enough. All of the trails are drawn with a single
+ * {@link Canvas#drawLines(float[], int, int, Paint)} call per frame.
+ *
+ * <p>Slots are tracked by the confetto's index in the manager's live list, which the manager
+ * keeps up to date as it compacts the list.
+ *
+ * @see ConfettiManager#enableTrails(int, float, int)
+ */
+class ConfettiTrails {
+    // Default upper bound on the number of segments drawn on a single frame.
+    static final int DEFAULT_MAX_SEGMENTS = 4096;
+
+    private final int maxLength;
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private int maxSegments = DEFAULT_MAX_SEGMENTS;
+    private Rect bound;
+
+    // Ring buffers of maxLength positions per slot.
+    private float[] xs, ys;
+    private int[] heads, counts;
+    private int[] freeSlots;
+    private int numFreeSlots;
+    private int numSlots;
+    // The slot of the confetto at every index of the manager's live list.
+    private int[] listSlots;
+    private int numActive;
+    private float[] lines = new float[0];
+
+    /**
+     * @param maxLength the number of positions to keep per confetto, at least 2.
+     * @param strokeWidth the width of the trails in pixels.
+     * @param color the color of the trails.
+     */
+    ConfettiTrails(int maxLength, float strokeWidth, int color) {
+        this.maxLength = Math.max(2, maxLength);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeCap(Paint.Cap.ROUND);
+        paint.setStrokeWidth(strokeWidth);
+        paint.setColor(color);
+        xs = new float[0];
+        ys = new float[0];
+        heads = new int[0];
+        counts = new int[0];
+        freeSlots = new int[0];
+        listSlots = new int[0];
+    }
+
+    void setMaxSegments(int maxSegments) {
+        this.maxSegments = maxSegments;
+    }
+
+    void setBound(Rect bound) {
+        this.bound = bound;
+    }
+
+    void setAntiAlias(boolean antiAlias) {
+        paint.setAntiAlias(antiAlias);
+    }
+
+    /**
+     * Assign an empty trail to the confetto that was just added at the provided list index.
+     */
+    void add(int index) {
+        if (numFreeSlots == 0) {
+            grow(Math.max(16, numSlots * 2));
+        }
+        if (index >= listSlots.length) {
+            listSlots = Arrays.copyOf(listSlots, Math.max(16, listSlots.length * 2));
+        }
+        final int slot = freeSlots[--numFreeSlots];
+        heads[slot] = 0;
+        counts[slot] = 0;
+        listSlots[index] = slot;
+        numActive++;
+    }
+
+    /**
+     * Release the trail of the confetto that was removed from the provided list index.
+     */
+    void remove(int index) {
+        final int slot = listSlots[index];
+        counts[slot] = 0;
+        freeSlots[numFreeSlots++] = slot;
+        numActive--;
+    }
+
+    /**
+     * The confetto at the list index from has moved to the list index to.
+     */
+    void move(int from, int to) {
+        listSlots[to] = listSlots[from];
+    }
+
+    void clear() {
+        numFreeSlots = 0;
+        for (int slot = numSlots - 1; slot >= 0; slot--) {
+            counts[slot] = 0;
+            freeSlots[numFreeSlots++] = slot;
+        }
+        numActive = 0;
+    }
+
+    /**
+     * Append the current center of the confetto at the provided list index to its trail.
+     */
+    void record(int index, Confetto confetto) {
+        final int slot = listSlots[index];
+        final int offset = slot * maxLength;
+        final int head = heads[slot];
+        xs[offset + head] = confetto.getCurrentX() + confetto.getWidth() / 2f;
+        ys[offset + head] = confetto.getCurrentY() + confetto.getHeight() / 2f;
+        heads[slot] = (head + 1) % maxLength;
+        if (counts[slot] < maxLength) {
+            counts[slot]++;
+        }
+    }
+
+    /**
+     * @return the number of positions drawn per trail on this frame. Under load the trails are
+     *   shortened so that the total number of segments stays within the configured maximum.
+     */
+    int getEffectiveLength() {
+        if (numActive == 0) {
+            return maxLength;
+        }
+        return Math.max(2, Math.min(maxLength, maxSegments / numActive + 1));
+    }
+
+    void draw(Canvas canvas) {
+        final int length = getEffectiveLength();
+        final int maxFloats = numActive * (length - 1) * 4;
+        if (lines.length < maxFloats) {
+            lines = new float[maxFloats];
+        }
+
+        int numFloats = 0;
+        for (int slot = 0; slot < numSlots; slot++) {
+            final int count = Math.min(counts[slot], length);
+            if (count < 2) {
+                continue;
+            }
+            final int offset = slot * maxLength;
+            // Walk back from the newest position.
+            int previous = (heads[slot] - 1 + maxLength) % maxLength;
+            for (int i = 1; i < count; i++) {
+                final int current = (previous - 1 + maxLength) % maxLength;
+                lines[numFloats++] = xs[offset + previous];
+                lines[numFloats++] = ys[offset + previous];
+                lines[numFloats++] = xs[offset + current];
+                lines[numFloats++] = ys[offset + current];
+                previous = current;
+            }
+        }
+
+        if (numFloats > 0) {
+            canvas.save();
+            if (bound != null) {
+                canvas.clipRect(bound);
+            }
+            canvas.drawLines(lines, 0, numFloats, paint);
+            canvas.restore();
+        }
+    }
+
+    private void grow(int capacity) {
+        xs = Arrays.copyOf(xs, capacity * maxLength);
+        ys = Arrays.copyOf(ys, capacity * maxLength);
+        heads = Arrays.copyOf(heads, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+        for (int slot = capacity - 1; slot >= numSlots; slot--) {
+            freeSlots[numFreeSlots++] = slot;
+        }
+        numSlots = capacity;
+    }
+}
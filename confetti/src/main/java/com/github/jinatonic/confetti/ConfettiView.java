@@ -25,6 +25,7 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.view.ViewParent;
 
+import com.github.jinatonic.confetti.confetto.CirclePointBatch;
 import com.github.jinatonic.confetti.confetto.Confetto;
 
 import java.util.List;
@@ -36,6 +37,13 @@ import java.util.List;
  */
 public class ConfettiView extends View implements View.OnLayoutChangeListener {
     private List<Confetto> confetti;
+    private ProceduralConfetti proceduralConfetti;
+    private CirclePointBatch pointBatch;
+    private boolean antiAlias = true;
+    private float interpolation = 1f;
+    private ConfettiDebugOverlay debugOverlay;
+    private ConfettiTrails trails;
+    private final BakedConfettiLayer bakedLayer = new BakedConfettiLayer();
     private boolean terminated;
 
     private boolean touchEnabled;
@@ -68,6 +76,92 @@ public class ConfettiView extends View implements View.OnLayoutChangeListener {
         this.confetti = confetti;
     }
 
+    /**
+     * Sets the procedural confetti to be drawn by this view in addition to the bound confetti.
+     *
+     * @param proceduralConfetti the procedural confetti, or null if there are none.
+     */
+    void bindProcedural(ProceduralConfetti proceduralConfetti) {
+        this.proceduralConfetti = proceduralConfetti;
+    }
+
+    /**
+     * @see ConfettiManager#setPointSpriteThreshold(float)
+     *
+     * @param maxDiameter the largest circle diameter in pixels to draw as a point, or 0 to
+     *   disable point sprites.
+     */
+    public void setPointSpriteThreshold(float maxDiameter) {
+        this.pointBatch = maxDiameter > 0 ? new CirclePointBatch(maxDiameter) : null;
+        if (pointBatch != null) {
+            pointBatch.setAntiAlias(antiAlias);
+        }
+    }
+
+    /**
+     * Sets whether the batched point sprites are drawn with anti-aliasing.
+     *
+     * @param antiAlias whether or not to anti-alias the point sprites.
+     */
+    void setAntiAlias(boolean antiAlias) {
+        this.antiAlias = antiAlias;
+        if (pointBatch != null) {
+            pointBatch.setAntiAlias(antiAlias);
+        }
+    }
+
+    /**
+     * Sets how far to interpolate the bound confetti between their previous and current state
+     * on the next draw.
+     *
+     * @param interpolation the interpolation [0f, 1f], see {@link Confetto#draw(Canvas, float)}.
+     */
+    void setInterpolation(float interpolation) {
+        this.interpolation = interpolation;
+    }
+
+    /**
+     * @param trails the trails to draw behind the confetti, or null to disable them.
+     */
+    void setTrails(ConfettiTrails trails) {
+        this.trails = trails;
+    }
+
+    /**
+     * Draw the confetto from the cached layer from now on instead of on its own.
+     */
+    void bake(Confetto confetto) {
+        bakedLayer.add(confetto);
+    }
+
+    /**
+     * Draw the confetto on its own again, e.g. when it is removed or starts moving.
+     */
+    void unbake(Confetto confetto) {
+        bakedLayer.remove(confetto);
+    }
+
+    void clearBaked() {
+        bakedLayer.clear();
+        bakedLayer.release();
+    }
+
+    /**
+     * Release the bitmap of the cached layer, which is re-rendered on the next draw if needed.
+     *
+     * @return the approximate number of bytes released.
+     */
+    long releaseBakedLayer() {
+        return bakedLayer.release();
+    }
+
+    /**
+     * @param debugOverlay the overlay to draw on top of the confetti, or null to disable it.
+     */
+    void setDebugOverlay(ConfettiDebugOverlay debugOverlay) {
+        this.debugOverlay = debugOverlay;
+    }
+
     /**
      * @see ConfettiManager#setTouchEnabled(boolean)
      *
@@ -124,48 +218,83 @@ public class ConfettiView extends View implements View.OnLayoutChangeListener {
 
     @Override
     protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
+        ConfettiTrace.beginSection(ConfettiTrace.SECTION_DRAW);
+        try {
+            super.onDraw(canvas);
+            final long drawStartTime = debugOverlay != null ? System.nanoTime() : 0;
 
-        if (!terminated) {
-            canvas.save();
-            for (Confetto confetto : this.confetti) {
-                confetto.draw(canvas);
+            if (!terminated) {
+                canvas.save();
+                bakedLayer.draw(canvas, getWidth(), getHeight());
+                if (trails != null) {
+                    trails.draw(canvas);
+                }
+                // Indexed loop to avoid allocating an iterator on every frame.
+                final int size = confetti.size();
+                for (int i = 0; i < size; i++) {
+                    final Confetto confetto = confetti.get(i);
+                    if (confetto.isBaked()) {
+                        continue;
+                    }
+                    if (pointBatch == null || !pointBatch.add(confetto, interpolation)) {
+                        confetto.draw(canvas, interpolation);
+                    }
+                }
+                if (proceduralConfetti != null) {
+                    proceduralConfetti.draw(canvas, pointBatch);
+                }
+                if (pointBatch != null) {
+                    pointBatch.draw(canvas);
+                }
+                canvas.restore();
+
+                if (debugOverlay != null) {
+                    debugOverlay.getStats().recordDraw(System.nanoTime() - drawStartTime);
+                    debugOverlay.updateDirtyRect(confetti);
+                    debugOverlay.draw(canvas);
+                }
             }
-            canvas.restore();
+        } finally {
+            ConfettiTrace.endSection();
         }
     }
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        boolean handled = false;
-        if (touchEnabled) {
-            switch (event.getAction()) {
-                case MotionEvent.ACTION_DOWN:
-                    for (Confetto confetto : confetti) {
-                        if (confetto.onTouchDown(event)) {
-                            draggedConfetto = confetto;
+        ConfettiTrace.beginSection(ConfettiTrace.SECTION_TOUCH);
+        try {
+            boolean handled = false;
+            if (touchEnabled) {
+                switch (event.getAction()) {
+                    case MotionEvent.ACTION_DOWN:
+                        for (Confetto confetto : confetti) {
+                            if (confetto.onTouchDown(event)) {
+                                draggedConfetto = confetto;
+                                handled = true;
+                                break;
+                            }
+                        }
+                        break;
+                    case MotionEvent.ACTION_MOVE:
+                        if (draggedConfetto != null) {
+                            draggedConfetto.onTouchMove(event);
                             handled = true;
-                            break;
                         }
-                    }
-                    break;
-                case MotionEvent.ACTION_MOVE:
-                    if (draggedConfetto != null) {
-                        draggedConfetto.onTouchMove(event);
-                        handled = true;
-                    }
-                    break;
-                case MotionEvent.ACTION_UP:
-                case MotionEvent.ACTION_CANCEL:
-                    if (draggedConfetto != null) {
-                        draggedConfetto.onTouchUp(event);
-                        draggedConfetto = null;
-                        handled = true;
-                    }
-                    break;
+                        break;
+                    case MotionEvent.ACTION_UP:
+                    case MotionEvent.ACTION_CANCEL:
+                        if (draggedConfetto != null) {
+                            draggedConfetto.onTouchUp(event);
+                            draggedConfetto = null;
+                            handled = true;
+                        }
+                        break;
+                }
             }
-        }
 
-        return handled || super.onTouchEvent(event);
+            return handled || super.onTouchEvent(event);
+        } finally {
+            ConfettiTrace.endSection();
+        }
     }
 }
@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import com.github.jinatonic.confetti.confetto.Confetto;
+
+/**
+ * A simple array-backed pool of recycled {@link Confetto}. Unlike a linked queue, polling from
+ * and recycling into this pool never allocates once the backing array is large enough.
+ */
+public class ConfettoPool {
+    // Approximate size of a single slot in the backing array. Visible for testing.
+    static final int BYTES_PER_SLOT = 4;
+
+    private Confetto[] pool;
+    private int size;
+
+    public ConfettoPool(int initialCapacity) {
+        this.pool = new Confetto[Math.max(1, initialCapacity)];
+    }
+
+    /**
+     * @return a recycled confetto, or null if the pool is empty.
+     */
+    public Confetto poll() {
+        if (size == 0) {
+            return null;
+        }
+        final Confetto confetto = pool[--size];
+        pool[size] = null;
+        return confetto;
+    }
+
+    /**
+     * Return a confetto to the pool so that it can be re-used later.
+     *
+     * @param confetto the confetto that is no longer animating.
+     */
+    public void recycle(Confetto confetto) {
+        if (size == pool.length) {
+            ensureCapacity(size * 2);
+        }
+        pool[size++] = confetto;
+    }
+
+    /**
+     * Grow the backing array so that at least the given number of confetti can be held without
+     * any further allocation.
+     *
+     * @param capacity the minimum capacity of the pool.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > pool.length) {
+            final Confetto[] newPool = new Confetto[capacity];
+            System.arraycopy(pool, 0, newPool, 0, size);
+            pool = newPool;
+        }
+    }
+
+    /**
+     * Release pooled confetti until at most the given number is left, and shrink the backing
+     * array to match.
+     *
+     * @param maxSize the number of confetti to keep.
+     * @param bytesPerConfetto the approximate size of a single confetto.
+     * @return the approximate number of bytes released.
+     */
+    public long trim(int maxSize, int bytesPerConfetto) {
+        final int newSize = Math.max(0, Math.min(size, maxSize));
+        final int newCapacity = Math.max(1, newSize);
+        long released = (long) (size - newSize) * bytesPerConfetto;
+        if (newCapacity < pool.length) {
+            released += (long) (pool.length - newCapacity) * BYTES_PER_SLOT;
+            final Confetto[] newPool = new Confetto[newCapacity];
+            System.arraycopy(pool, 0, newPool, 0, newSize);
+            pool = newPool;
+        } else {
+            for (int i = newSize; i < size; i++) {
+                pool[i] = null;
+            }
+        }
+        size = newSize;
+        return released;
+    }
+
+    /**
+     * @return the number of confetti currently held by this pool.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of confetti this pool can hold without growing.
+     */
+    public int capacity() {
+        return pool.length;
+    }
+}
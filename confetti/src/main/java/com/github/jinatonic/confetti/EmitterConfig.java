@@ -0,0 +1,410 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import com.github.jinatonic.confetti.confetto.ColorCurve;
+import com.github.jinatonic.confetti.confetto.Confetto;
+import com.github.jinatonic.confetti.confetto.LifetimeCurve;
+
+import java.util.Random;
+
+/**
+ * An immutable snapshot of the per-confetto parameters of a {@link ConfettiManager}: velocity,
+ * acceleration, rotation, scale, TTL, curves and colors. Because it never changes, a single
+ * config can be shared across threads and managers via
+ * {@link ConfettiManager#setEmitterConfig(EmitterConfig)}.
+ *
+ * <p>The config is compiled when it is built: parameters without deviation are written without
+ * drawing a random number, boxed targets are created once, and groups of parameters that are
+ * left at their defaults are skipped entirely when configuring a confetto.
+ */
+public final class EmitterConfig {
+    // All of the values are in milliseconds, e.g. pixels per millisecond for velocity.
+    final float velocityX, velocityDeviationX;
+    final float velocityY, velocityDeviationY;
+    final float accelerationX, accelerationDeviationX;
+    final float accelerationY, accelerationDeviationY;
+    final Float targetVelocityX, targetVelocityXDeviation;
+    final Float targetVelocityY, targetVelocityYDeviation;
+    final int initialRotation, initialRotationDeviation;
+    final float rotationalVelocity, rotationalVelocityDeviation;
+    final float rotationalAcceleration, rotationalAccelerationDeviation;
+    final Float targetRotationalVelocity, targetRotationalVelocityDeviation;
+    final float scale, scaleDeviation;
+    final long ttl;
+    final LifetimeCurve alphaCurve, scaleCurve;
+    final ColorCurve colorCurve;
+    private final int[] colors;
+    private final float[] colorWeights;
+    private final AliasTable colorTable;
+
+    // Compiled state
+    private final boolean hasVelocity, hasAcceleration, hasTargetVelocity, hasRotation,
+            hasScale, hasCurves;
+    // Pre-boxed targets for when there is no deviation, null if they need to be sampled.
+    private final Float constantTargetVelocityX, constantTargetVelocityY,
+            constantTargetRotationalVelocity;
+
+    private EmitterConfig(Builder builder) {
+        velocityX = builder.velocityX;
+        velocityDeviationX = builder.velocityDeviationX;
+        velocityY = builder.velocityY;
+        velocityDeviationY = builder.velocityDeviationY;
+        accelerationX = builder.accelerationX;
+        accelerationDeviationX = builder.accelerationDeviationX;
+        accelerationY = builder.accelerationY;
+        accelerationDeviationY = builder.accelerationDeviationY;
+        targetVelocityX = builder.targetVelocityX;
+        targetVelocityXDeviation = builder.targetVelocityXDeviation;
+        targetVelocityY = builder.targetVelocityY;
+        targetVelocityYDeviation = builder.targetVelocityYDeviation;
+        initialRotation = builder.initialRotation;
+        initialRotationDeviation = builder.initialRotationDeviation;
+        rotationalVelocity = builder.rotationalVelocity;
+        rotationalVelocityDeviation = builder.rotationalVelocityDeviation;
+        rotationalAcceleration = builder.rotationalAcceleration;
+        rotationalAccelerationDeviation = builder.rotationalAccelerationDeviation;
+        targetRotationalVelocity = builder.targetRotationalVelocity;
+        targetRotationalVelocityDeviation = builder.targetRotationalVelocityDeviation;
+        scale = builder.scale;
+        scaleDeviation = builder.scaleDeviation;
+        ttl = builder.ttl;
+        alphaCurve = builder.alphaCurve;
+        scaleCurve = builder.scaleCurve;
+        colorCurve = builder.colorCurve;
+        colors = builder.colors != null ? builder.colors.clone() : null;
+        colorWeights = colors != null && builder.colorWeights != null
+                ? builder.colorWeights.clone() : null;
+        colorTable = colorWeights != null ? new AliasTable(colorWeights) : null;
+
+        // Groups that are left at the values that Confetto#reset() already sets are skipped.
+        hasVelocity = velocityX != 0f || velocityDeviationX != 0f
+                || velocityY != 0f || velocityDeviationY != 0f;
+        hasAcceleration = accelerationX != 0f || accelerationDeviationX != 0f
+                || accelerationY != 0f || accelerationDeviationY != 0f;
+        hasTargetVelocity = targetVelocityX != null || targetVelocityY != null;
+        hasRotation = initialRotation != 0 || initialRotationDeviation != 0
+                || rotationalVelocity != 0f || rotationalVelocityDeviation != 0f
+                || rotationalAcceleration != 0f || rotationalAccelerationDeviation != 0f
+                || targetRotationalVelocity != null;
+        hasScale = scale != 1f || scaleDeviation != 0f;
+        hasCurves = alphaCurve != null || scaleCurve != null || colorCurve != null;
+
+        constantTargetVelocityX = isConstant(targetVelocityX, targetVelocityXDeviation)
+                ? targetVelocityX : null;
+        constantTargetVelocityY = isConstant(targetVelocityY, targetVelocityYDeviation)
+                ? targetVelocityY : null;
+        constantTargetRotationalVelocity =
+                isConstant(targetRotationalVelocity, targetRotationalVelocityDeviation)
+                        ? targetRotationalVelocity : null;
+    }
+
+    int[] getColors() {
+        return colors != null ? colors.clone() : null;
+    }
+
+    float[] getColorWeights() {
+        return colorWeights != null ? colorWeights.clone() : null;
+    }
+
+    static void checkColorWeights(int[] colors, float[] weights) {
+        if (weights != null && (colors == null || colors.length != weights.length)) {
+            throw new IllegalArgumentException("colors and weights must have the same size");
+        }
+    }
+
+    private static boolean isConstant(Float target, Float deviation) {
+        return target != null && (deviation == null || deviation == 0f);
+    }
+
+    /**
+     * Configure the per-confetto parameters of a confetto that has just been reset. The
+     * confetto's initial delay and position are configured by the manager.
+     *
+     * @param confetto the confetto to configure.
+     * @param random the random to draw the deviations from.
+     */
+    void apply(Confetto confetto, Random random) {
+        if (hasVelocity) {
+            confetto.setInitialVelocityX(sample(velocityX, velocityDeviationX, random));
+            confetto.setInitialVelocityY(sample(velocityY, velocityDeviationY, random));
+        }
+        if (hasAcceleration) {
+            confetto.setAccelerationX(sample(accelerationX, accelerationDeviationX, random));
+            confetto.setAccelerationY(sample(accelerationY, accelerationDeviationY, random));
+        }
+        if (hasTargetVelocity) {
+            confetto.setTargetVelocityX(sampleTarget(targetVelocityX, targetVelocityXDeviation,
+                    constantTargetVelocityX, random));
+            confetto.setTargetVelocityY(sampleTarget(targetVelocityY, targetVelocityYDeviation,
+                    constantTargetVelocityY, random));
+        }
+        if (hasRotation) {
+            confetto.setInitialRotation(sample(initialRotation, initialRotationDeviation, random));
+            confetto.setInitialRotationalVelocity(
+                    sample(rotationalVelocity, rotationalVelocityDeviation, random));
+            confetto.setRotationalAcceleration(
+                    sample(rotationalAcceleration, rotationalAccelerationDeviation, random));
+            confetto.setTargetRotationalVelocity(sampleTarget(targetRotationalVelocity,
+                    targetRotationalVelocityDeviation, constantTargetRotationalVelocity, random));
+        }
+        confetto.setTTL(ttl);
+        if (hasScale) {
+            confetto.setScale(sample(scale, scaleDeviation, random));
+        }
+        if (hasCurves) {
+            confetto.setAlphaCurve(alphaCurve);
+            confetto.setScaleCurve(scaleCurve);
+            confetto.setColorCurve(colorCurve);
+        }
+        if (colorTable != null) {
+            confetto.setColor(colors[colorTable.sample(random)]);
+        } else if (colors != null) {
+            confetto.setColor(colors[random.nextInt(colors.length)]);
+        }
+    }
+
+    private static float sample(float base, float deviation, Random random) {
+        // Normalize random to be [-1, 1] rather than [0, 1]
+        return deviation == 0f ? base : base + (deviation * (random.nextFloat() * 2 - 1));
+    }
+
+    private static Float sampleTarget(Float base, Float deviation, Float constant,
+            Random random) {
+        if (base == null || constant != null) {
+            return constant;
+        }
+        return sample(base, deviation, random);
+    }
+
+    /**
+     * Builds an {@link EmitterConfig}. The setters take the same units as the corresponding
+     * {@link ConfettiManager} setters.
+     */
+    public static class Builder {
+        float velocityX, velocityDeviationX;
+        float velocityY, velocityDeviationY;
+        float accelerationX, accelerationDeviationX;
+        float accelerationY, accelerationDeviationY;
+        Float targetVelocityX, targetVelocityXDeviation;
+        Float targetVelocityY, targetVelocityYDeviation;
+        int initialRotation, initialRotationDeviation;
+        float rotationalVelocity, rotationalVelocityDeviation;
+        float rotationalAcceleration, rotationalAccelerationDeviation;
+        Float targetRotationalVelocity, targetRotationalVelocityDeviation;
+        float scale = 1f, scaleDeviation;
+        long ttl = -1;
+        LifetimeCurve alphaCurve, scaleCurve;
+        ColorCurve colorCurve;
+        int[] colors;
+        float[] colorWeights;
+
+        public Builder() {
+        }
+
+        /**
+         * @param config the config to copy all of the values from.
+         */
+        public Builder(EmitterConfig config) {
+            velocityX = config.velocityX;
+            velocityDeviationX = config.velocityDeviationX;
+            velocityY = config.velocityY;
+            velocityDeviationY = config.velocityDeviationY;
+            accelerationX = config.accelerationX;
+            accelerationDeviationX = config.accelerationDeviationX;
+            accelerationY = config.accelerationY;
+            accelerationDeviationY = config.accelerationDeviationY;
+            targetVelocityX = config.targetVelocityX;
+            targetVelocityXDeviation = config.targetVelocityXDeviation;
+            targetVelocityY = config.targetVelocityY;
+            targetVelocityYDeviation = config.targetVelocityYDeviation;
+            initialRotation = config.initialRotation;
+            initialRotationDeviation = config.initialRotationDeviation;
+            rotationalVelocity = config.rotationalVelocity;
+            rotationalVelocityDeviation = config.rotationalVelocityDeviation;
+            rotationalAcceleration = config.rotationalAcceleration;
+            rotationalAccelerationDeviation = config.rotationalAccelerationDeviation;
+            targetRotationalVelocity = config.targetRotationalVelocity;
+            targetRotationalVelocityDeviation = config.targetRotationalVelocityDeviation;
+            scale = config.scale;
+            scaleDeviation = config.scaleDeviation;
+            ttl = config.ttl;
+            alphaCurve = config.alphaCurve;
+            scaleCurve = config.scaleCurve;
+            colorCurve = config.colorCurve;
+            colors = config.colors;
+            colorWeights = config.colorWeights;
+        }
+
+        /**
+         * @see ConfettiManager#setVelocityX(float, float)
+         */
+        public Builder setVelocityX(float velocityX, float velocityDeviationX) {
+            this.velocityX = velocityX / 1000f;
+            this.velocityDeviationX = velocityDeviationX / 1000f;
+            return this;
+        }
+
+        /**
+         * @see ConfettiManager#setVelocityY(float, float)
+         */
+        public Builder setVelocityY(float velocityY, float velocityDeviationY) {
+            this.velocityY = velocityY / 1000f;
+            this.velocityDeviationY = velocityDeviationY / 1000f;
+            return this;
+        }
+
+        /**
+         * @see ConfettiManager#setAccelerationX(float, float)
+         */
+        public Builder setAccelerationX(float accelerationX, float accelerationDeviationX) {
+            this.accelerationX = accelerationX / 1000000f;
+            this.accelerationDeviationX = accelerationDeviationX / 1000000f;
+            return this;
+        }
+
+        /**
+         * @see ConfettiManager#setAccelerationY(float, float)
+         */
+        public Builder setAccelerationY(float accelerationY, float accelerationDeviationY) {
+            this.accelerationY = accelerationY / 1000000f;
+            this.accelerationDeviationY = accelerationDeviationY / 1000000f;
+            return this;
+        }
+
+        /**
+         * @see ConfettiManager#setTargetVelocityX(float, float)
+         */
+        public Builder setTargetVelocityX(float targetVelocityX,
+                float targetVelocityXDeviation) {
+            this.targetVelocityX = targetVelocityX / 1000f;
+            this.targetVelocityXDeviation = targetVelocityXDeviation / 1000f;
+            return this;
+        }
+
+        /**
+         * @see ConfettiManager#setTargetVelocityY(float, float)
+         */
+        public Builder setTargetVelocityY(float targetVelocityY,
+                float targetVelocityYDeviation) {
+            this.targetVelocityY = targetVelocityY / 1000f;
+            this.targetVelocityYDeviation = targetVelocityYDeviation / 1000f;
+            return this;
+        }
+
+        /**
+         * @see ConfettiManager#setInitialRotation(int, int)
+         */
+        public Builder setInitialRotation(int initialRotation, int initialRotationDeviation) {
+            this.initialRotation = initialRotation;
+            this.initialRotationDeviation = initialRotationDeviation;
+            return this;
+        }
+
+        /**
+         * @see ConfettiManager#setRotationalVelocity(float, float)
+         */
+        public Builder setRotationalVelocity(float rotationalVelocity,
+                float rotationalVelocityDeviation) {
+            this.rotationalVelocity = rotationalVelocity / 1000f;
+            this.rotationalVelocityDeviation = rotationalVelocityDeviation / 1000f;
+            return this;
+        }
+
+        /**
+         * @see ConfettiManager#setRotationalAcceleration(float, float)
+         */
+        public Builder setRotationalAcceleration(float rotationalAcceleration,
+                float rotationalAccelerationDeviation) {
+            this.rotationalAcceleration = rotationalAcceleration / 1000000f;
+            this.rotationalAccelerationDeviation = rotationalAccelerationDeviation / 1000000f;
+            return this;
+        }
+
+        /**
+         * @see ConfettiManager#setTargetRotationalVelocity(float, float)
+         */
+        public Builder setTargetRotationalVelocity(float targetRotationalVelocity,
+                float targetRotationalVelocityDeviation) {
+            this.targetRotationalVelocity = targetRotationalVelocity / 1000f;
+            this.targetRotationalVelocityDeviation = targetRotationalVelocityDeviation / 1000f;
+            return this;
+        }
+
+        /**
+         * @see ConfettiManager#setScale(float, float)
+         */
+        public Builder setScale(float scale, float scaleDeviation) {
+            this.scale = scale;
+            this.scaleDeviation = scaleDeviation;
+            return this;
+        }
+
+        /**
+         * @see ConfettiManager#setTTL(long)
+         */
+        public Builder setTTL(long ttlInMillis) {
+            this.ttl = ttlInMillis;
+            return this;
+        }
+
+        /**
+         * @see ConfettiManager#setAlphaOverLifetime(LifetimeCurve)
+         */
+        public Builder setAlphaOverLifetime(LifetimeCurve alphaCurve) {
+            this.alphaCurve = alphaCurve;
+            return this;
+        }
+
+        /**
+         * @see ConfettiManager#setScaleOverLifetime(LifetimeCurve)
+         */
+        public Builder setScaleOverLifetime(LifetimeCurve scaleCurve) {
+            this.scaleCurve = scaleCurve;
+            return this;
+        }
+
+        /**
+         * @see ConfettiManager#setColorOverLifetime(ColorCurve)
+         */
+        public Builder setColorOverLifetime(ColorCurve colorCurve) {
+            this.colorCurve = colorCurve;
+            return this;
+        }
+
+        /**
+         * @see ConfettiManager#setColors(int[])
+         */
+        public Builder setColors(int[] colors) {
+            return setColors(colors, null);
+        }
+
+        /**
+         * @see ConfettiManager#setColors(int[], float[])
+         */
+        public Builder setColors(int[] colors, float[] weights) {
+            checkColorWeights(colors, weights);
+            this.colors = colors != null && colors.length > 0 ? colors : null;
+            this.colorWeights = this.colors != null ? weights : null;
+            return this;
+        }
+
+        public EmitterConfig build() {
+            return new EmitterConfig(this);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import java.util.Random;
+
+/**
+ * A counter-based {@link Random}: the n-th value drawn after {@link #setSeed(long)} is a pure
+ * hash of (seed, n). This makes it cheap to replay the exact same sequence of random values for
+ * a given seed, which is what allows procedural confetti to regenerate their initial state on
+ * every frame instead of storing it.
+ */
+public class HashRandom extends Random {
+    private int seed;
+    private int counter;
+
+    public HashRandom() {
+        super(0);
+    }
+
+    /**
+     * Restart the sequence for the provided seed. Unlike {@link Random#setSeed(long)}, this is
+     * only two field writes, since the state of the base class isn't used.
+     */
+    @Override
+    public void setSeed(long seed) {
+        this.seed = (int) (seed ^ (seed >>> 32));
+        this.counter = 0;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return hash(seed, counter++) >>> (32 - bits);
+    }
+
+    /**
+     * Same polar method as {@link Random#nextGaussian()}, but without keeping the second value
+     * for the next call, which would otherwise carry over to the sequence of the next seed.
+     */
+    @Override
+    public double nextGaussian() {
+        double v1, v2, s;
+        do {
+            v1 = 2 * nextDouble() - 1;
+            v2 = 2 * nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+        return v1 * StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+    }
+
+    /**
+     * Hash the provided seed and counter into a well-distributed 32-bit value.
+     *
+     * @param seed the seed of the sequence.
+     * @param counter the index into the sequence.
+     * @return the hashed value.
+     */
+    public static int hash(int seed, int counter) {
+        // Weyl sequence step followed by the murmur3 32-bit finalizer.
+        int h = seed + counter * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,242 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A dynamic set of {@link ConfettiSource}s that a single {@link ConfettiManager} emits from, so
+ * that e.g. many touch points or many list cells can share one pool, one update loop and one
+ * draw pass instead of creating a manager each.
+ *
+ * <p>The manager's own emission is split among the sources in proportion to their weights. In
+ * addition, every source can have its own emission rate which is emitted from that source only.
+ * Sources can be added and removed while the manager is animating (on the main thread); confetti
+ * that have already been emitted from a removed source finish their animation.
+ *
+ * <p>Confetti lifetimes are estimated from the union of the sources when the animation starts,
+ * so in procedural mode sources added later should stay within that area.
+ */
+public class MultiConfettiSource extends ConfettiSource {
+    private final List<Entry> entries = new ArrayList<>();
+    private float[] cumulativeWeights = new float[0];
+    private float totalWeight;
+
+    public MultiConfettiSource() {
+        super(0, 0);
+    }
+
+    /**
+     * @see #addSource(ConfettiSource, float, float)
+     *
+     * @param source the source to emit from.
+     * @param weight the non-negative share of the manager's emission for this source.
+     * @return the multi source so that the add calls can be chained.
+     */
+    public MultiConfettiSource addSource(ConfettiSource source, float weight) {
+        return addSource(source, weight, 0f);
+    }
+
+    /**
+     * Add a source to emit from.
+     *
+     * @param source the source to emit from.
+     * @param weight the non-negative share of the manager's emission for this source.
+     * @param emissionRate the rate in # of confetti per second to emit from this source in
+     *   addition to its share of the manager's emission, or 0 for none.
+     * @return the multi source so that the add calls can be chained.
+     */
+    public MultiConfettiSource addSource(ConfettiSource source, float weight,
+            float emissionRate) {
+        if (weight < 0f || emissionRate < 0f) {
+            throw new IllegalArgumentException("weight and emissionRate must not be negative");
+        }
+        entries.add(new Entry(source, weight, emissionRate / 1000f));
+        updateWeights();
+        return this;
+    }
+
+    /**
+     * Stop emitting from the provided source.
+     *
+     * @param source the source that was previously added.
+     * @return whether the source was found and removed.
+     */
+    public boolean removeSource(ConfettiSource source) {
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).source == source) {
+                entries.remove(i);
+                updateWeights();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stop emitting from all of the sources.
+     */
+    public void clearSources() {
+        entries.clear();
+        updateWeights();
+    }
+
+    /**
+     * @return the number of sources that are currently emitting.
+     */
+    public int getNumSources() {
+        return entries.size();
+    }
+
+    private void updateWeights() {
+        final int size = entries.size();
+        if (cumulativeWeights.length < size) {
+            cumulativeWeights = new float[Math.max(size, cumulativeWeights.length * 2)];
+        }
+        totalWeight = 0f;
+        for (int i = 0; i < size; i++) {
+            totalWeight += entries.get(i).weight;
+            cumulativeWeights[i] = totalWeight;
+        }
+    }
+
+    /**
+     * @return whether any source has a positive weight, i.e. the manager's own emission has
+     *   somewhere to go.
+     */
+    boolean hasWeightedSources() {
+        return totalWeight > 0f;
+    }
+
+    ConfettiSource getSource(int index) {
+        return entries.get(index).source;
+    }
+
+    /**
+     * @return the emission rate of the source at the provided index in confetti per millisecond.
+     */
+    float getEmissionRate(int index) {
+        return entries.get(index).emissionRate;
+    }
+
+    /**
+     * Accumulate the per-source emission for the provided amount of time.
+     *
+     * @param index the index of the source.
+     * @param millis the time that passed since the last call.
+     * @return the number of confetti to emit from the source now.
+     */
+    int pollEmissions(int index, long millis) {
+        final Entry entry = entries.get(index);
+        if (entry.emissionRate <= 0f) {
+            return 0;
+        }
+        entry.emissionCarry += entry.emissionRate * millis;
+        final int numConfetti = (int) entry.emissionCarry;
+        entry.emissionCarry -= numConfetti;
+        return numConfetti;
+    }
+
+    @Override
+    protected void getInitialPosition(Random random, float[] position) {
+        final ConfettiSource source = pickSource(random);
+        if (source != null) {
+            source.getInitialPosition(random, position);
+        } else {
+            super.getInitialPosition(random, position);
+        }
+    }
+
+    /**
+     * Pick one of the sources at random in proportion to its weight, e.g. so that procedural
+     * confetti can keep replaying the source they were emitted from after the sources change.
+     *
+     * @return the picked source, or null if there are no sources.
+     */
+    ConfettiSource pickSource(Random random) {
+        final int size = entries.size();
+        if (size == 0) {
+            return null;
+        }
+
+        // Binary search for the first cumulative weight above the random value.
+        final float value = random.nextFloat() * totalWeight;
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (cumulativeWeights[mid] > value) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return entries.get(low).source;
+    }
+
+    @Override
+    protected float getMinX() {
+        float min = entries.isEmpty() ? super.getMinX() : Float.MAX_VALUE;
+        for (int i = 0; i < entries.size(); i++) {
+            min = Math.min(min, entries.get(i).source.getMinX());
+        }
+        return min;
+    }
+
+    @Override
+    protected float getMaxX() {
+        float max = entries.isEmpty() ? super.getMaxX() : -Float.MAX_VALUE;
+        for (int i = 0; i < entries.size(); i++) {
+            max = Math.max(max, entries.get(i).source.getMaxX());
+        }
+        return max;
+    }
+
+    @Override
+    protected float getMinY() {
+        float min = entries.isEmpty() ? super.getMinY() : Float.MAX_VALUE;
+        for (int i = 0; i < entries.size(); i++) {
+            min = Math.min(min, entries.get(i).source.getMinY());
+        }
+        return min;
+    }
+
+    @Override
+    protected float getMaxY() {
+        float max = entries.isEmpty() ? super.getMaxY() : -Float.MAX_VALUE;
+        for (int i = 0; i < entries.size(); i++) {
+            max = Math.max(max, entries.get(i).source.getMaxY());
+        }
+        return max;
+    }
+
+    private static class Entry {
+        final ConfettiSource source;
+        final float weight;
+        // In # of confetti per millisecond.
+        final float emissionRate;
+        float emissionCarry;
+
+        Entry(ConfettiSource source, float weight, float emissionRate) {
+            this.source = source;
+            this.weight = weight;
+            this.emissionRate = emissionRate;
+        }
+    }
+}
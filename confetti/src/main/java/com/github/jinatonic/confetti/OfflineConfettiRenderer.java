@@ -0,0 +1,454 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+
+import com.github.jinatonic.confetti.confetto.Confetto;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders the animation configured on a {@link ConfettiManager} into a sequence of frames
+ * without a view or an animator, e.g. to export the exact same confetti as the app to PNG
+ * sequences.
+ *
+ * <p>Every confetto is stored the same way as in procedural mode: a spawn time and a seed that
+ * is replayed into a template confetto. Since the confetto motion is closed-form in time, every
+ * frame is independent of the others and the frames are rendered in parallel on a worker pool,
+ * each worker with its own bitmap and templates. The frames are handed to a {@link FrameSink}
+ * as soon as they are rendered, so they can be written to disk incrementally.
+ *
+ * <p>The emission is simulated at the output frame rate with the fractional confetti carried
+ * over between frames, like {@link ConfettiManager#setFixedTimestep(int)} does, so the result
+ * only depends on the seed and the frame rate, never on the number of threads or the order in
+ * which the frames are rendered. The default emission of a live manager picks a random number
+ * of confetti on every frame instead, so the two only match on average.
+ *
+ * <p>The confetti are drawn through a fixed set of template confetti created by the
+ * {@link ConfettoGenerator}, like in procedural mode. The number of templates is the one passed
+ * to {@link ConfettiManager#enableProceduralMode(int)} if set, or {@link #DEFAULT_NUM_TEMPLATES}
+ * otherwise, so a generator that produces more distinct confetti than that loses some of its
+ * variety compared to the live manager, which generates every confetto on its own.
+ *
+ * <p>Force fields, collisions, sub-emitters and trails depend on the history of the animation
+ * rather than on time alone and are not supported. Power saving is ignored and the frames are
+ * always rendered at full quality. The frames are drawn with {@link Bitmap} and {@link Canvas},
+ * so rendering needs the Android runtime, or Robolectric on a plain JVM.
+ */
+public class OfflineConfettiRenderer {
+    /**
+     * The number of template confetti used if the manager isn't in procedural mode, enough for
+     * the typical generator that picks among a few bitmaps and colors.
+     */
+    public static final int DEFAULT_NUM_TEMPLATES = 64;
+
+    private final ConfettiManager confettiManager;
+    private final int width, height;
+    private long seed;
+    private int frameRate = 60;
+    private int numThreads = Runtime.getRuntime().availableProcessors();
+    private Rect viewport;
+
+    /**
+     * @param confettiManager the manager whose configuration to render. Its configuration is
+     *   captured when {@link #render(int, int, FrameSink)} is called and the manager itself does
+     *   not need to be animating.
+     * @param width the width of the rendered frames in pixels.
+     * @param height the height of the rendered frames in pixels.
+     */
+    public OfflineConfettiRenderer(ConfettiManager confettiManager, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("width and height must be positive");
+        }
+        this.confettiManager = confettiManager;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Sets the seed of the rendered animation. The same seed always renders the same frames.
+     *
+     * @param seed the seed of the animation.
+     * @return the renderer so that the set calls can be chained.
+     */
+    public OfflineConfettiRenderer setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * @param frameRate the number of frames per second of animation, defaults to 60.
+     * @return the renderer so that the set calls can be chained.
+     */
+    public OfflineConfettiRenderer setFrameRate(int frameRate) {
+        if (frameRate <= 0) {
+            throw new IllegalArgumentException("frameRate must be positive");
+        }
+        this.frameRate = frameRate;
+        return this;
+    }
+
+    /**
+     * @param numThreads the number of worker threads to render with, defaults to the number of
+     *   available processors.
+     * @return the renderer so that the set calls can be chained.
+     */
+    public OfflineConfettiRenderer setNumThreads(int numThreads) {
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("numThreads must be positive");
+        }
+        this.numThreads = numThreads;
+        return this;
+    }
+
+    /**
+     * Sets the area of the manager's coordinate space to render. The area is scaled uniformly to
+     * fit the frames and centered. Defaults to the manager's bound.
+     *
+     * @param viewport the area to render, or null to render the manager's bound.
+     * @return the renderer so that the set calls can be chained.
+     */
+    public OfflineConfettiRenderer setViewport(Rect viewport) {
+        this.viewport = viewport;
+        return this;
+    }
+
+    /**
+     * @param frame the index of a frame.
+     * @return the animation time of the provided frame in milliseconds.
+     */
+    public long getFrameTime(int frame) {
+        return frame * 1000L / frameRate;
+    }
+
+    /**
+     * Render the frames in the range [startFrame, endFrame) and block until all of them have
+     * been handed to the sink. Frame 0 is the start of the animation.
+     *
+     * @param startFrame the index of the first frame to render.
+     * @param endFrame the index after the last frame to render.
+     * @param sink the sink that receives the frames. It is called from the worker threads
+     *   concurrently and in no particular order.
+     * @throws IOException if the sink failed to consume a frame.
+     * @throws IllegalArgumentException if the manager has force fields, a collider,
+     *   sub-emitters or trails, which can't be rendered offline.
+     */
+    public void render(int startFrame, int endFrame, FrameSink sink) throws IOException {
+        if (startFrame < 0 || endFrame < startFrame) {
+            throw new IllegalArgumentException("Invalid frame range");
+        }
+        if (confettiManager.hasStatefulEffects()) {
+            throw new IllegalArgumentException("Force fields, collisions, sub-emitters and "
+                    + "trails can't be rendered offline");
+        }
+        if (startFrame == endFrame) {
+            return;
+        }
+
+        final Schedule schedule = new Schedule(getFrameTime(endFrame - 1));
+        final Random templateRandom = new Random(seed);
+        final int numTemplates = confettiManager.getNumProceduralTemplates() > 0
+                ? confettiManager.getNumProceduralTemplates() : DEFAULT_NUM_TEMPLATES;
+        final List<Confetto[]> workerTemplates = new ArrayList<>(numThreads);
+        int largestWidth = 0, largestHeight = 0;
+        for (int i = 0; i < numThreads; i++) {
+            // Same seed for every worker so that all of them pick identical templates.
+            templateRandom.setSeed(seed);
+            final Confetto[] templates = new Confetto[numTemplates];
+            for (int j = 0; j < numTemplates; j++) {
+                templates[j] = confettiManager.getConfettoGenerator()
+                        .generateConfetto(templateRandom);
+                largestWidth = Math.max(largestWidth, templates[j].getWidth());
+                largestHeight = Math.max(largestHeight, templates[j].getHeight());
+            }
+            workerTemplates.add(templates);
+        }
+        final long maxLifetime = confettiManager.computeMaxLifetime(largestWidth, largestHeight);
+        final EmitterConfig emitterConfig = confettiManager.getEmitterConfig();
+
+        final AtomicInteger nextFrame = new AtomicInteger(startFrame);
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            final List<Future<Void>> futures = new ArrayList<>(numThreads);
+            for (int i = 0; i < numThreads; i++) {
+                futures.add(executor.submit(new Worker(schedule, workerTemplates.get(i),
+                        emitterConfig, maxLifetime, nextFrame, endFrame, sink)));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while rendering");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Receives the rendered frames.
+     */
+    public interface FrameSink {
+        /**
+         * Called on a worker thread with a rendered frame. The bitmap is re-used for the next
+         * frame that the worker renders once this method returns.
+         *
+         * @param frame the index of the frame.
+         * @param bitmap the rendered frame.
+         * @throws IOException if the frame could not be consumed, which stops the rendering.
+         */
+        void onFrameRendered(int frame, Bitmap bitmap) throws IOException;
+    }
+
+    /**
+     * @param directory the directory to write the frames to, which must exist.
+     * @return a sink that writes every frame to the directory as frame_00000.png, etc.
+     */
+    public static FrameSink pngSink(final File directory) {
+        return new FrameSink() {
+            @Override
+            public void onFrameRendered(int frame, Bitmap bitmap) throws IOException {
+                final OutputStream out = openFrame(directory, frame, "png");
+                try {
+                    if (!bitmap.compress(Bitmap.CompressFormat.PNG, 100, out)) {
+                        throw new IOException("Failed to encode frame " + frame);
+                    }
+                } finally {
+                    out.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * @param directory the directory to write the frames to, which must exist.
+     * @return a sink that writes the raw premultiplied RGBA bytes of every frame to the
+     *   directory as frame_00000.rgba, etc.
+     */
+    public static FrameSink rgbaSink(final File directory) {
+        return new FrameSink() {
+            private final ThreadLocal<ByteBuffer> buffers = new ThreadLocal<>();
+
+            @Override
+            public void onFrameRendered(int frame, Bitmap bitmap) throws IOException {
+                ByteBuffer buffer = buffers.get();
+                if (buffer == null || buffer.capacity() != bitmap.getByteCount()) {
+                    buffer = ByteBuffer.allocate(bitmap.getByteCount());
+                    buffers.set(buffer);
+                }
+                buffer.clear();
+                bitmap.copyPixelsToBuffer(buffer);
+
+                final OutputStream out = openFrame(directory, frame, "rgba");
+                try {
+                    out.write(buffer.array(), 0, buffer.position());
+                } finally {
+                    out.close();
+                }
+            }
+        };
+    }
+
+    private static OutputStream openFrame(File directory, int frame, String extension)
+            throws IOException {
+        final String name = String.format(Locale.US, "frame_%05d.%s", frame, extension);
+        return new BufferedOutputStream(new FileOutputStream(new File(directory, name)));
+    }
+
+    /**
+     * The spawn time, seed and source of every confetto emitted until the last frame, in
+     * emission order. Built once on the calling thread and only read by the workers.
+     */
+    private class Schedule {
+        long[] spawnTimes = new long[64];
+        int[] seeds = new int[spawnTimes.length];
+        ConfettiSource[] sources = new ConfettiSource[spawnTimes.length];
+        int size;
+
+        Schedule(long endTime) {
+            final ConfettiSource source = confettiManager.getConfettiSource();
+            final MultiConfettiSource multiSource = source instanceof MultiConfettiSource
+                    ? (MultiConfettiSource) source : null;
+            final boolean hasMainEmission =
+                    multiSource == null || multiSource.hasWeightedSources();
+            final long emissionDuration = confettiManager.getEmissionDuration();
+            final double emissionRate = confettiManager.getEmissionRate();
+            final double[] sourceCarries =
+                    new double[multiSource != null ? multiSource.getNumSources() : 0];
+
+            if (hasMainEmission) {
+                add(0, confettiManager.getNumInitialCount(), source);
+            }
+            double carry = 0;
+            for (int frame = 1; getFrameTime(frame) <= endTime; frame++) {
+                final long time = getFrameTime(frame);
+                if (time >= emissionDuration) {
+                    break;
+                }
+                final long millis = time - getFrameTime(frame - 1);
+                for (int i = 0; i < sourceCarries.length; i++) {
+                    sourceCarries[i] += (double) multiSource.getEmissionRate(i) * millis;
+                    final int count = (int) sourceCarries[i];
+                    sourceCarries[i] -= count;
+                    add(time, count, multiSource.getSource(i));
+                }
+                if (hasMainEmission) {
+                    carry += emissionRate * millis;
+                    final int count = (int) carry;
+                    carry -= count;
+                    add(time, count, source);
+                }
+            }
+        }
+
+        private void add(long time, int count, ConfettiSource source) {
+            if (size + count > spawnTimes.length) {
+                final int capacity = Math.max(size + count, spawnTimes.length * 2);
+                spawnTimes = Arrays.copyOf(spawnTimes, capacity);
+                seeds = Arrays.copyOf(seeds, capacity);
+                sources = Arrays.copyOf(sources, capacity);
+            }
+            for (int i = 0; i < count; i++) {
+                spawnTimes[size] = time;
+                seeds[size] = HashRandom.hash((int) (seed ^ (seed >>> 32)), size);
+                sources[size] = source;
+                size++;
+            }
+        }
+
+        /**
+         * @return the index of the first confetto spawned at or after the provided time.
+         */
+        int indexOf(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (spawnTimes[mid] < time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private class Worker implements Callable<Void> {
+        private final Schedule schedule;
+        private final Confetto[] templates;
+        private final EmitterConfig emitterConfig;
+        private final long maxLifetime;
+        private final AtomicInteger nextFrame;
+        private final int endFrame;
+        private final FrameSink sink;
+        private final HashRandom random = new HashRandom();
+        private final float[] position = new float[2];
+
+        Worker(Schedule schedule, Confetto[] templates, EmitterConfig emitterConfig,
+                long maxLifetime, AtomicInteger nextFrame, int endFrame, FrameSink sink) {
+            this.schedule = schedule;
+            this.templates = templates;
+            this.emitterConfig = emitterConfig;
+            this.maxLifetime = maxLifetime;
+            this.nextFrame = nextFrame;
+            this.endFrame = endFrame;
+            this.sink = sink;
+        }
+
+        @Override
+        public Void call() throws IOException {
+            final Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            final Canvas canvas = new Canvas(bitmap);
+            final Rect bound = confettiManager.getBound();
+            final Rect area = viewport != null ? viewport : bound;
+            final float scale = Math.min((float) width / area.width(),
+                    (float) height / area.height());
+
+            int frame;
+            while ((frame = nextFrame.getAndIncrement()) < endFrame) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedIOException("Interrupted while rendering");
+                }
+                final long time = getFrameTime(frame);
+                bitmap.eraseColor(Color.TRANSPARENT);
+                canvas.save();
+                canvas.translate((width - area.width() * scale) / 2f,
+                        (height - area.height() * scale) / 2f);
+                canvas.scale(scale, scale);
+                canvas.translate(-area.left, -area.top);
+
+                final int start = maxLifetime < time
+                        ? schedule.indexOf(time - maxLifetime) : 0;
+                final int end = schedule.indexOf(time + 1);
+                for (int i = start; i < end; i++) {
+                    final Confetto confetto = regenerate(schedule.seeds[i],
+                            schedule.spawnTimes[i], schedule.sources[i], bound);
+                    if (confetto.applyUpdate(time)) {
+                        confetto.draw(canvas);
+                    }
+                }
+                canvas.restore();
+                sink.onFrameRendered(frame, bitmap);
+            }
+            return null;
+        }
+
+        private Confetto regenerate(int seed, long spawnTime, ConfettiSource source,
+                Rect bound) {
+            random.setSeed(seed);
+            final Confetto confetto = templates[random.nextInt(templates.length)];
+            confetto.reset();
+            confetto.setInitialDelay(spawnTime);
+            source.getInitialPosition(random, position);
+            confetto.setInitialX(position[0]);
+            confetto.setInitialY(position[1]);
+            emitterConfig.apply(confetto, random);
+            confetto.prepare(bound);
+            return confetto;
+        }
+    }
+}
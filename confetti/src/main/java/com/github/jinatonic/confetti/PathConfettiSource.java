@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Region;
+import android.graphics.RegionIterator;
+
+import java.util.Random;
+
+/**
+ * A confetti source that emits uniformly from the area of an arbitrary {@link Path}. The path is
+ * rasterized once into a {@link Region}, i.e. a set of non-overlapping rectangles, after which
+ * every confetto picks a rectangle in proportion to its area in constant time.
+ */
+public class PathConfettiSource extends ConfettiSource {
+    // Four coordinates (left, top, right, bottom) per rectangle.
+    private final int[] rects;
+    private final AliasTable rectTable;
+
+    /**
+     * @param path the filled area to emit from, relative to the {@link ConfettiView}'s parent.
+     */
+    public PathConfettiSource(Path path) {
+        this(path, computeBounds(path));
+    }
+
+    private PathConfettiSource(Path path, Rect bounds) {
+        super(bounds.left, bounds.top, bounds.right, bounds.bottom);
+
+        final Region region = new Region();
+        region.setPath(path, new Region(bounds));
+        int numRects = 0;
+        final Rect rect = new Rect();
+        RegionIterator iterator = new RegionIterator(region);
+        while (iterator.next(rect)) {
+            numRects++;
+        }
+        if (numRects == 0) {
+            throw new IllegalArgumentException("path must not be empty");
+        }
+
+        this.rects = new int[numRects * 4];
+        final float[] areas = new float[numRects];
+        iterator = new RegionIterator(region);
+        for (int i = 0; iterator.next(rect); i++) {
+            rects[i * 4] = rect.left;
+            rects[i * 4 + 1] = rect.top;
+            rects[i * 4 + 2] = rect.right;
+            rects[i * 4 + 3] = rect.bottom;
+            areas[i] = (float) rect.width() * rect.height();
+        }
+        this.rectTable = new AliasTable(areas);
+    }
+
+    private static Rect computeBounds(Path path) {
+        final RectF bounds = new RectF();
+        path.computeBounds(bounds, true);
+        final Rect roundedBounds = new Rect();
+        bounds.roundOut(roundedBounds);
+        return roundedBounds;
+    }
+
+    @Override
+    protected void getInitialPosition(Random random, float[] position) {
+        final int r = rectTable.sample(random) * 4;
+        position[0] = rects[r] + (rects[r + 2] - rects[r]) * random.nextFloat();
+        position[1] = rects[r + 1] + (rects[r + 3] - rects[r + 1]) * random.nextFloat();
+    }
+}
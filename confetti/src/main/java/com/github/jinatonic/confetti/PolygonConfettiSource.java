@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import java.util.Random;
+
+/**
+ * A confetti source that emits uniformly from the area of a simple (non self-intersecting)
+ * polygon, convex or not. The polygon is triangulated once up front, after which every confetto
+ * picks a triangle in proportion to its area in constant time.
+ */
+public class PolygonConfettiSource extends ConfettiSource {
+    // Six coordinates per triangle.
+    private final float[] triangles;
+    private final AliasTable triangleTable;
+
+    /**
+     * @param points the x and y coordinates of the polygon vertices in order, e.g.
+     *   {x0, y0, x1, y1, x2, y2}, relative to the {@link ConfettiView}'s parent.
+     */
+    public PolygonConfettiSource(float[] points) {
+        super(getBound(points, 0, true), getBound(points, 1, true),
+                getBound(points, 0, false), getBound(points, 1, false));
+        if (points.length < 6 || points.length % 2 != 0) {
+            throw new IllegalArgumentException("Expected at least 3 vertices");
+        }
+        this.triangles = triangulate(points);
+        final float[] areas = new float[triangles.length / 6];
+        for (int i = 0; i < areas.length; i++) {
+            final int t = i * 6;
+            areas[i] = Math.abs(cross(triangles[t], triangles[t + 1], triangles[t + 2],
+                    triangles[t + 3], triangles[t + 4], triangles[t + 5]));
+        }
+        this.triangleTable = new AliasTable(areas);
+    }
+
+    private static int getBound(float[] points, int offset, boolean min) {
+        float bound = min ? Float.MAX_VALUE : -Float.MAX_VALUE;
+        for (int i = offset; i < points.length; i += 2) {
+            bound = min ? Math.min(bound, points[i]) : Math.max(bound, points[i]);
+        }
+        return (int) (min ? Math.floor(bound) : Math.ceil(bound));
+    }
+
+    private static float cross(float ax, float ay, float bx, float by, float cx, float cy) {
+        return (bx - ax) * (cy - ay) - (by - ay) * (cx - ax);
+    }
+
+    // Visible for testing
+    static float[] triangulate(float[] points) {
+        final int n = points.length / 2;
+        final int[] indices = new int[n];
+        float signedArea = 0f;
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+            final int j = (i + 1) % n;
+            signedArea += points[i * 2] * points[j * 2 + 1] - points[j * 2] * points[i * 2 + 1];
+        }
+        final float orientation = signedArea >= 0 ? 1f : -1f;
+
+        // Ear clipping: repeatedly cut off a convex vertex whose triangle contains no other
+        // vertex. This is O(n^2) but only runs once per source.
+        final float[] triangles = new float[(n - 2) * 6];
+        int numTriangles = 0;
+        int remaining = n;
+        int current = 0;
+        int attempts = 0;
+        while (remaining > 3 && attempts < remaining) {
+            final int prev = indices[(current + remaining - 1) % remaining];
+            final int curr = indices[current];
+            final int next = indices[(current + 1) % remaining];
+            if (isEar(points, indices, remaining, prev, curr, next, orientation)) {
+                numTriangles = addTriangle(triangles, numTriangles, points, prev, curr, next);
+                System.arraycopy(indices, current + 1, indices, current, remaining - current - 1);
+                remaining--;
+                current %= remaining;
+                attempts = 0;
+            } else {
+                current = (current + 1) % remaining;
+                attempts++;
+            }
+        }
+        // Either the last triangle, or a degenerate polygon for which we fall back to a fan.
+        for (int i = 1; i < remaining - 1; i++) {
+            numTriangles = addTriangle(triangles, numTriangles, points,
+                    indices[0], indices[i], indices[i + 1]);
+        }
+        return triangles;
+    }
+
+    private static boolean isEar(float[] points, int[] indices, int remaining, int prev,
+            int curr, int next, float orientation) {
+        final float ax = points[prev * 2], ay = points[prev * 2 + 1];
+        final float bx = points[curr * 2], by = points[curr * 2 + 1];
+        final float cx = points[next * 2], cy = points[next * 2 + 1];
+        if (cross(ax, ay, bx, by, cx, cy) * orientation <= 0) {
+            // Reflex or degenerate vertex.
+            return false;
+        }
+        for (int i = 0; i < remaining; i++) {
+            final int index = indices[i];
+            if (index == prev || index == curr || index == next) {
+                continue;
+            }
+            final float px = points[index * 2], py = points[index * 2 + 1];
+            if (cross(ax, ay, bx, by, px, py) * orientation >= 0
+                    && cross(bx, by, cx, cy, px, py) * orientation >= 0
+                    && cross(cx, cy, ax, ay, px, py) * orientation >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int addTriangle(float[] triangles, int numTriangles, float[] points, int a,
+            int b, int c) {
+        final int t = numTriangles * 6;
+        triangles[t] = points[a * 2];
+        triangles[t + 1] = points[a * 2 + 1];
+        triangles[t + 2] = points[b * 2];
+        triangles[t + 3] = points[b * 2 + 1];
+        triangles[t + 4] = points[c * 2];
+        triangles[t + 5] = points[c * 2 + 1];
+        return numTriangles + 1;
+    }
+
+    @Override
+    protected void getInitialPosition(Random random, float[] position) {
+        final int t = triangleTable.sample(random) * 6;
+        float u = random.nextFloat();
+        float v = random.nextFloat();
+        if (u + v > 1f) {
+            // Fold the point back into the triangle.
+            u = 1f - u;
+            v = 1f - v;
+        }
+        position[0] = triangles[t]
+                + u * (triangles[t + 2] - triangles[t]) + v * (triangles[t + 4] - triangles[t]);
+        position[1] = triangles[t + 1] + u * (triangles[t + 3] - triangles[t + 1])
+                + v * (triangles[t + 5] - triangles[t + 1]);
+    }
+}
@@ -0,0 +1,209 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+
+import com.github.jinatonic.confetti.confetto.CirclePointBatch;
+import com.github.jinatonic.confetti.confetto.Confetto;
+
+/**
+ * Stateless storage for confetti emitted in procedural mode. Each confetto is only a spawn
+ * timestamp, a 32-bit seed, the source it was emitted from and the time it takes to reach the
+ * bound (20 bytes). Because the confetto motion is closed-form, the full initial state is
+ * regenerated on every draw by replaying the seed through a {@link HashRandom} into one of a
+ * small set of shared template {@link Confetto} objects. The time to reach the bound is solved
+ * for on the first draw only, later draws use {@link Confetto#prepareForReplay(Rect, float)}.
+ *
+ * @see ConfettiManager#enableProceduralMode(int)
+ */
+public class ProceduralConfetti {
+    // Sentinel spawn time for confetti that have been found to be terminated during draw.
+    private static final long TERMINATED = Long.MIN_VALUE;
+    // Time to reach the bound of confetti that have yet to be drawn.
+    private static final float UNSOLVED = -1f;
+
+    private final ConfettiManager confettiManager;
+    private final Rect bound;
+    private final Confetto[] templates;
+    private final HashRandom random = new HashRandom();
+
+    private long[] spawnTimes;
+    private int[] seeds;
+    // The source each confetto was emitted from, for multi-source emitters.
+    private ConfettiSource[] sources;
+    private float[] millisToReachBound;
+    private int size;
+    private long renderTime;
+
+    ProceduralConfetti(ConfettiManager confettiManager, Rect bound, Confetto[] templates,
+            int initialCapacity) {
+        this.confettiManager = confettiManager;
+        this.bound = bound;
+        this.templates = templates;
+        this.spawnTimes = new long[Math.max(1, initialCapacity)];
+        this.seeds = new int[spawnTimes.length];
+        this.sources = new ConfettiSource[spawnTimes.length];
+        this.millisToReachBound = new float[spawnTimes.length];
+    }
+
+    /**
+     * @return the number of procedural confetti that are currently alive.
+     */
+    public int size() {
+        return size;
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity > spawnTimes.length) {
+            resize(capacity);
+        }
+    }
+
+    private void resize(int capacity) {
+        final long[] newSpawnTimes = new long[capacity];
+        final int[] newSeeds = new int[capacity];
+        final ConfettiSource[] newSources = new ConfettiSource[capacity];
+        final float[] newMillisToReachBound = new float[capacity];
+        System.arraycopy(spawnTimes, 0, newSpawnTimes, 0, size);
+        System.arraycopy(seeds, 0, newSeeds, 0, size);
+        System.arraycopy(sources, 0, newSources, 0, size);
+        System.arraycopy(millisToReachBound, 0, newMillisToReachBound, 0, size);
+        spawnTimes = newSpawnTimes;
+        seeds = newSeeds;
+        sources = newSources;
+        millisToReachBound = newMillisToReachBound;
+    }
+
+    void add(long spawnTime, int seed, ConfettiSource source) {
+        if (size == spawnTimes.length) {
+            ensureCapacity(size * 2);
+        }
+        spawnTimes[size] = spawnTime;
+        seeds[size] = seed;
+        sources[size] = source;
+        millisToReachBound[size] = UNSOLVED;
+        size++;
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            sources[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Shrink the backing arrays to the current size.
+     *
+     * @return the approximate number of bytes released.
+     */
+    long trimToSize() {
+        final int newCapacity = Math.max(1, size);
+        if (newCapacity >= spawnTimes.length) {
+            return 0;
+        }
+        final long released = (long) (spawnTimes.length - newCapacity)
+                * ConfettiManager.PROCEDURAL_CONFETTO_BYTES;
+        resize(newCapacity);
+        return released;
+    }
+
+    /**
+     * Advance the procedural confetti to the provided time and drop the ones that are no longer
+     * animating, either because a previous draw found them terminated or because they have
+     * outlived the longest possible confetto lifetime.
+     *
+     * @return the number of confetti that were dropped.
+     */
+    int update(long elapsedTime, long maxLifetime) {
+        renderTime = elapsedTime;
+
+        int numAlive = 0;
+        for (int i = 0; i < size; i++) {
+            final long spawnTime = spawnTimes[i];
+            if (spawnTime != TERMINATED && elapsedTime - spawnTime <= maxLifetime) {
+                spawnTimes[numAlive] = spawnTime;
+                seeds[numAlive] = seeds[i];
+                sources[numAlive] = sources[i];
+                millisToReachBound[numAlive] = millisToReachBound[i];
+                numAlive++;
+            }
+        }
+        for (int i = numAlive; i < size; i++) {
+            sources[i] = null;
+        }
+        final int numExpired = size - numAlive;
+        size = numAlive;
+        return numExpired;
+    }
+
+    /**
+     * Sets the time at which the confetti are drawn if it differs from the last update, e.g.
+     * when interpolating between fixed simulation steps. Since the state is regenerated on every
+     * draw anyway, this is exact rather than interpolated.
+     */
+    void setRenderTime(long renderTime) {
+        this.renderTime = renderTime;
+    }
+
+    /**
+     * @see Confetto#offsetTime(long)
+     */
+    void offsetTime(long delta) {
+        for (int i = 0; i < size; i++) {
+            if (spawnTimes[i] != TERMINATED) {
+                spawnTimes[i] -= delta;
+            }
+        }
+        renderTime -= delta;
+    }
+
+    void draw(Canvas canvas, CirclePointBatch pointBatch) {
+        for (int i = 0; i < size; i++) {
+            final long spawnTime = spawnTimes[i];
+            if (spawnTime == TERMINATED) {
+                continue;
+            }
+
+            final Confetto confetto = regenerate(i);
+            if (confetto.applyUpdate(renderTime)) {
+                // The batch copies the draw state right away so the template can be re-used.
+                if (pointBatch == null || !pointBatch.add(confetto)) {
+                    confetto.draw(canvas);
+                }
+            } else {
+                spawnTimes[i] = TERMINATED;
+            }
+        }
+    }
+
+    private Confetto regenerate(int index) {
+        random.setSeed(seeds[index]);
+        final Confetto confetto = templates[random.nextInt(templates.length)];
+        confetto.reset();
+        confettiManager.configureConfetto(confetto, sources[index], random, spawnTimes[index]);
+        if (millisToReachBound[index] == UNSOLVED) {
+            confetto.prepare(bound);
+            millisToReachBound[index] = confetto.getMillisToReachBound();
+        } else {
+            confetto.prepareForReplay(bound, millisToReachBound[index]);
+        }
+        return confetto;
+    }
+}
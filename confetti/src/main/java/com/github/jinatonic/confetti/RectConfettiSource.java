@@ -0,0 +1,44 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import android.graphics.Rect;
+
+import java.util.Random;
+
+/**
+ * A confetti source that emits uniformly from the area of a rectangle.
+ */
+public class RectConfettiSource extends ConfettiSource {
+
+    /**
+     * @param rect the rectangle relative to the {@link ConfettiView}'s parent.
+     */
+    public RectConfettiSource(Rect rect) {
+        this(rect.left, rect.top, rect.right, rect.bottom);
+    }
+
+    public RectConfettiSource(int left, int top, int right, int bottom) {
+        super(left, top, right, bottom);
+    }
+
+    @Override
+    protected void getInitialPosition(Random random, float[] position) {
+        position[0] = x0 + (x1 - x0) * random.nextFloat();
+        position[1] = y0 + (y1 - y0) * random.nextFloat();
+    }
+}
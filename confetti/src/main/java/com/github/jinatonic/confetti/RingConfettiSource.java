@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import java.util.Random;
+
+/**
+ * A confetti source that emits uniformly from the area of a ring (or a disc if the inner radius
+ * is 0).
+ */
+public class RingConfettiSource extends ConfettiSource {
+    private final int centerX, centerY;
+    private final float innerRadiusSquared, radiusSquaredRange;
+
+    /**
+     * @param centerX x-coordinate of the center relative to the {@link ConfettiView}'s parent.
+     * @param centerY y-coordinate of the center relative to the {@link ConfettiView}'s parent.
+     * @param innerRadius the inner radius of the ring.
+     * @param outerRadius the outer radius of the ring.
+     */
+    public RingConfettiSource(int centerX, int centerY, int innerRadius, int outerRadius) {
+        super(centerX - outerRadius, centerY - outerRadius,
+                centerX + outerRadius, centerY + outerRadius);
+        if (innerRadius < 0 || outerRadius < innerRadius) {
+            throw new IllegalArgumentException("Expected 0 <= innerRadius <= outerRadius");
+        }
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.innerRadiusSquared = (float) innerRadius * innerRadius;
+        this.radiusSquaredRange = (float) outerRadius * outerRadius - innerRadiusSquared;
+    }
+
+    @Override
+    protected void getInitialPosition(Random random, float[] position) {
+        // Sampling the squared radius uniformly spreads the confetti evenly over the area
+        // instead of bunching them up towards the center.
+        final double radius =
+                Math.sqrt(innerRadiusSquared + radiusSquaredRange * random.nextFloat());
+        final double angle = 2 * Math.PI * random.nextFloat();
+        position[0] = (float) (centerX + radius * Math.cos(angle));
+        position[1] = (float) (centerY + radius * Math.sin(angle));
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import com.github.jinatonic.confetti.confetto.Confetto;
+
+import java.util.Arrays;
+
+/**
+ * Emits a burst of child confetti from the position of a parent confetto when a trigger
+ * fires, e.g. to explode a rocket confetto into fireworks where it dies. The children are taken
+ * from the same pool, live set and draw pass as the confetti of the {@link ConfettiManager} that
+ * the sub-emitter is added to, so a burst costs no more than emitting the same confetti
+ * directly.
+ *
+ * <p>Children can trigger sub-emitters themselves, which is bounded by
+ * {@link #setMaxGeneration(int)} and by
+ * {@link ConfettiManager#setMaxSubEmitterSpawnsPerFrame(int)}. Sub-emitters only apply to
+ * non-procedural confetti.
+ *
+ * @see ConfettiManager#addSubEmitter(SubEmitter)
+ */
+public class SubEmitter {
+    /**
+     * Triggers when the parent confetto's TTL expires.
+     */
+    public static final int TRIGGER_DEATH = 0;
+    /**
+     * Triggers when the parent confetto reaches the manager's bound.
+     */
+    public static final int TRIGGER_BOUND_HIT = 1;
+    /**
+     * Triggers when the parent confetto has been animating for the configured time offset.
+     */
+    public static final int TRIGGER_TIME_OFFSET = 2;
+
+    final int trigger;
+    final long timeOffset;
+    final int numConfetti;
+    final EmitterConfig emitterConfig;
+    int maxGeneration = 1;
+
+    // Bursts that triggered during the current update, spawned once the update is done.
+    float[] pendingX = new float[8];
+    float[] pendingY = new float[8];
+    int[] pendingGeneration = new int[8];
+    int numPending;
+
+    private SubEmitter(int trigger, long timeOffset, int numConfetti,
+            EmitterConfig emitterConfig) {
+        if (numConfetti < 0) {
+            throw new IllegalArgumentException("numConfetti must not be negative");
+        }
+        this.trigger = trigger;
+        this.timeOffset = timeOffset;
+        this.numConfetti = numConfetti;
+        this.emitterConfig = emitterConfig;
+    }
+
+    /**
+     * @param numConfetti the number of child confetti in every burst.
+     * @param emitterConfig the per-confetto parameters of the child confetti.
+     * @return a sub-emitter that bursts where a confetto's TTL expires.
+     */
+    public static SubEmitter onDeath(int numConfetti, EmitterConfig emitterConfig) {
+        return new SubEmitter(TRIGGER_DEATH, 0, numConfetti, emitterConfig);
+    }
+
+    /**
+     * @param numConfetti the number of child confetti in every burst.
+     * @param emitterConfig the per-confetto parameters of the child confetti.
+     * @return a sub-emitter that bursts where a confetto reaches the bound.
+     */
+    public static SubEmitter onBoundHit(int numConfetti, EmitterConfig emitterConfig) {
+        return new SubEmitter(TRIGGER_BOUND_HIT, 0, numConfetti, emitterConfig);
+    }
+
+    /**
+     * @param timeOffsetInMillis how long after a confetto starts animating to burst.
+     * @param numConfetti the number of child confetti in every burst.
+     * @param emitterConfig the per-confetto parameters of the child confetti.
+     * @return a sub-emitter that bursts from wherever a confetto is at the time offset.
+     */
+    public static SubEmitter atTimeOffset(long timeOffsetInMillis, int numConfetti,
+            EmitterConfig emitterConfig) {
+        if (timeOffsetInMillis < 0) {
+            throw new IllegalArgumentException("timeOffsetInMillis must not be negative");
+        }
+        return new SubEmitter(TRIGGER_TIME_OFFSET, timeOffsetInMillis, numConfetti,
+                emitterConfig);
+    }
+
+    /**
+     * Sets which confetti can trigger this sub-emitter. The confetti emitted by the manager are
+     * generation 0 and the children of a generation n confetto are generation n + 1. Defaults
+     * to 1, i.e. only the confetti emitted by the manager trigger bursts.
+     *
+     * @param maxGeneration the number of generations that can trigger this sub-emitter.
+     * @return the sub-emitter so that the set calls can be chained.
+     */
+    public SubEmitter setMaxGeneration(int maxGeneration) {
+        this.maxGeneration = maxGeneration;
+        return this;
+    }
+
+    /**
+     * @return one of {@link #TRIGGER_DEATH}, {@link #TRIGGER_BOUND_HIT} or
+     *   {@link #TRIGGER_TIME_OFFSET}.
+     */
+    public int getTrigger() {
+        return trigger;
+    }
+
+    /**
+     * Check whether the provided confetto triggers this sub-emitter during the current update
+     * and queue a burst at its center if so.
+     *
+     * @param confetto the confetto that was just updated.
+     * @param alive whether the confetto is still animating after the update.
+     * @param millisSinceLastUpdate the time since the confetto's previous update.
+     */
+    void onConfettoUpdated(Confetto confetto, boolean alive, long millisSinceLastUpdate) {
+        if (confetto.getGeneration() >= maxGeneration) {
+            return;
+        }
+
+        final boolean triggered;
+        switch (trigger) {
+            case TRIGGER_DEATH:
+                triggered = !alive && !confetto.endsAtBound();
+                break;
+            case TRIGGER_BOUND_HIT:
+                triggered = !alive && confetto.endsAtBound();
+                break;
+            default:
+                final long animatedTime = confetto.getAnimatedTime();
+                triggered = animatedTime >= timeOffset
+                        && animatedTime - millisSinceLastUpdate < timeOffset;
+                break;
+        }
+        if (triggered) {
+            queue(confetto.getCurrentX() + confetto.getWidth() / 2f,
+                    confetto.getCurrentY() + confetto.getHeight() / 2f,
+                    confetto.getGeneration() + 1);
+        }
+    }
+
+    private void queue(float x, float y, int generation) {
+        if (numPending == pendingX.length) {
+            final int capacity = numPending * 2;
+            pendingX = Arrays.copyOf(pendingX, capacity);
+            pendingY = Arrays.copyOf(pendingY, capacity);
+            pendingGeneration = Arrays.copyOf(pendingGeneration, capacity);
+        }
+        pendingX[numPending] = x;
+        pendingY[numPending] = y;
+        pendingGeneration[numPending] = generation;
+        numPending++;
+    }
+}
@@ -18,6 +18,7 @@ package com.github.jinatonic.confetti;
 
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Path;
 import android.view.animation.Interpolator;
@@ -54,8 +55,49 @@ public class Utils {
         return bitmaps;
     }
 
+    /**
+     * Generate one {@link Bitmap.Config#ALPHA_8} mask for each of the default confetti shapes.
+     * Masks are colorless, the color is applied at draw time through the paint (see
+     * {@link com.github.jinatonic.confetti.confetto.MaskConfetto}), so a single set of masks
+     * can be shared by any number of colors.
+     *
+     * @param size the size of the masks in pixels.
+     * @return the circle, square and triangle masks.
+     */
+    public static List<Bitmap> generateConfettiMasks(int size) {
+        final List<Bitmap> masks = new ArrayList<>(3);
+        masks.add(createCircleMask(size));
+        masks.add(createSquareMask(size));
+        masks.add(createTriangleMask(size));
+        return masks;
+    }
+
     public static Bitmap createCircleBitmap(int color, int size) {
-        final Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        return createCircleBitmap(color, size, Bitmap.Config.ARGB_8888);
+    }
+
+    public static Bitmap createCircleMask(int size) {
+        return createCircleBitmap(Color.BLACK, size, Bitmap.Config.ALPHA_8);
+    }
+
+    public static Bitmap createSquareBitmap(int color, int size) {
+        return createSquareBitmap(color, size, Bitmap.Config.ARGB_8888);
+    }
+
+    public static Bitmap createSquareMask(int size) {
+        return createSquareBitmap(Color.BLACK, size, Bitmap.Config.ALPHA_8);
+    }
+
+    public static Bitmap createTriangleBitmap(int color, int size) {
+        return createTriangleBitmap(color, size, Bitmap.Config.ARGB_8888);
+    }
+
+    public static Bitmap createTriangleMask(int size) {
+        return createTriangleBitmap(Color.BLACK, size, Bitmap.Config.ALPHA_8);
+    }
+
+    private static Bitmap createCircleBitmap(int color, int size, Bitmap.Config config) {
+        final Bitmap bitmap = Bitmap.createBitmap(size, size, config);
         final Canvas canvas = new Canvas(bitmap);
         PAINT.setColor(color);
 
@@ -64,8 +106,8 @@ public class Utils {
         return bitmap;
     }
 
-    public static Bitmap createSquareBitmap(int color, int size) {
-        final Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+    private static Bitmap createSquareBitmap(int color, int size, Bitmap.Config config) {
+        final Bitmap bitmap = Bitmap.createBitmap(size, size, config);
         final Canvas canvas = new Canvas(bitmap);
         PAINT.setColor(color);
 
@@ -80,8 +122,8 @@ public class Utils {
         return bitmap;
     }
 
-    public static Bitmap createTriangleBitmap(int color, int size) {
-        final Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+    private static Bitmap createTriangleBitmap(int color, int size, Bitmap.Config config) {
+        final Bitmap bitmap = Bitmap.createBitmap(size, size, config);
         final Canvas canvas = new Canvas(bitmap);
         PAINT.setColor(color);
 
@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti;
+
+import android.graphics.Bitmap;
+
+import com.github.jinatonic.confetti.confetto.BitmapConfetto;
+import com.github.jinatonic.confetti.confetto.Confetto;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A {@link ConfettoGenerator} that picks among other generators in proportion to their weights,
+ * e.g. 80% gold and 20% silver confetti, in constant time regardless of the number of choices.
+ */
+public class WeightedConfettoGenerator implements ConfettoGenerator {
+    private final ConfettoGenerator[] generators;
+    private final AliasTable aliasTable;
+
+    /**
+     * @param generators the generators to pick from.
+     * @param weights the weight of each generator, in the same order.
+     */
+    public WeightedConfettoGenerator(ConfettoGenerator[] generators, float[] weights) {
+        if (generators.length != weights.length) {
+            throw new IllegalArgumentException("generators and weights must have the same size");
+        }
+        this.generators = generators.clone();
+        this.aliasTable = new AliasTable(weights);
+    }
+
+    /**
+     * Create a generator of {@link BitmapConfetto} that picks each bitmap in proportion to its
+     * weight.
+     *
+     * @param bitmaps the bitmaps to pick from.
+     * @param weights the weight of each bitmap, in the same order.
+     * @return the weighted generator.
+     */
+    public static WeightedConfettoGenerator forBitmaps(List<Bitmap> bitmaps, float[] weights) {
+        final ConfettoGenerator[] generators = new ConfettoGenerator[bitmaps.size()];
+        for (int i = 0; i < generators.length; i++) {
+            final Bitmap bitmap = bitmaps.get(i);
+            generators[i] = new ConfettoGenerator() {
+                @Override
+                public Confetto generateConfetto(Random random) {
+                    return new BitmapConfetto(bitmap);
+                }
+            };
+        }
+        return new WeightedConfettoGenerator(generators, weights);
+    }
+
+    @Override
+    public Confetto generateConfetto(Random random) {
+        return generators[aliasTable.sample(random)].generateConfetto(random);
+    }
+}
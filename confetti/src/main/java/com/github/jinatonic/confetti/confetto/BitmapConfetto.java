@@ -23,10 +23,28 @@ import android.graphics.Paint;
 
 public class BitmapConfetto extends Confetto {
     private final Bitmap bitmap;
+    private final SpriteMipmap mipmap;
     private final float bitmapCenterX, bitmapCenterY;
+    // The scale of the current draw call, so that subclasses overriding the unscaled
+    // drawInternal still get scaled confetti when calling through to this class.
+    private float drawScale = 1f;
 
     public BitmapConfetto(Bitmap bitmap) {
+        this(bitmap, null);
+    }
+
+    /**
+     * Create a bitmap confetto that draws scaled-down sizes from the provided mipmap chain.
+     *
+     * @param mipmap the mipmap chain of the sprite.
+     */
+    public BitmapConfetto(SpriteMipmap mipmap) {
+        this(mipmap.getSprite(), mipmap);
+    }
+
+    private BitmapConfetto(Bitmap bitmap, SpriteMipmap mipmap) {
         this.bitmap = bitmap;
+        this.mipmap = mipmap;
         this.bitmapCenterX = bitmap.getWidth() / 2f;
         this.bitmapCenterY = bitmap.getHeight() / 2f;
     }
@@ -41,11 +59,32 @@ public class BitmapConfetto extends Confetto {
         return bitmap.getHeight();
     }
 
+    @Override
+    protected void drawInternal(Canvas canvas, Matrix matrix, Paint paint, float x, float y,
+            float rotation, float scale, float percentAnimated) {
+        drawScale = scale;
+        drawInternal(canvas, matrix, paint, x, y, rotation, percentAnimated);
+        drawScale = 1f;
+    }
+
     @Override
     protected void drawInternal(Canvas canvas, Matrix matrix, Paint paint, float x, float y,
             float rotation, float percentageAnimated) {
         matrix.preTranslate(x, y);
         matrix.preRotate(rotation, bitmapCenterX, bitmapCenterY);
-        canvas.drawBitmap(bitmap, matrix, paint);
+        if (drawScale != 1f) {
+            matrix.preScale(drawScale, drawScale, bitmapCenterX, bitmapCenterY);
+        }
+
+        final int level = mipmap != null ? mipmap.getLevelForScale(drawScale) : 0;
+        if (level == 0) {
+            canvas.drawBitmap(bitmap, matrix, paint);
+        } else {
+            // Map the smaller level back onto the full size sprite's coordinates.
+            final Bitmap levelBitmap = mipmap.getLevel(level);
+            matrix.preScale((float) bitmap.getWidth() / levelBitmap.getWidth(),
+                    (float) bitmap.getHeight() / levelBitmap.getHeight());
+            canvas.drawBitmap(levelBitmap, matrix, paint);
+        }
     }
 }
@@ -24,7 +24,7 @@ import android.graphics.Paint;
  * A lightly more optimal way to draw a circle shape that doesn't require the use of a bitmap.
  */
 public class CircleConfetto extends Confetto {
-    private final int color;
+    private int color;
     private final float radius;
     private final int diamater;
 
@@ -44,6 +44,22 @@ public class CircleConfetto extends Confetto {
         return diamater;
     }
 
+    int getColor() {
+        return color;
+    }
+
+    float getRadius() {
+        return radius;
+    }
+
+    @Override
+    public void setColor(int color) {
+        if (this.color != color) {
+            this.color = color;
+            invalidatePaint();
+        }
+    }
+
     @Override
     protected void configurePaint(Paint paint) {
         super.configurePaint(paint);
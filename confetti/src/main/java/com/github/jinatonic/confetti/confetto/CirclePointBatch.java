@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti.confetto;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A level-of-detail renderer for small {@link CircleConfetto}. Instead of a save, clip,
+ * drawCircle and restore per confetto, small circles are grouped by color, alpha bucket and
+ * size, and each group is drawn with a single {@link Canvas#drawPoints(float[], int, int, Paint)}
+ * call using a round-capped stroke.
+ *
+ * <p>Batched confetti are drawn after all of the other confetti in the frame, which is not
+ * noticeable for the small sizes this is meant for. All batch state is re-used across frames
+ * so that drawing does not allocate once warmed up.
+ */
+public class CirclePointBatch {
+    // Alpha is quantized into this many levels so that fading confetti can share batches.
+    private static final int ALPHA_LEVELS = 16;
+    private static final int ALPHA_STEP = 255 / (ALPHA_LEVELS - 1);
+
+    private final float maxDiameter;
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final List<Bucket> buckets = new ArrayList<>();
+    private int numBuckets;
+    private Rect bound;
+
+    /**
+     * @param maxDiameter the largest circle diameter in pixels, after scaling, that is drawn as a
+     *   point. Larger circles fall back to {@link CircleConfetto}'s regular draw.
+     */
+    public CirclePointBatch(float maxDiameter) {
+        this.maxDiameter = maxDiameter;
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeCap(Paint.Cap.ROUND);
+    }
+
+    /**
+     * @param antiAlias whether the points are drawn with anti-aliasing, which is on by default.
+     */
+    public void setAntiAlias(boolean antiAlias) {
+        paint.setAntiAlias(antiAlias);
+    }
+
+    /**
+     * Add the confetto to this frame's batch if possible.
+     *
+     * @param confetto the confetto to draw.
+     * @return true if the confetto was handled by this batch, false if it needs to be drawn
+     *   through {@link Confetto#draw(Canvas)}.
+     */
+    public boolean add(Confetto confetto) {
+        return add(confetto, 1f);
+    }
+
+    /**
+     * Add the confetto to this frame's batch if possible.
+     *
+     * @param confetto the confetto to draw.
+     * @param interpolation see {@link Confetto#draw(Canvas, float)}.
+     * @return true if the confetto was handled by this batch, false if it needs to be drawn
+     *   through {@link Confetto#draw(Canvas, float)}.
+     */
+    public boolean add(Confetto confetto, float interpolation) {
+        if (!(confetto instanceof CircleConfetto)) {
+            return false;
+        }
+        if (!confetto.isDrawable()) {
+            // Nothing would be drawn either way.
+            return true;
+        }
+
+        final CircleConfetto circle = (CircleConfetto) confetto;
+        final float radius = circle.getRadius();
+        final float diameter = radius * 2 * confetto.getScale();
+        final Rect confettoBound = confetto.getBound();
+        if (diameter > maxDiameter || (bound != null && !bound.equals(confettoBound))) {
+            return false;
+        }
+        bound = confettoBound;
+
+        final int alpha = Math.round((float) confetto.getAlpha() / ALPHA_STEP) * ALPHA_STEP;
+        if (alpha == 0) {
+            return true;
+        }
+        final int color = confetto.getTintColor(circle.getColor());
+        final int size = Math.max(1, Math.round(diameter));
+        getBucket(color, alpha, size).add(
+                confetto.getDrawX(interpolation) + radius,
+                confetto.getDrawY(interpolation) + radius);
+        return true;
+    }
+
+    /**
+     * Draw all of the batched confetti and reset the batch for the next frame.
+     *
+     * @param canvas the canvas to draw on.
+     */
+    public void draw(Canvas canvas) {
+        if (numBuckets == 0) {
+            return;
+        }
+
+        canvas.save();
+        canvas.clipRect(bound);
+        for (int i = 0; i < numBuckets; i++) {
+            final Bucket bucket = buckets.get(i);
+            paint.setColor(bucket.color);
+            paint.setAlpha(bucket.alpha);
+            paint.setStrokeWidth(bucket.size);
+            canvas.drawPoints(bucket.points, 0, bucket.count, paint);
+            bucket.count = 0;
+        }
+        canvas.restore();
+
+        numBuckets = 0;
+        bound = null;
+    }
+
+    private Bucket getBucket(int color, int alpha, int size) {
+        for (int i = 0; i < numBuckets; i++) {
+            final Bucket bucket = buckets.get(i);
+            if (bucket.color == color && bucket.alpha == alpha && bucket.size == size) {
+                return bucket;
+            }
+        }
+
+        if (numBuckets == buckets.size()) {
+            buckets.add(new Bucket());
+        }
+        final Bucket bucket = buckets.get(numBuckets++);
+        bucket.color = color;
+        bucket.alpha = alpha;
+        bucket.size = size;
+        return bucket;
+    }
+
+    private static class Bucket {
+        int color, alpha, size;
+        float[] points = new float[64];
+        // Number of floats, i.e. twice the number of points
+        int count;
+
+        void add(float x, float y) {
+            if (count + 2 > points.length) {
+                final float[] newPoints = new float[points.length * 2];
+                System.arraycopy(points, 0, newPoints, 0, count);
+                points = newPoints;
+            }
+            points[count++] = x;
+            points[count++] = y;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti.confetto;
+
+import android.graphics.Rect;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collides confetti against a set of static obstacle rects and an optional floor, so that
+ * confetti bounce off of and settle on them instead of falling through. The obstacles are
+ * indexed in a uniform broadphase grid so that each collision check only looks at the obstacles
+ * near the confetto.
+ *
+ * <p>Confetti that come to rest on top of an obstacle, the floor or a pile are settled: they are
+ * frozen out of the simulation. The ones resting on the floor or a pile also raise the pile under
+ * them so that later confetti land on top of them. Confetti resting on an obstacle don't, since
+ * they can hang over its edge and would raise the pile in mid-air next to it.
+ *
+ * @see Confetto#setCollider(Collider)
+ */
+public class Collider {
+    // Width of the columns that the pile heights are tracked in.
+    private static final int PILE_COLUMN_WIDTH = 4;
+
+    private final float cellSize;
+    private float restitution = 0.3f;
+    private float friction = 0.2f;
+    private float settleVelocity = 0.05f;
+    private float floor = Float.NaN;
+
+    // Obstacle rects, indexed in a grid where the obstacles of cell c are
+    // cellObstacles[cellStarts[c]] until cellObstacles[cellStarts[c + 1]].
+    private int numObstacles;
+    private float[] lefts, tops, rights, bottoms;
+    private int gridLeft, gridTop, numColumns, numRows;
+    private int[] cellStarts, cellObstacles;
+
+    // The top of the settled confetti in every column, POSITIVE_INFINITY if there are none.
+    private int pileLeft;
+    private float[] pileTops = new float[0];
+
+    /**
+     * @param cellSize the size in pixels of a broadphase grid cell, ideally around the size of
+     *   the typical obstacle.
+     */
+    public Collider(float cellSize) {
+        this.cellSize = cellSize;
+        setObstacles(null);
+    }
+
+    /**
+     * Replace the obstacles and re-build the broadphase grid.
+     *
+     * @param obstacles the obstacle rects in the same coordinates as the confetti, or null to
+     *   remove all of the obstacles.
+     * @return the collider so that the set calls can be chained.
+     */
+    public Collider setObstacles(List<Rect> obstacles) {
+        numObstacles = obstacles != null ? obstacles.size() : 0;
+        lefts = new float[numObstacles];
+        tops = new float[numObstacles];
+        rights = new float[numObstacles];
+        bottoms = new float[numObstacles];
+        if (numObstacles == 0) {
+            numColumns = numRows = 0;
+            cellStarts = new int[1];
+            cellObstacles = new int[0];
+            return this;
+        }
+
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < numObstacles; i++) {
+            final Rect obstacle = obstacles.get(i);
+            lefts[i] = obstacle.left;
+            tops[i] = obstacle.top;
+            rights[i] = obstacle.right;
+            bottoms[i] = obstacle.bottom;
+            minX = Math.min(minX, obstacle.left);
+            minY = Math.min(minY, obstacle.top);
+            maxX = Math.max(maxX, obstacle.right);
+            maxY = Math.max(maxY, obstacle.bottom);
+        }
+        gridLeft = minX;
+        gridTop = minY;
+        numColumns = (int) ((maxX - minX) / cellSize) + 1;
+        numRows = (int) ((maxY - minY) / cellSize) + 1;
+
+        // Count the obstacles per cell, then fill them in with the prefix sums as offsets.
+        cellStarts = new int[numColumns * numRows + 1];
+        for (int pass = 0; pass < 2; pass++) {
+            final int[] counts = pass == 0 ? cellStarts : new int[numColumns * numRows];
+            for (int i = 0; i < numObstacles; i++) {
+                final int c0 = getColumn(lefts[i]), c1 = getColumn(rights[i]);
+                final int r0 = getRow(tops[i]), r1 = getRow(bottoms[i]);
+                for (int r = r0; r <= r1; r++) {
+                    for (int c = c0; c <= c1; c++) {
+                        final int cell = r * numColumns + c;
+                        if (pass == 0) {
+                            counts[cell + 1]++;
+                        } else {
+                            cellObstacles[cellStarts[cell] + counts[cell]++] = i;
+                        }
+                    }
+                }
+            }
+            if (pass == 0) {
+                for (int cell = 0; cell < numColumns * numRows; cell++) {
+                    cellStarts[cell + 1] += cellStarts[cell];
+                }
+                cellObstacles = new int[cellStarts[numColumns * numRows]];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @param y the y position of a floor that spans the entire width.
+     * @return the collider so that the set calls can be chained.
+     */
+    public Collider setFloor(float y) {
+        this.floor = y;
+        return this;
+    }
+
+    /**
+     * @return the collider so that the set calls can be chained.
+     */
+    public Collider removeFloor() {
+        this.floor = Float.NaN;
+        return this;
+    }
+
+    /**
+     * @param restitution the fraction [0, 1] of the velocity that is kept after a bounce.
+     * @return the collider so that the set calls can be chained.
+     */
+    public Collider setRestitution(float restitution) {
+        this.restitution = restitution;
+        return this;
+    }
+
+    /**
+     * @param friction the fraction [0, 1] of the velocity along a surface that is lost on every
+     *   contact with it.
+     * @return the collider so that the set calls can be chained.
+     */
+    public Collider setFriction(float friction) {
+        this.friction = friction;
+        return this;
+    }
+
+    /**
+     * @param settleVelocity the speed below which a confetto resting on a surface settles.
+     * @return the collider so that the set calls can be chained.
+     */
+    public Collider setSettleVelocity(float settleVelocity) {
+        this.settleVelocity = settleVelocity;
+        return this;
+    }
+
+    /**
+     * Sets the horizontal range that confetti can pile up in. Piles are cleared.
+     *
+     * @param left the left of the range.
+     * @param right the right of the range.
+     */
+    public void setPileRange(int left, int right) {
+        pileLeft = left;
+        pileTops = new float[Math.max(0, (right - left) / PILE_COLUMN_WIDTH + 1)];
+        clearPiles();
+    }
+
+    public void clearPiles() {
+        Arrays.fill(pileTops, Float.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Raise the piles under the provided settled confetto to its top.
+     */
+    public void addToPile(Confetto confetto) {
+        final int c0 = Math.max(0, getPileColumn(confetto.simulatedX));
+        final int c1 = Math.min(pileTops.length - 1,
+                getPileColumn(confetto.simulatedX + confetto.getWidth()));
+        for (int c = c0; c <= c1; c++) {
+            pileTops[c] = Math.min(pileTops[c], confetto.simulatedY);
+        }
+    }
+
+    /**
+     * Resolve the collisions of the confetto after an integrator step.
+     *
+     * @return whether the confetto has come to rest and settled.
+     */
+    boolean collide(Confetto confetto, float step) {
+        final float width = confetto.getWidth();
+        final float height = confetto.getHeight();
+        boolean landed = false;
+        // Whether the confetto landed on the floor or a pile rather than only on an obstacle.
+        boolean grounded = false;
+
+        if (numObstacles > 0) {
+            final float left = confetto.simulatedX, top = confetto.simulatedY;
+            final int c0 = Math.max(0, getColumn(left));
+            final int c1 = Math.min(numColumns - 1, getColumn(left + width));
+            final int r0 = Math.max(0, getRow(top));
+            final int r1 = Math.min(numRows - 1, getRow(top + height));
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    final int cell = r * numColumns + c;
+                    for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                        landed |= resolve(confetto, cellObstacles[i], width, height);
+                    }
+                }
+            }
+        }
+
+        // Land on the piles from above only, so that confetti can still fall past their sides.
+        final float velocityY = confetto.simulatedVelocityY;
+        if (velocityY > 0f && pileTops.length > 0) {
+            final int c0 = Math.max(0, getPileColumn(confetto.simulatedX));
+            final int c1 = Math.min(pileTops.length - 1,
+                    getPileColumn(confetto.simulatedX + width));
+            float pileTop = Float.POSITIVE_INFINITY;
+            for (int c = c0; c <= c1; c++) {
+                pileTop = Math.min(pileTop, pileTops[c]);
+            }
+            final float bottom = confetto.simulatedY + height;
+            if (bottom > pileTop && bottom - velocityY * step <= pileTop) {
+                confetto.simulatedY = pileTop - height;
+                bounce(confetto, true);
+                landed = grounded = true;
+            }
+        }
+
+        if (!Float.isNaN(floor) && confetto.simulatedY + height > floor) {
+            confetto.simulatedY = floor - height;
+            if (confetto.simulatedVelocityY > 0f) {
+                bounce(confetto, true);
+            }
+            landed = grounded = true;
+        }
+
+        if (landed && Math.abs(confetto.simulatedVelocityX) < settleVelocity
+                && Math.abs(confetto.simulatedVelocityY) < settleVelocity) {
+            confetto.simulatedVelocityX = confetto.simulatedVelocityY = 0f;
+            if (grounded) {
+                confetto.setPiled(true);
+                addToPile(confetto);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Push the confetto out of the obstacle along the axis of least penetration.
+     *
+     * @return whether the confetto landed on top of the obstacle.
+     */
+    private boolean resolve(Confetto confetto, int obstacle, float width, float height) {
+        final float left = confetto.simulatedX, top = confetto.simulatedY;
+        final float pushUp = top + height - tops[obstacle];
+        final float pushDown = bottoms[obstacle] - top;
+        final float pushLeft = left + width - lefts[obstacle];
+        final float pushRight = rights[obstacle] - left;
+        if (pushUp <= 0f || pushDown <= 0f || pushLeft <= 0f || pushRight <= 0f) {
+            return false;
+        }
+
+        final float minPush = Math.min(Math.min(pushUp, pushDown), Math.min(pushLeft, pushRight));
+        if (minPush == pushUp) {
+            confetto.simulatedY -= pushUp;
+            if (confetto.simulatedVelocityY > 0f) {
+                bounce(confetto, true);
+            }
+            return true;
+        } else if (minPush == pushDown) {
+            confetto.simulatedY += pushDown;
+            if (confetto.simulatedVelocityY < 0f) {
+                bounce(confetto, true);
+            }
+        } else if (minPush == pushLeft) {
+            confetto.simulatedX -= pushLeft;
+            if (confetto.simulatedVelocityX > 0f) {
+                bounce(confetto, false);
+            }
+        } else {
+            confetto.simulatedX += pushRight;
+            if (confetto.simulatedVelocityX < 0f) {
+                bounce(confetto, false);
+            }
+        }
+        return false;
+    }
+
+    private void bounce(Confetto confetto, boolean vertical) {
+        if (vertical) {
+            confetto.simulatedVelocityY = -confetto.simulatedVelocityY * restitution;
+            confetto.simulatedVelocityX *= 1f - friction;
+        } else {
+            confetto.simulatedVelocityX = -confetto.simulatedVelocityX * restitution;
+            confetto.simulatedVelocityY *= 1f - friction;
+        }
+    }
+
+    private int getColumn(float x) {
+        return (int) Math.floor((x - gridLeft) / cellSize);
+    }
+
+    private int getRow(float y) {
+        return (int) Math.floor((y - gridTop) / cellSize);
+    }
+
+    private int getPileColumn(float x) {
+        return (int) Math.floor((x - pileLeft) / PILE_COLUMN_WIDTH);
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti.confetto;
+
+import android.graphics.ColorFilter;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
+import android.view.animation.Interpolator;
+
+/**
+ * A color over the lifetime of a confetto, baked into a fixed-size lookup table. Every entry
+ * also has a pre-built {@link ColorFilter} so that tinting a confetto on every frame does not
+ * allocate a new filter.
+ *
+ * @see LifetimeCurve
+ */
+public class ColorCurve {
+    private final int[] colors = new int[LifetimeCurve.RESOLUTION];
+    private final ColorFilter[] colorFilters = new ColorFilter[LifetimeCurve.RESOLUTION];
+
+    private ColorCurve() {
+    }
+
+    /**
+     * Bake a color transition driven by the provided interpolator into a curve.
+     *
+     * @param interpolator the interpolator that maps lifetime progress [0, 1] into the fraction
+     *   between the two colors.
+     * @param fromColor the color at fraction 0.
+     * @param toColor the color at fraction 1.
+     * @return the baked curve.
+     */
+    public static ColorCurve fromInterpolator(Interpolator interpolator, int fromColor,
+            int toColor) {
+        final ColorCurve curve = new ColorCurve();
+        final int resolution = LifetimeCurve.RESOLUTION;
+        for (int i = 0; i < resolution; i++) {
+            final float fraction = interpolator.getInterpolation((float) i / (resolution - 1));
+            curve.colors[i] = blend(fromColor, toColor, fraction);
+        }
+        curve.buildColorFilters();
+        return curve;
+    }
+
+    /**
+     * Bake a list of color keyframes into a curve. Colors between keyframes are linearly
+     * interpolated per ARGB channel, and colors outside of the first and last keyframes are
+     * clamped.
+     *
+     * @param progress the lifetime progress [0, 1] of each keyframe in increasing order.
+     * @param colors the color of each keyframe.
+     * @return the baked curve.
+     */
+    public static ColorCurve fromKeyframes(float[] progress, int[] colors) {
+        LifetimeCurve.checkKeyframes(progress, colors.length);
+        final ColorCurve curve = new ColorCurve();
+        final int resolution = LifetimeCurve.RESOLUTION;
+        int keyframe = 0;
+        for (int i = 0; i < resolution; i++) {
+            final float p = (float) i / (resolution - 1);
+            while (keyframe < progress.length - 1 && progress[keyframe + 1] <= p) {
+                keyframe++;
+            }
+            curve.colors[i] = keyframe == progress.length - 1 || p <= progress[keyframe]
+                    ? colors[keyframe]
+                    : blend(colors[keyframe], colors[keyframe + 1],
+                            LifetimeCurve.getFraction(progress, keyframe, p));
+        }
+        curve.buildColorFilters();
+        return curve;
+    }
+
+    /**
+     * @param progress the lifetime progress [0, 1] of the confetto.
+     * @return the color of this curve at the provided progress.
+     */
+    public int sampleColor(float progress) {
+        return colors[LifetimeCurve.getIndex(progress)];
+    }
+
+    /**
+     * @param progress the lifetime progress [0, 1] of the confetto.
+     * @return a cached color filter that tints to the color at the provided progress.
+     */
+    public ColorFilter sampleColorFilter(float progress) {
+        return colorFilters[LifetimeCurve.getIndex(progress)];
+    }
+
+    private void buildColorFilters() {
+        for (int i = 0; i < colors.length; i++) {
+            // Consecutive entries are often the same color, share the filter in that case.
+            colorFilters[i] = i > 0 && colors[i] == colors[i - 1]
+                    ? colorFilters[i - 1]
+                    : new PorterDuffColorFilter(colors[i], PorterDuff.Mode.SRC_ATOP);
+        }
+    }
+
+    private static int blend(int from, int to, float fraction) {
+        final int a = blendChannel(from >>> 24, to >>> 24, fraction);
+        final int r = blendChannel((from >> 16) & 0xff, (to >> 16) & 0xff, fraction);
+        final int g = blendChannel((from >> 8) & 0xff, (to >> 8) & 0xff, fraction);
+        final int b = blendChannel(from & 0xff, to & 0xff, fraction);
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    private static int blendChannel(int from, int to, float fraction) {
+        // Clamp since interpolators are allowed to overshoot.
+        return Math.max(0, Math.min(255, Math.round(from + (to - from) * fraction)));
+    }
+}
@@ -17,9 +17,11 @@
 package com.github.jinatonic.confetti.confetto;
 
 import android.graphics.Canvas;
+import android.graphics.ColorFilter;
 import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Rect;
+import android.graphics.RectF;
 import android.view.MotionEvent;
 import android.view.VelocityTracker;
 import android.view.animation.Interpolator;
@@ -33,9 +35,14 @@ import android.view.animation.Interpolator;
 public abstract class Confetto {
     private static final int MAX_ALPHA = 255;
     private static final long RESET_ANIMATION_INITIAL_DELAY = -1;
+    // Fixed step of the integrator that is used when force fields are attached.
+    static final long FORCE_FIELD_STEP_MILLIS = 4;
 
     private final Matrix matrix = new Matrix();
     private final Paint workPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private boolean antiAlias = true;
+    // Whether the paint has to be configured again before the next replay.
+    private boolean paintInvalid = true;
     private final float[] workPairs = new float[2];
 
     // Configured coordinate states
@@ -52,13 +59,36 @@ public abstract class Confetto {
     // Configured animation states
     private long ttl;
     private Interpolator fadeOutInterpolator;
+    private float baseScale = 1f;
+    private LifetimeCurve alphaCurve, scaleCurve;
+    private ColorCurve colorCurve;
     private float millisToReachBound;
     private float percentageAnimated;
+    private long animatedTime;
+    private boolean reachesBound;
+    private int generation;
+
+    // Integrator state, only used when force fields or a collider are attached. The position and
+    // velocity are package-private so that the collider can resolve collisions in place.
+    private ForceField[] forceFields;
+    private Collider collider;
+    float simulatedX, simulatedY, simulatedVelocityX, simulatedVelocityY;
+    private long simulatedTime;
+    // How far the time seen by the force fields is ahead of the time passed to applyUpdate.
+    private long forceFieldTimeOffset;
+    private boolean settled, piled, markedStatic;
+    // The slot of this confetto in the cached layer it is drawn from, or -1 if it is drawn live.
+    private int bakedIndex = -1;
     // Current draw states
     private float currentX, currentY, currentRotation;
+    // State as of the previous update, used to interpolate between fixed simulation steps.
+    private float previousX, previousY, previousRotation;
+    private boolean hasPreviousState;
     protected float currentVelocityX, currentVelocityY, currentRotationalVelocity;
     // alpha is [0, 255]
     private int alpha;
+    private float scale = 1f;
+    private ColorFilter colorFilter;
     private boolean startedAnimation, terminated;
 
     // Touch events
@@ -84,17 +114,84 @@ public abstract class Confetto {
                 initialRotationalVelocity, rotationalAcceleration);
 
         // Compute how long it would take to reach x/y bounds or reach TTL.
-        millisToReachBound = ttl >= 0 ? ttl : Long.MAX_VALUE;
-        final long timeToReachXBound = computeBound(initialX, initialVelocityX, accelerationX,
-                millisToReachTargetVelocityX, targetVelocityX,
-                bound.left - getWidth(), bound.right);
-        millisToReachBound = Math.min(timeToReachXBound, millisToReachBound);
-        final long timeToReachYBound = computeBound(initialY, initialVelocityY, accelerationY,
-                millisToReachTargetVelocityY, targetVelocityY,
-                bound.top - getHeight(), bound.bottom);
-        millisToReachBound = Math.min(timeToReachYBound, millisToReachBound);
+        final long ttlTime = ttl >= 0 ? ttl : Long.MAX_VALUE;
+        millisToReachBound = ttlTime;
+        settled = false;
+        if (forceFields == null && collider == null) {
+            final long timeToReachXBound = computeBound(initialX, initialVelocityX,
+                    accelerationX, millisToReachTargetVelocityX, targetVelocityX,
+                    bound.left - getWidth(), bound.right);
+            millisToReachBound = Math.min(timeToReachXBound, millisToReachBound);
+            final long timeToReachYBound = computeBound(initialY, initialVelocityY,
+                    accelerationY, millisToReachTargetVelocityY, targetVelocityY,
+                    bound.top - getHeight(), bound.bottom);
+            millisToReachBound = Math.min(timeToReachYBound, millisToReachBound);
+            reachesBound = millisToReachBound < ttlTime;
+        } else {
+            if (ttl < 0 && hasLifetimeCurves()) {
+                throw new IllegalStateException("Confetti with force fields or a collider "
+                        + "need a TTL for their fade out and lifetime curves");
+            }
+            // The bound can't be solved for ahead of time, it is checked on every step instead.
+            reachesBound = false;
+            simulatedX = initialX;
+            simulatedY = initialY;
+            simulatedVelocityX = initialVelocityX;
+            simulatedVelocityY = initialVelocityY;
+            simulatedTime = 0;
+        }
+
+        configureWorkPaint();
+    }
+
+    /**
+     * A lighter version of {@link #prepare(Rect)} for confetti without force fields or a
+     * collider that are configured again on every frame, e.g. procedural confetti replayed from
+     * their seed. The time to reach the bound is passed in rather than solved for, and the paint
+     * is only configured again if it was invalidated, see {@link #invalidatePaint()}.
+     *
+     * @param bound the space in which the confetto can display in.
+     * @param millisToReachBound the value of {@link #getMillisToReachBound()} after a full
+     *   {@link #prepare(Rect)} with the exact same configuration.
+     */
+    public void prepareForReplay(Rect bound, float millisToReachBound) {
+        this.bound = bound;
+
+        millisToReachTargetVelocityX = computeMillisToReachTarget(targetVelocityX,
+                initialVelocityX, accelerationX);
+        millisToReachTargetVelocityY = computeMillisToReachTarget(targetVelocityY,
+                initialVelocityY, accelerationY);
+        millisToReachTargetRotationalVelocity = computeMillisToReachTarget(targetRotationalVelocity,
+                initialRotationalVelocity, rotationalAcceleration);
 
+        this.millisToReachBound = millisToReachBound;
+        reachesBound = millisToReachBound < (ttl >= 0 ? ttl : Long.MAX_VALUE);
+        settled = false;
+        if (paintInvalid) {
+            configureWorkPaint();
+        }
+    }
+
+    /**
+     * @return the time in milliseconds after which this confetto stops animating, because it
+     *   reached the bound or its TTL, as of the last {@link #prepare(Rect)}.
+     */
+    public float getMillisToReachBound() {
+        return millisToReachBound;
+    }
+
+    private void configureWorkPaint() {
+        workPaint.setColorFilter(null);
         configurePaint(workPaint);
+        paintInvalid = false;
+    }
+
+    /**
+     * Subclasses should call this when state that {@link #configurePaint(Paint)} reads changes,
+     * so that {@link #prepareForReplay(Rect, float)} configures the paint again.
+     */
+    protected void invalidatePaint() {
+        paintInvalid = true;
     }
 
     private boolean doesLocationIntercept(float x, float y) {
@@ -112,6 +209,7 @@ public abstract class Confetto {
             this.overrideY = y;
             this.overrideDeltaX = currentX - x;
             this.overrideDeltaY = currentY - y;
+            this.settled = false;
 
             velocityTracker = VelocityTracker.obtain();
             velocityTracker.addMovement(event);
@@ -145,6 +243,7 @@ public abstract class Confetto {
 
         velocityTracker.recycle();
         velocityTracker = null;
+        hasPreviousState = false;
         prepare(bound);
         this.touchOverride = false;
     }
@@ -230,6 +329,26 @@ public abstract class Confetto {
         }
     }
 
+    /**
+     * Compute how long it takes for a confetto with the given motion along a single axis to
+     * leave the provided bound. All of the values are in milliseconds, e.g. pixels per
+     * millisecond for velocity.
+     *
+     * @param initialPos the initial position along the axis.
+     * @param velocity the initial velocity along the axis.
+     * @param acceleration the acceleration along the axis.
+     * @param targetVelocity the target velocity along the axis, or null if there is none.
+     * @param minBound the minimum position before the confetto is considered out of bound.
+     * @param maxBound the maximum position before the confetto is considered out of bound.
+     * @return the time in milliseconds, or {@link Long#MAX_VALUE} if the bound is never reached.
+     */
+    public static long computeMillisToLeaveBound(float initialPos, float velocity,
+            float acceleration, Float targetVelocity, int minBound, int maxBound) {
+        final Long targetTime = computeMillisToReachTarget(targetVelocity, velocity, acceleration);
+        return computeBound(initialPos, velocity, acceleration, targetTime, targetVelocity,
+                minBound, maxBound);
+    }
+
     /**
      * Reset this confetto object's internal states so that it can be re-used.
      */
@@ -250,12 +369,30 @@ public abstract class Confetto {
         ttl = 0;
         millisToReachBound = 0f;
         percentageAnimated = 0f;
+        animatedTime = 0;
+        reachesBound = false;
+        generation = 0;
+        forceFields = null;
+        collider = null;
+        settled = piled = markedStatic = false;
+        bakedIndex = -1;
+        simulatedX = simulatedY = 0f;
+        simulatedVelocityX = simulatedVelocityY = 0f;
+        simulatedTime = 0;
+        forceFieldTimeOffset = 0;
         fadeOutInterpolator = null;
+        baseScale = 1f;
+        alphaCurve = scaleCurve = null;
+        colorCurve = null;
 
         currentX = currentY = 0f;
         currentVelocityX = currentVelocityY = 0f;
         currentRotation = 0f;
+        previousX = previousY = previousRotation = 0f;
+        hasPreviousState = false;
         alpha = MAX_ALPHA;
+        scale = 1f;
+        colorFilter = null;
         startedAnimation = false;
         terminated = false;
     }
@@ -280,42 +417,145 @@ public abstract class Confetto {
             initialDelay = passedTime;
         }
 
-        final long animatedTime = passedTime - initialDelay;
+        animatedTime = passedTime - initialDelay;
         startedAnimation = animatedTime >= 0;
 
         if (startedAnimation && !terminated) {
+            if (hasPreviousState) {
+                previousX = currentX;
+                previousY = currentY;
+                previousRotation = currentRotation;
+            }
+
+            if (isStatic()) {
+                // Frozen in place until the confetto is dragged away.
+            } else if (forceFields != null || collider != null) {
+                // While dragged, the simulation restarts from the release point on touch up.
+                if (!touchOverride) {
+                    integrate();
+                }
+            } else {
+                computeDistance(workPairs, animatedTime, initialX, initialVelocityX,
+                        accelerationX, millisToReachTargetVelocityX, targetVelocityX);
+                currentX = workPairs[0];
+                currentVelocityX = workPairs[1];
+
+                computeDistance(workPairs, animatedTime, initialY, initialVelocityY,
+                        accelerationY, millisToReachTargetVelocityY, targetVelocityY);
+                currentY = workPairs[0];
+                currentVelocityY = workPairs[1];
+            }
 
-            computeDistance(workPairs, animatedTime, initialX, initialVelocityX, accelerationX,
-                    millisToReachTargetVelocityX, targetVelocityX);
-            currentX = workPairs[0];
-            currentVelocityX = workPairs[1];
-
-            computeDistance(workPairs, animatedTime, initialY, initialVelocityY, accelerationY,
-                    millisToReachTargetVelocityY, targetVelocityY);
-            currentY = workPairs[0];
-            currentVelocityY = workPairs[1];
-
-            computeDistance(workPairs, animatedTime, initialRotation,
-                    initialRotationalVelocity, rotationalAcceleration,
-                    millisToReachTargetRotationalVelocity, targetRotationalVelocity);
-            currentRotation = workPairs[0];
-            currentRotationalVelocity = workPairs[1];
-
-            if (fadeOutInterpolator != null) {
-                final float interpolatedTime =
-                        fadeOutInterpolator.getInterpolation(animatedTime / millisToReachBound);
+            if (!isStatic()) {
+                computeDistance(workPairs, animatedTime, initialRotation,
+                        initialRotationalVelocity, rotationalAcceleration,
+                        millisToReachTargetRotationalVelocity, targetRotationalVelocity);
+                currentRotation = workPairs[0];
+                currentRotationalVelocity = workPairs[1];
+            }
+
+            if (!hasPreviousState) {
+                previousX = currentX;
+                previousY = currentY;
+                previousRotation = currentRotation;
+                hasPreviousState = true;
+            }
+
+            final float progress = animatedTime / millisToReachBound;
+            if (alphaCurve != null) {
+                alpha = (int) (alphaCurve.sample(progress) * MAX_ALPHA);
+            } else if (fadeOutInterpolator != null) {
+                final float interpolatedTime = fadeOutInterpolator.getInterpolation(progress);
                 alpha = (int) (interpolatedTime * MAX_ALPHA);
             } else {
                 alpha = MAX_ALPHA;
             }
+            scale = scaleCurve != null ? baseScale * scaleCurve.sample(progress) : baseScale;
+            if (colorCurve != null) {
+                colorFilter = colorCurve.sampleColorFilter(progress);
+            }
 
-            terminated = !touchOverride && animatedTime >= millisToReachBound;
-            percentageAnimated = Math.min(1f, animatedTime / millisToReachBound);
+            // Static confetti stay in place past the time they would have left the bound and
+            // only expire with their TTL.
+            final float endTime = !isStatic() ? millisToReachBound
+                    : ttl >= 0 ? ttl : Float.POSITIVE_INFINITY;
+            terminated = !touchOverride && animatedTime >= endTime;
+            percentageAnimated = Math.min(1f, progress);
         }
 
         return !terminated;
     }
 
+    /**
+     * Advance the position and velocity with the force fields and collisions in fixed steps up
+     * to the animated time using semi-implicit Euler integration, then extrapolate the remainder
+     * of the last step. The configured acceleration applies until the target velocity is
+     * reached, so without any forces the motion matches the closed-form one.
+     */
+    private void integrate() {
+        final float[] acceleration = workPairs;
+        final float step = FORCE_FIELD_STEP_MILLIS;
+        final float halfWidth = getWidth() / 2f;
+        final float halfHeight = getHeight() / 2f;
+        final int numForceFields = forceFields != null ? forceFields.length : 0;
+        while (!reachesBound && simulatedTime + FORCE_FIELD_STEP_MILLIS <= animatedTime) {
+            acceleration[0] = getAcceleration(accelerationX, targetVelocityX,
+                    simulatedVelocityX, step);
+            acceleration[1] = getAcceleration(accelerationY, targetVelocityY,
+                    simulatedVelocityY, step);
+            for (int i = 0; i < numForceFields; i++) {
+                forceFields[i].accumulate(simulatedX + halfWidth, simulatedY + halfHeight,
+                        simulatedVelocityX, simulatedVelocityY,
+                        forceFieldTimeOffset + initialDelay + simulatedTime, acceleration);
+            }
+            simulatedVelocityX += acceleration[0] * step;
+            simulatedVelocityY += acceleration[1] * step;
+            simulatedX += simulatedVelocityX * step;
+            simulatedY += simulatedVelocityY * step;
+            simulatedTime += FORCE_FIELD_STEP_MILLIS;
+
+            if (collider != null && collider.collide(this, step)) {
+                settled = true;
+                currentRotationalVelocity = 0f;
+                break;
+            }
+            if (isLeavingBound()) {
+                reachesBound = true;
+                millisToReachBound = Math.min(millisToReachBound, simulatedTime);
+            }
+        }
+
+        final long remainder = settled ? 0 : Math.max(0, animatedTime - simulatedTime);
+        currentX = simulatedX + simulatedVelocityX * remainder;
+        currentY = simulatedY + simulatedVelocityY * remainder;
+        currentVelocityX = simulatedVelocityX;
+        currentVelocityY = simulatedVelocityY;
+    }
+
+    /**
+     * @return the configured acceleration for the current integrator step, which only applies
+     *   towards the target velocity and stops once the target velocity is reached.
+     */
+    private static float getAcceleration(float acceleration, Float targetVelocity,
+            float velocity, float step) {
+        if (targetVelocity == null || acceleration == 0f) {
+            return acceleration;
+        }
+        final float remaining = targetVelocity - velocity;
+        if (remaining * acceleration <= 0f) {
+            return 0f;
+        }
+        return Math.abs(remaining) < Math.abs(acceleration * step) ? remaining / step
+                : acceleration;
+    }
+
+    private boolean isLeavingBound() {
+        return (simulatedX < bound.left - getWidth() && simulatedVelocityX <= 0f)
+                || (simulatedX > bound.right && simulatedVelocityX >= 0f)
+                || (simulatedY < bound.top - getHeight() && simulatedVelocityY <= 0f)
+                || (simulatedY > bound.bottom && simulatedVelocityY >= 0f);
+    }
+
     private void computeDistance(float[] pair, long t, float xi, float vi, float ai, Long targetTime,
                                  Float vTarget) {
         // velocity with constant acceleration
@@ -342,6 +582,18 @@ public abstract class Confetto {
      * @param canvas the canvas to draw on.
      */
     public void draw(Canvas canvas) {
+        draw(canvas, 1f);
+    }
+
+    /**
+     * Render this confetto between its previous and current state, which is used to draw smooth
+     * motion when the simulation runs at a fixed rate lower than the display refresh rate.
+     *
+     * @param canvas the canvas to draw on.
+     * @param interpolation how far [0f, 1f] to interpolate from the state as of the previous
+     *   {@link #applyUpdate(long)} to the current one.
+     */
+    public void draw(Canvas canvas, float interpolation) {
         if (touchOverride) {
             // Replace time-calculated velocities with touch-velocities
             currentVelocityX = overrideVelocityX;
@@ -349,21 +601,241 @@ public abstract class Confetto {
 
             draw(canvas, overrideX + overrideDeltaX, overrideY + overrideDeltaY, currentRotation, percentageAnimated);
         } else if (startedAnimation && !terminated) {
-            draw(canvas, currentX, currentY, currentRotation, percentageAnimated);
+            draw(canvas, getDrawX(interpolation), getDrawY(interpolation),
+                    lerp(previousRotation, currentRotation, interpolation), percentageAnimated);
         }
     }
 
+    private static float lerp(float from, float to, float fraction) {
+        return fraction == 1f ? to : from + (to - from) * fraction;
+    }
+
     private void draw(Canvas canvas, float x, float y, float rotation, float percentageAnimated) {
         canvas.save();
 
         canvas.clipRect(bound);
         matrix.reset();
         workPaint.setAlpha(alpha);
-        drawInternal(canvas, matrix, workPaint, x, y, rotation, percentageAnimated);
+        if (colorCurve != null) {
+            workPaint.setColorFilter(colorFilter);
+        }
+        drawInternal(canvas, matrix, workPaint, x, y, rotation, scale, percentageAnimated);
 
         canvas.restore();
     }
 
+    /**
+     * @return whether this confetto is currently drawn, i.e. it has started and not yet
+     *   terminated its animation, or it is being dragged.
+     */
+    public boolean isDrawable() {
+        return touchOverride || (startedAnimation && !terminated);
+    }
+
+    /**
+     * Shift the time origin of this confetto, e.g. when the manager rebases its clock so that the
+     * times it passes to {@link #applyUpdate(long)} stay small. The confetto keeps animating
+     * exactly as before as long as the passed times are shifted by the same amount.
+     *
+     * @param delta the amount of time in milliseconds that the clock was moved back by.
+     */
+    public void offsetTime(long delta) {
+        if (initialDelay != RESET_ANIMATION_INITIAL_DELAY) {
+            initialDelay -= delta;
+        }
+        forceFieldTimeOffset += delta;
+    }
+
+    /**
+     * @return the time in milliseconds since this confetto started animating, as of the last
+     *   update. Unlike the time passed to {@link #applyUpdate(long)}, this is independent of when
+     *   the confetto was emitted.
+     */
+    public long getAnimatedTime() {
+        return animatedTime;
+    }
+
+    /**
+     * @return whether this confetto's animation ends by reaching the bound rather than by its
+     *   TTL expiring.
+     */
+    public boolean endsAtBound() {
+        return reachesBound;
+    }
+
+    /**
+     * @return the sub-emitter generation of this confetto, 0 if it was not emitted by a
+     *   {@link com.github.jinatonic.confetti.SubEmitter}.
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    public void setGeneration(int generation) {
+        this.generation = generation;
+    }
+
+    /**
+     * Attach force fields to this confetto, which replaces the closed-form motion with a
+     * fixed-step simulation. Since the time at which the confetto leaves the bound can no longer
+     * be computed ahead of time, the bound is checked on every step instead. Must be called
+     * before {@link #prepare(Rect)}.
+     *
+     * <p>The fade out and the lifetime curves then progress over the TTL alone, so a confetto
+     * with either of them must have a TTL or {@link #prepare(Rect)} throws an
+     * {@link IllegalStateException}.
+     *
+     * @param forceFields the force fields acting on this confetto, or null for none.
+     */
+    public void setForceFields(ForceField[] forceFields) {
+        this.forceFields = forceFields != null && forceFields.length > 0 ? forceFields : null;
+    }
+
+    /**
+     * Set how far the time passed to the force fields is ahead of the time passed to
+     * {@link #applyUpdate(long)}, i.e. the total amount that the clock was moved back by with
+     * {@link #offsetTime(long)} before this confetto was emitted. This keeps periodic fields such
+     * as gusting wind in phase across rebases.
+     *
+     * @param offset the offset in milliseconds.
+     */
+    public void setForceFieldTimeOffset(long offset) {
+        this.forceFieldTimeOffset = offset;
+    }
+
+    /**
+     * Attach a collider to this confetto, which replaces the closed-form motion with a
+     * fixed-step simulation the same as {@link #setForceFields(ForceField[])}. Must be called
+     * before {@link #prepare(Rect)}.
+     *
+     * @param collider the collider that this confetto collides with, or null for none.
+     */
+    public void setCollider(Collider collider) {
+        this.collider = collider;
+    }
+
+    /**
+     * @return whether this confetto has come to rest on an obstacle of its {@link Collider}.
+     *   Settled confetti no longer move until they are dragged away, so they can be drawn from
+     *   a cached layer.
+     */
+    public boolean isSettled() {
+        return settled;
+    }
+
+    /**
+     * Mark this confetto as static, which freezes it in place so that it can be drawn from a
+     * cached layer. Static confetti no longer leave the bound but still expire with their TTL,
+     * and resume their motion as of the current time once they are no longer static or are
+     * dragged. Confetti whose look changes over time, see {@link #isLookConstant()}, keep being
+     * drawn live.
+     *
+     * @param isStatic whether the confetto should stop moving.
+     */
+    public void setStatic(boolean isStatic) {
+        this.markedStatic = isStatic;
+    }
+
+    /**
+     * @return whether this confetto is frozen in place, because it was marked static or it has
+     *   settled, and isn't being dragged.
+     */
+    public boolean isStatic() {
+        return !touchOverride && (markedStatic || settled);
+    }
+
+    /**
+     * Compute a conservative bound of the area that {@link #draw(Canvas)} covers in the current
+     * state of this confetto, regardless of its rotation.
+     *
+     * @param bounds the rect to store the bound in.
+     */
+    public void getDrawBounds(RectF bounds) {
+        final float centerX = currentX + getWidth() / 2f;
+        final float centerY = currentY + getHeight() / 2f;
+        // Half of the diagonal, plus a pixel for anti-aliasing.
+        final float extent = (float) Math.hypot(getWidth(), getHeight()) * scale / 2f + 1f;
+        bounds.set(centerX - extent, centerY - extent, centerX + extent, centerY + extent);
+    }
+
+    /**
+     * @return whether this confetto is currently drawn from a cached layer instead of on its own.
+     */
+    public boolean isBaked() {
+        return bakedIndex >= 0;
+    }
+
+    /**
+     * @return the slot of this confetto in the cached layer it is drawn from, or -1 if it is
+     *   drawn on its own.
+     */
+    public int getBakedIndex() {
+        return bakedIndex;
+    }
+
+    public void setBakedIndex(int bakedIndex) {
+        this.bakedIndex = bakedIndex;
+    }
+
+    /**
+     * @return whether this confetto raised the piles of its {@link Collider} when it settled and
+     *   hasn't been taken out of them since.
+     */
+    public boolean isPiled() {
+        return piled;
+    }
+
+    public void setPiled(boolean piled) {
+        this.piled = piled;
+    }
+
+    /**
+     * @return the x position (top left corner) of this confetto as of the last update.
+     */
+    public float getCurrentX() {
+        return getDrawX(1f);
+    }
+
+    /**
+     * @return the y position (top left corner) of this confetto as of the last update.
+     */
+    public float getCurrentY() {
+        return getDrawY(1f);
+    }
+
+    // region Package-private draw state for batched renderers such as CirclePointBatch.
+
+    float getDrawX(float interpolation) {
+        return touchOverride ? overrideX + overrideDeltaX
+                : lerp(previousX, currentX, interpolation);
+    }
+
+    float getDrawY(float interpolation) {
+        return touchOverride ? overrideY + overrideDeltaY
+                : lerp(previousY, currentY, interpolation);
+    }
+
+    int getAlpha() {
+        return alpha;
+    }
+
+    float getScale() {
+        return scale;
+    }
+
+    Rect getBound() {
+        return bound;
+    }
+
+    /**
+     * @return the color that a tinted confetto is drawn with.
+     */
+    int getTintColor(int color) {
+        return colorCurve != null ? colorCurve.sampleColor(percentageAnimated) : color;
+    }
+
+    // endregion
+
     /**
      * Subclasses need to override this method to optimize for the way to draw the appropriate
      * confetto on the canvas.
@@ -380,6 +852,22 @@ public abstract class Confetto {
     protected abstract void drawInternal(Canvas canvas, Matrix matrix, Paint paint, float x,
             float y, float rotation, float percentAnimated);
 
+    /**
+     * Draw the confetto scaled around its center. By default this scales the canvas and then
+     * calls {@link #drawInternal(Canvas, Matrix, Paint, float, float, float, float)}. Subclasses
+     * that can draw a scaled confetto more cheaply can override this method instead.
+     *
+     * @param scale the scale of the confetto, 1 being its original size.
+     * @see #drawInternal(Canvas, Matrix, Paint, float, float, float, float)
+     */
+    protected void drawInternal(Canvas canvas, Matrix matrix, Paint paint, float x, float y,
+            float rotation, float scale, float percentAnimated) {
+        if (scale != 1f) {
+            canvas.scale(scale, scale, x + getWidth() / 2f, y + getHeight() / 2f);
+        }
+        drawInternal(canvas, matrix, paint, x, y, rotation, percentAnimated);
+    }
+
 
     // region Helper methods to set all of the necessary values for the confetto.
 
@@ -439,9 +927,69 @@ public abstract class Confetto {
         this.ttl = val;
     }
 
+    /**
+     * Sets the color for confetti that are tinted at draw time. Confetti with their color baked
+     * in, e.g. a plain {@link BitmapConfetto}, ignore this value.
+     */
+    public void setColor(int color) {
+    }
+
+    /**
+     * Sets the scale of this confetto, which is multiplied with the scale curve if there is one.
+     */
+    public void setScale(float scale) {
+        this.baseScale = scale;
+    }
+
     public void setFadeOut(Interpolator fadeOutInterpolator) {
         this.fadeOutInterpolator = fadeOutInterpolator;
     }
 
+    /**
+     * Sets a baked alpha curve, which takes precedence over {@link #setFadeOut(Interpolator)}.
+     */
+    public void setAlphaCurve(LifetimeCurve alphaCurve) {
+        this.alphaCurve = alphaCurve;
+    }
+
+    public void setScaleCurve(LifetimeCurve scaleCurve) {
+        this.scaleCurve = scaleCurve;
+    }
+
+    public void setColorCurve(ColorCurve colorCurve) {
+        this.colorCurve = colorCurve;
+    }
+
+    /**
+     * @return whether or not the look of this confetto changes over its lifetime through a fade
+     *   out or an alpha, scale or color curve.
+     */
+    public boolean hasLifetimeCurves() {
+        return fadeOutInterpolator != null || alphaCurve != null || scaleCurve != null
+                || colorCurve != null;
+    }
+
+    /**
+     * Subclasses whose drawing changes over time on its own, e.g. based on
+     * {@link #getAnimatedTime()}, should override this to return false.
+     *
+     * @return whether or not this confetto always looks the same while it stays in place, which
+     *   allows it to be drawn from a cached layer once it is static.
+     */
+    public boolean isLookConstant() {
+        return !hasLifetimeCurves();
+    }
+
+    /**
+     * Sets whether this confetto is drawn with anti-aliasing, which is on by default.
+     */
+    public void setAntiAlias(boolean antiAlias) {
+        // Skips the paint write when unchanged, since confetti are configured over and over.
+        if (this.antiAlias != antiAlias) {
+            this.antiAlias = antiAlias;
+            workPaint.setAntiAlias(antiAlias);
+        }
+    }
+
     // endregion
 }
@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti.confetto;
+
+/**
+ * A force that acts on confetti in addition to their configured acceleration, e.g. wind, drag
+ * or turbulence. Confetti with force fields attached are simulated with a fixed-step
+ * semi-implicit Euler integrator instead of the closed-form motion, see
+ * {@link Confetto#setForceFields(ForceField[])}.
+ *
+ * <p>Force fields are shared by many confetti and evaluated many times per frame, so
+ * implementations must be immutable and must not allocate in {@link #accumulate}.
+ *
+ * <p>All of the values are in milliseconds, e.g. pixels per millisecond squared for
+ * acceleration.
+ */
+public abstract class ForceField {
+    /**
+     * Add the acceleration that this field applies to a confetto with the provided state.
+     *
+     * @param x the x position of the center of the confetto.
+     * @param y the y position of the center of the confetto.
+     * @param velocityX the x velocity of the confetto.
+     * @param velocityY the y velocity of the confetto.
+     * @param time the animation time in milliseconds, which is shared by all of the confetti and
+     *   keeps increasing steadily when the manager rebases its clock in long-running mode.
+     * @param acceleration the acceleration to add to, x at index 0 and y at index 1.
+     */
+    public abstract void accumulate(float x, float y, float velocityX, float velocityY,
+            long time, float[] acceleration);
+
+    /**
+     * @param accelerationX the x acceleration of the wind.
+     * @param accelerationY the y acceleration of the wind.
+     * @param gustiness how much [0, 1] the wind strength varies over time, 0 for a steady wind.
+     * @param gustPeriodMillis the time it takes for the wind strength to go through one gust.
+     * @return a wind whose strength periodically rises and falls.
+     */
+    public static ForceField wind(float accelerationX, float accelerationY, float gustiness,
+            long gustPeriodMillis) {
+        return new Wind(accelerationX, accelerationY, gustiness, gustPeriodMillis);
+    }
+
+    /**
+     * @param coefficient the fraction of the velocity that is lost per millisecond.
+     * @return a drag that slows confetti down in proportion to their velocity.
+     */
+    public static ForceField drag(float coefficient) {
+        return new Drag(coefficient);
+    }
+
+    /**
+     * @param x the x position of the attractor.
+     * @param y the y position of the attractor.
+     * @param strength the acceleration towards the attractor at the radius, negative to repel.
+     * @param radius the distance within which the attraction stops growing.
+     * @return a point that pulls confetti towards itself.
+     */
+    public static ForceField attractor(float x, float y, float strength, float radius) {
+        return new Attractor(x, y, strength, radius);
+    }
+
+    /**
+     * @param scale the size in pixels of a single turbulence eddy.
+     * @param strength the largest acceleration applied by the turbulence.
+     * @param seed the seed of the turbulence pattern.
+     * @return a divergence-free curl-noise turbulence that swirls confetti around.
+     */
+    public static ForceField turbulence(float scale, float strength, int seed) {
+        return new Turbulence(scale, strength, seed);
+    }
+
+    private static class Wind extends ForceField {
+        private final float accelerationX, accelerationY, gustiness;
+        private final double angularFrequency;
+
+        Wind(float accelerationX, float accelerationY, float gustiness, long gustPeriodMillis) {
+            this.accelerationX = accelerationX;
+            this.accelerationY = accelerationY;
+            this.gustiness = gustiness;
+            this.angularFrequency = gustPeriodMillis > 0 ? 2 * Math.PI / gustPeriodMillis : 0;
+        }
+
+        @Override
+        public void accumulate(float x, float y, float velocityX, float velocityY, long time,
+                float[] acceleration) {
+            final float strength = gustiness == 0f ? 1f
+                    : 1f + gustiness * (float) Math.sin(angularFrequency * time);
+            acceleration[0] += accelerationX * strength;
+            acceleration[1] += accelerationY * strength;
+        }
+    }
+
+    private static class Drag extends ForceField {
+        private final float coefficient;
+
+        Drag(float coefficient) {
+            this.coefficient = coefficient;
+        }
+
+        @Override
+        public void accumulate(float x, float y, float velocityX, float velocityY, long time,
+                float[] acceleration) {
+            acceleration[0] -= coefficient * velocityX;
+            acceleration[1] -= coefficient * velocityY;
+        }
+    }
+
+    private static class Attractor extends ForceField {
+        private final float x, y, strength, radius;
+
+        Attractor(float x, float y, float strength, float radius) {
+            this.x = x;
+            this.y = y;
+            this.strength = strength;
+            this.radius = Math.max(1f, radius);
+        }
+
+        @Override
+        public void accumulate(float x, float y, float velocityX, float velocityY, long time,
+                float[] acceleration) {
+            final float dx = this.x - x;
+            final float dy = this.y - y;
+            final float distanceSquared = dx * dx + dy * dy;
+            if (distanceSquared == 0f) {
+                return;
+            }
+            // Inverse-square falloff outside of the radius and linear falloff inside of it so
+            // that confetti settle instead of being flung around at the center.
+            final float distance = (float) Math.sqrt(distanceSquared);
+            final float magnitude = distance < radius
+                    ? strength * distance / radius
+                    : strength * radius * radius / distanceSquared;
+            acceleration[0] += magnitude * dx / distance;
+            acceleration[1] += magnitude * dy / distance;
+        }
+    }
+
+    private static class Turbulence extends ForceField {
+        private final float scale, strength;
+        private final int seed;
+
+        Turbulence(float scale, float strength, int seed) {
+            this.scale = scale;
+            this.strength = strength;
+            this.seed = seed;
+        }
+
+        @Override
+        public void accumulate(float x, float y, float velocityX, float velocityY, long time,
+                float[] acceleration) {
+            // The curl (dp/dy, -dp/dx) of a smooth value-noise potential p.
+            final float u = x / scale;
+            final float v = y / scale;
+            final int cellX = (int) Math.floor(u);
+            final int cellY = (int) Math.floor(v);
+            final float fx = u - cellX;
+            final float fy = v - cellY;
+            final float sx = fx * fx * (3f - 2f * fx);
+            final float sy = fy * fy * (3f - 2f * fy);
+            final float dsx = 6f * fx * (1f - fx);
+            final float dsy = 6f * fy * (1f - fy);
+
+            final float a = corner(cellX, cellY);
+            final float b = corner(cellX + 1, cellY);
+            final float c = corner(cellX, cellY + 1);
+            final float d = corner(cellX + 1, cellY + 1);
+            final float k = a - b - c + d;
+            final float dPsiDx = dsx * ((b - a) + k * sy);
+            final float dPsiDy = dsy * ((c - a) + k * sx);
+
+            // The smoothstep slope is at most 1.5 and the interpolated corner difference at most 2,
+            // so the gradient of the potential is at most 3 along each axis.
+            acceleration[0] += strength * dPsiDy / 3f;
+            acceleration[1] -= strength * dPsiDx / 3f;
+        }
+
+        private float corner(int cellX, int cellY) {
+            // Murmur3 32-bit finalizer over the lattice coordinates.
+            int h = seed + cellX * 0x9E3779B9 + cellY * 0x85EBCA6B;
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            h *= 0xC2B2AE35;
+            h ^= h >>> 16;
+            return (h >>> 8) / (float) (1 << 23) - 1f;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti.confetto;
+
+import android.view.animation.Interpolator;
+
+/**
+ * A float value over the lifetime of a confetto, baked into a fixed-size lookup table so that
+ * sampling it on every frame is a single array access instead of an {@link Interpolator} call.
+ *
+ * <p>The lifetime progress goes from 0 (spawned) to 1 (reached TTL or its bound).
+ */
+public class LifetimeCurve {
+    public static final int RESOLUTION = 128;
+
+    private final float[] values = new float[RESOLUTION];
+
+    private LifetimeCurve() {
+    }
+
+    /**
+     * Bake the provided interpolator into a curve.
+     *
+     * @param interpolator the interpolator that maps lifetime progress [0, 1] into a value.
+     * @return the baked curve.
+     */
+    public static LifetimeCurve fromInterpolator(Interpolator interpolator) {
+        final LifetimeCurve curve = new LifetimeCurve();
+        for (int i = 0; i < RESOLUTION; i++) {
+            curve.values[i] = interpolator.getInterpolation((float) i / (RESOLUTION - 1));
+        }
+        return curve;
+    }
+
+    /**
+     * Bake a list of keyframes into a curve. Values between keyframes are linearly interpolated,
+     * and values outside of the first and last keyframes are clamped.
+     *
+     * @param progress the lifetime progress [0, 1] of each keyframe in increasing order.
+     * @param values the value of each keyframe.
+     * @return the baked curve.
+     */
+    public static LifetimeCurve fromKeyframes(float[] progress, float[] values) {
+        checkKeyframes(progress, values.length);
+        final LifetimeCurve curve = new LifetimeCurve();
+        int keyframe = 0;
+        for (int i = 0; i < RESOLUTION; i++) {
+            final float p = (float) i / (RESOLUTION - 1);
+            while (keyframe < progress.length - 1 && progress[keyframe + 1] <= p) {
+                keyframe++;
+            }
+            curve.values[i] = keyframe == progress.length - 1 || p <= progress[keyframe]
+                    ? values[keyframe]
+                    : lerp(values[keyframe], values[keyframe + 1],
+                            getFraction(progress, keyframe, p));
+        }
+        return curve;
+    }
+
+    /**
+     * @param value the value for the entire lifetime.
+     * @return a curve that always samples to the provided value.
+     */
+    public static LifetimeCurve constant(float value) {
+        final LifetimeCurve curve = new LifetimeCurve();
+        for (int i = 0; i < RESOLUTION; i++) {
+            curve.values[i] = value;
+        }
+        return curve;
+    }
+
+    /**
+     * @param progress the lifetime progress [0, 1] of the confetto.
+     * @return the value of this curve at the provided progress.
+     */
+    public float sample(float progress) {
+        return values[getIndex(progress)];
+    }
+
+    static int getIndex(float progress) {
+        if (progress <= 0f) {
+            return 0;
+        } else if (progress >= 1f) {
+            return RESOLUTION - 1;
+        } else {
+            return (int) (progress * (RESOLUTION - 1) + 0.5f);
+        }
+    }
+
+    static void checkKeyframes(float[] progress, int numValues) {
+        if (progress.length == 0 || progress.length != numValues) {
+            throw new IllegalArgumentException(
+                    "Keyframes must be non-empty and have one value per progress");
+        }
+        for (int i = 1; i < progress.length; i++) {
+            if (progress[i] < progress[i - 1]) {
+                throw new IllegalArgumentException("Keyframe progress must be increasing");
+            }
+        }
+    }
+
+    static float getFraction(float[] progress, int keyframe, float p) {
+        final float span = progress[keyframe + 1] - progress[keyframe];
+        return span > 0f ? (p - progress[keyframe]) / span : 1f;
+    }
+
+    private static float lerp(float from, float to, float fraction) {
+        return from + (to - from) * fraction;
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti.confetto;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+/**
+ * A {@link BitmapConfetto} drawn from an {@link Bitmap.Config#ALPHA_8} mask and tinted with the
+ * paint color at draw time. Since the mask carries no color, one mask per shape can be shared
+ * across every color and the color can change every time the confetto is re-used.
+ */
+public class MaskConfetto extends BitmapConfetto {
+    private int color;
+
+    public MaskConfetto(Bitmap mask) {
+        this(mask, Color.BLACK);
+    }
+
+    public MaskConfetto(Bitmap mask, int color) {
+        super(mask);
+        this.color = color;
+    }
+
+    public MaskConfetto(SpriteMipmap mask) {
+        this(mask, Color.BLACK);
+    }
+
+    public MaskConfetto(SpriteMipmap mask, int color) {
+        super(mask);
+        this.color = color;
+    }
+
+    @Override
+    public void setColor(int color) {
+        if (this.color != color) {
+            this.color = color;
+            invalidatePaint();
+        }
+    }
+
+    @Override
+    protected void configurePaint(Paint paint) {
+        paint.setColor(color);
+        super.configurePaint(paint);
+    }
+}
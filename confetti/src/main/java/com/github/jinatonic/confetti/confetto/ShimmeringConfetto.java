@@ -24,7 +24,6 @@ import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.PorterDuff;
 import android.graphics.PorterDuffColorFilter;
-import android.os.SystemClock;
 
 import java.util.Random;
 
@@ -32,6 +31,7 @@ public class ShimmeringConfetto extends BitmapConfetto {
     private final ArgbEvaluator evaluator = new ArgbEvaluator();
     private final int fromColor, toColor;
     private final long waveLength, halfWaveLength;
+    // Random phase offset so that the confetti don't all shimmer in sync.
     private final long randomStart;
 
     public ShimmeringConfetto(Bitmap bitmap, int fromColor, int toColor, long waveLength,
@@ -42,15 +42,21 @@ public class ShimmeringConfetto extends BitmapConfetto {
         this.waveLength = waveLength;
         this.halfWaveLength = waveLength / 2;
 
-        final int currentTime = Math.abs((int) SystemClock.elapsedRealtime());
-        this.randomStart = currentTime - random.nextInt(currentTime);
+        this.randomStart = (long) (random.nextFloat() * waveLength);
+    }
+
+    @Override
+    public boolean isLookConstant() {
+        // Keeps shimmering while it rests.
+        return false;
     }
 
     @Override
     protected void drawInternal(Canvas canvas, Matrix matrix, Paint paint, float x, float y,
             float rotation, float percentageAnimated) {
-        final long currTime = SystemClock.elapsedRealtime();
-        final long fraction = (currTime - randomStart) % waveLength;
+        // Based on the confetto's own animation time rather than the wall clock, so the phase
+        // stays precise however long the animation has been running.
+        final long fraction = (randomStart + getAnimatedTime()) % waveLength;
         final float animated = fraction < halfWaveLength
                 ? (float) fraction / halfWaveLength
                 : ((float) waveLength - fraction) / halfWaveLength;
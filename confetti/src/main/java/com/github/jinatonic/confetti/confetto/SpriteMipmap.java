@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2016 Robinhood Markets, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.jinatonic.confetti.confetto;
+
+import android.graphics.Bitmap;
+
+/**
+ * A chain of power-of-two downscaled copies of a sprite. Scaled-down confetti draw from the
+ * smallest level that is still at least as large as the confetto on screen, so that shrinking
+ * confetti stay crisp and the full-size bitmap is never minified on every frame.
+ */
+public class SpriteMipmap {
+    private final Bitmap[] levels;
+
+    /**
+     * Build a mipmap chain from the provided sprite, halving the size at every level until
+     * either dimension would drop below a single pixel.
+     *
+     * @param sprite the full size sprite, used as level 0.
+     */
+    public SpriteMipmap(Bitmap sprite) {
+        this(sprite, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param sprite the full size sprite, used as level 0.
+     * @param maxLevels the maximum number of levels including the full size sprite.
+     */
+    public SpriteMipmap(Bitmap sprite, int maxLevels) {
+        int numLevels = 1;
+        int width = sprite.getWidth(), height = sprite.getHeight();
+        while (numLevels < maxLevels && width >= 2 && height >= 2) {
+            width /= 2;
+            height /= 2;
+            numLevels++;
+        }
+
+        this.levels = new Bitmap[numLevels];
+        levels[0] = sprite;
+        for (int i = 1; i < numLevels; i++) {
+            final Bitmap previous = levels[i - 1];
+            levels[i] = Bitmap.createScaledBitmap(previous,
+                    previous.getWidth() / 2, previous.getHeight() / 2, true);
+        }
+    }
+
+    /**
+     * @return the full size sprite.
+     */
+    public Bitmap getSprite() {
+        return levels[0];
+    }
+
+    /**
+     * @return the number of levels in this chain including the full size sprite.
+     */
+    public int getNumLevels() {
+        return levels.length;
+    }
+
+    public Bitmap getLevel(int level) {
+        return levels[level];
+    }
+
+    /**
+     * @param scale the scale that the full size sprite would be drawn at.
+     * @return the level whose size is the closest to, but not smaller than, the scaled sprite.
+     */
+    public int getLevelForScale(float scale) {
+        int level = 0;
+        while (level < levels.length - 1 && scale <= 0.5f) {
+            scale *= 2f;
+            level++;
+        }
+        return level;
+    }
+}
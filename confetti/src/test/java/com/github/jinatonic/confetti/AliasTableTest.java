@@ -0,0 +1,30 @@
+package com.github.jinatonic.confetti;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class AliasTableTest {
+
+    @Test
+    public void test_sample_proportionalToWeights() {
+        final AliasTable table = new AliasTable(new float[] { 8f, 0f, 2f });
+        final Random random = new Random(42);
+        final int[] counts = new int[3];
+        final int numSamples = 100000;
+        for (int i = 0; i < numSamples; i++) {
+            counts[table.sample(random)]++;
+        }
+
+        assertEquals(0.8f, (float) counts[0] / numSamples, 0.01f);
+        assertEquals(0, counts[1]);
+        assertEquals(0.2f, (float) counts[2] / numSamples, 0.01f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_allZeroWeights() {
+        new AliasTable(new float[] { 0f, 0f });
+    }
+}
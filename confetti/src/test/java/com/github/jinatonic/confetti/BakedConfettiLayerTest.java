@@ -0,0 +1,214 @@
+package com.github.jinatonic.confetti;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.github.jinatonic.confetti.confetto.CircleConfetto;
+import com.github.jinatonic.confetti.confetto.Confetto;
+import com.github.jinatonic.confetti.confetto.LifetimeCurve;
+import com.github.jinatonic.confetti.confetto.ShimmeringConfetto;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class BakedConfettiLayerTest {
+    private static final int NUM_CONFETTI = 5000;
+
+    private ConfettiManager confettiManager;
+    private ConfettiView confettiView;
+    private final CountingCanvas canvas = new CountingCanvas();
+
+    @Before
+    public void setup() {
+        final FrameLayout container = new FrameLayout(RuntimeEnvironment.application);
+        container.measure(View.MeasureSpec.makeMeasureSpec(400, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        container.layout(0, 0, 400, 800);
+        final ConfettoGenerator generator = new ConfettoGenerator() {
+            @Override
+            public Confetto generateConfetto(Random random) {
+                return new CircleConfetto(Color.RED, 5f);
+            }
+        };
+        confettiManager = new ConfettiManager(RuntimeEnvironment.application, generator,
+                new ConfettiSource(0, 0, 400, 800), container)
+                .setNumInitialCount(NUM_CONFETTI)
+                .setEmissionDuration(0)
+                .setVelocityY(0.01f)
+                .setTTL(-1)
+                .animate();
+        // Lay out the attached confetti view so that the layer has a size.
+        container.measure(View.MeasureSpec.makeMeasureSpec(400, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        container.layout(0, 0, 400, 800);
+        confettiView = (ConfettiView) container.getChildAt(0);
+    }
+
+    @Test
+    public void test_staticConfetti_costOneBlitPerFrame() {
+        for (Confetto confetto : confettiManager.getConfetti()) {
+            confetto.setStatic(true);
+        }
+        confettiManager.onAnimationFrame(16);
+
+        for (int frame = 2; frame <= 3; frame++) {
+            confettiManager.onAnimationFrame(frame * 16);
+            canvas.reset();
+            confettiView.onDraw(canvas);
+
+            assertEquals(1, canvas.numBitmaps);
+            assertEquals(1, canvas.getNumDraws());
+        }
+    }
+
+    @Test
+    public void test_staticConfetti_areFrozen() {
+        final Confetto confetto = confettiManager.getConfetti().get(0);
+        confettiManager.onAnimationFrame(16);
+        final float y = confetto.getCurrentY();
+        confetto.setStatic(true);
+
+        confettiManager.onAnimationFrame(1000);
+
+        assertTrue(confetto.isBaked());
+        assertEquals(y, confetto.getCurrentY(), 0f);
+    }
+
+    @Test
+    public void test_nonStaticConfetti_areUnbakedAndDrawnLive() {
+        final List<Confetto> confetti = confettiManager.getConfetti();
+        for (Confetto confetto : confetti) {
+            confetto.setStatic(true);
+        }
+        confettiManager.onAnimationFrame(16);
+        confetti.get(0).setStatic(false);
+        confettiManager.onAnimationFrame(32);
+
+        assertFalse(confetti.get(0).isBaked());
+        assertTrue(confetti.get(1).isBaked());
+        canvas.reset();
+        confettiView.onDraw(canvas);
+        assertEquals(1, canvas.numBitmaps);
+        assertEquals(1, canvas.numCircles);
+    }
+
+    @Test
+    public void test_staticConfetti_withLifetimeCurves_areDrawnLive() {
+        final Confetto confetto = confettiManager.getConfetti().get(0);
+        confetto.setAlphaCurve(LifetimeCurve.fromKeyframes(
+                new float[] { 0f, 1f }, new float[] { 1f, 0f }));
+        confetto.setStatic(true);
+        confettiManager.onAnimationFrame(16);
+
+        assertFalse(confetto.isBaked());
+    }
+
+    @Test
+    public void test_staticShimmeringConfetti_areDrawnLive() {
+        final Bitmap bitmap = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+        final ConfettoGenerator generator = new ConfettoGenerator() {
+            @Override
+            public Confetto generateConfetto(Random random) {
+                return new ShimmeringConfetto(bitmap, Color.RED, Color.BLUE, 1000, random);
+            }
+        };
+        final FrameLayout container = new FrameLayout(RuntimeEnvironment.application);
+        final ConfettiManager shimmeringManager = new ConfettiManager(
+                RuntimeEnvironment.application, generator, new ConfettiSource(0, 0), container)
+                .setNumInitialCount(1)
+                .setEmissionDuration(0)
+                .setTTL(-1)
+                .animate();
+        final Confetto confetto = shimmeringManager.getConfetti().get(0);
+        confetto.setStatic(true);
+        shimmeringManager.onAnimationFrame(16);
+
+        assertFalse(confetto.isBaked());
+    }
+
+    @Test
+    public void test_removedConfetti_leaveTheRestInOrder() {
+        final List<Confetto> drawn = new ArrayList<>();
+        final BakedConfettiLayer layer = new BakedConfettiLayer();
+        final List<Confetto> confetti = new ArrayList<>();
+        for (int i = 0; i < NUM_CONFETTI; i++) {
+            final Confetto confetto = new CircleConfetto(Color.RED, 5f) {
+                @Override
+                protected void drawInternal(Canvas canvas, Matrix matrix, Paint paint, float x,
+                        float y, float rotation, float percentageAnimated) {
+                    drawn.add(this);
+                }
+            };
+            confetto.setTTL(-1);
+            confetto.prepare(new Rect(0, 0, 400, 800));
+            confetto.applyUpdate(0);
+            layer.add(confetto);
+            confetti.add(confetto);
+        }
+
+        // Remove every other confetto, then one of them again.
+        final List<Confetto> remaining = new ArrayList<>();
+        for (int i = 0; i < NUM_CONFETTI; i++) {
+            if (i % 2 == 0) {
+                layer.remove(confetti.get(i));
+            } else {
+                remaining.add(confetti.get(i));
+            }
+        }
+        layer.remove(confetti.get(0));
+        assertEquals(NUM_CONFETTI / 2, layer.size());
+        assertFalse(confetti.get(0).isBaked());
+
+        layer.draw(canvas, 400, 800);
+        assertEquals(remaining, drawn);
+        for (int i = 0; i < remaining.size(); i++) {
+            assertEquals(i, remaining.get(i).getBakedIndex());
+        }
+
+        // Slots freed by the compaction don't confuse later removals.
+        layer.remove(remaining.get(0));
+        layer.remove(confetti.get(2));
+        drawn.clear();
+        layer.release();
+        layer.draw(canvas, 400, 800);
+        assertEquals(remaining.subList(1, remaining.size()), drawn);
+        assertTrue(remaining.get(1).isBaked());
+    }
+
+    @Test
+    public void test_staticConfetti_onlyExpireWithTTL() {
+        final Confetto confetto = new CircleConfetto(Color.RED, 5f);
+        confetto.setInitialVelocityY(0.5f);
+        confetto.setTTL(-1);
+        confetto.prepare(new Rect(0, 0, 400, 800));
+        assertTrue(confetto.applyUpdate(100));
+        confetto.setStatic(true);
+
+        // It would have left the bound after about 1.6 seconds if it kept moving.
+        assertTrue(confetto.applyUpdate(60000));
+
+        confetto.setTTL(70000);
+        assertTrue(confetto.applyUpdate(69999));
+        assertFalse(confetto.applyUpdate(70000));
+    }
+}
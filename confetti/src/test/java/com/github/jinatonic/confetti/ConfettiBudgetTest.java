@@ -0,0 +1,77 @@
+package com.github.jinatonic.confetti;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ConfettiBudgetTest {
+
+    @Test
+    public void test_unlimitedByDefault() {
+        final ConfettiBudget budget = new ConfettiBudget();
+        final ConfettiBudget.Allocation allocation = new ConfettiBudget.Allocation();
+        budget.activate(allocation);
+        assertEquals(1000, budget.acquireSpawns(allocation, 1000));
+    }
+
+    @Test
+    public void test_sharesLimitsByWeight() {
+        final ConfettiBudget budget = new ConfettiBudget();
+        budget.setMaxLiveConfetti(100);
+        final ConfettiBudget.Allocation heavy = new ConfettiBudget.Allocation();
+        final ConfettiBudget.Allocation light = new ConfettiBudget.Allocation();
+        budget.setWeight(heavy, 3f);
+        budget.activate(heavy);
+        budget.activate(light);
+
+        assertEquals(75, heavy.getLiveLimit());
+        assertEquals(25, light.getLiveLimit());
+
+        // The noisy allocation cannot take more than its share
+        assertEquals(75, budget.acquireSpawns(heavy, 1000));
+        assertEquals(25, budget.acquireSpawns(light, 1000));
+        assertEquals(0, budget.acquireSpawns(heavy, 1));
+
+        // Everything goes to the remaining allocation once the other one stops
+        budget.deactivate(light);
+        assertEquals(100, heavy.getLiveLimit());
+        assertEquals(25, budget.acquireSpawns(heavy, 1000));
+    }
+
+    @Test
+    public void test_spawnLimitResetsEveryFrame() {
+        final ConfettiBudget budget = new ConfettiBudget();
+        budget.setMaxSpawnsPerFrame(10);
+        final ConfettiBudget.Allocation allocation = new ConfettiBudget.Allocation();
+        budget.activate(allocation);
+
+        assertEquals(10, budget.acquireSpawns(allocation, 20));
+        assertEquals(0, budget.acquireSpawns(allocation, 20));
+        budget.onFrame(allocation, 10);
+        assertEquals(10, budget.acquireSpawns(allocation, 20));
+        assertEquals(20, budget.getTotalLiveCount());
+    }
+
+    @Test
+    public void test_sharesNeverExceedLimit_withMoreAllocationsThanLimit() {
+        final ConfettiBudget budget = new ConfettiBudget();
+        budget.setMaxLiveConfetti(10);
+        budget.setMaxSpawnsPerFrame(7);
+        final ConfettiBudget.Allocation[] allocations = new ConfettiBudget.Allocation[20];
+        for (int i = 0; i < allocations.length; i++) {
+            allocations[i] = new ConfettiBudget.Allocation();
+            budget.activate(allocations[i]);
+        }
+
+        int totalLiveLimit = 0, totalSpawnLimit = 0, totalGranted = 0;
+        for (ConfettiBudget.Allocation allocation : allocations) {
+            totalLiveLimit += allocation.getLiveLimit();
+            totalSpawnLimit += allocation.getSpawnLimitPerFrame();
+            totalGranted += budget.acquireSpawns(allocation, 1000);
+        }
+        assertEquals(10, totalLiveLimit);
+        assertEquals(7, totalSpawnLimit);
+        assertEquals(7, totalGranted);
+        assertEquals(7, budget.getTotalLiveCount());
+    }
+}
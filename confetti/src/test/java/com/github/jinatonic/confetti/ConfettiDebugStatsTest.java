@@ -0,0 +1,35 @@
+package com.github.jinatonic.confetti;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ConfettiDebugStatsTest {
+
+    @Test
+    public void test_countsDroppedFrames() {
+        final ConfettiDebugStats stats = new ConfettiDebugStats();
+        stats.reset(16f, null);
+        stats.onFrame(0);
+        stats.onFrame(16);
+        stats.onFrame(32);
+        // Three frame intervals later, so two frames were dropped.
+        stats.onFrame(80);
+        assertEquals(2, stats.getNumDroppedFrames());
+    }
+
+    @Test
+    public void test_recordsSamplesAndSpawnRate() {
+        final ConfettiDebugStats stats = new ConfettiDebugStats();
+        stats.reset(16f, null);
+        final ConfettoPool pool = new ConfettoPool(10);
+        stats.recordUpdate(500, 1000000, 10, 10, pool);
+        stats.recordUpdate(1000, 2000000, 20, 30, pool);
+
+        assertEquals(2f, stats.getUpdateMillis(0), 0f);
+        assertEquals(1f, stats.getUpdateMillis(1), 0f);
+        assertEquals(30f, stats.getSpawnsPerSecond(), 0f);
+        assertEquals(30, stats.getNumLive());
+        assertEquals(10, stats.getPoolCapacity());
+    }
+}
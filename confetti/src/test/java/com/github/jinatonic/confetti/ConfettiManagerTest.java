@@ -0,0 +1,243 @@
+package com.github.jinatonic.confetti;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.view.View;
+import android.view.animation.LinearInterpolator;
+import android.widget.FrameLayout;
+
+import com.github.jinatonic.confetti.confetto.CircleConfetto;
+import com.github.jinatonic.confetti.confetto.Collider;
+import com.github.jinatonic.confetti.confetto.Confetto;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ConfettiManagerTest {
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 800;
+
+    private FrameLayout container;
+    private int numGenerated;
+    private final ConfettoGenerator generator = new ConfettoGenerator() {
+        @Override
+        public Confetto generateConfetto(Random random) {
+            numGenerated++;
+            return new CircleConfetto(Color.RED, 5f);
+        }
+    };
+
+    @Before
+    public void setup() {
+        container = new FrameLayout(RuntimeEnvironment.application);
+        container.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        container.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void test_estimateCapacity() {
+        final ConfettiManager confettiManager = newManager(new ConfettiSource(200, 400))
+                .setNumInitialCount(10)
+                .setEmissionDuration(ConfettiManager.INFINITE_DURATION)
+                .setEmissionRate(125)
+                .setTTL(1000);
+
+        ConfettiManager.CapacityEstimate estimate = confettiManager.estimateCapacity();
+        assertEquals(1000, estimate.maxLifetimeMillis);
+        assertEquals(10 + 125, estimate.peakLiveCount);
+        assertEquals(135L * ConfettiManager.ESTIMATED_CONFETTO_BYTES,
+                estimate.particleStateBytes);
+        // The live confetti and the baked layer.
+        assertEquals(135 + 1, estimate.maxSpritesPerFrame);
+
+        confettiManager.enableTrails(4, 1f, Color.RED)
+                .addSubEmitter(SubEmitter.onDeath(3, new EmitterConfig.Builder().build()))
+                .setMaxSubEmitterSpawnsPerFrame(50);
+        estimate = confettiManager.estimateCapacity();
+        assertEquals(135 + 50 + 1 + 1, estimate.maxSpritesPerFrame);
+    }
+
+    @Test
+    public void test_prewarm_accountsForConfettoSizeBeforeAnimating() {
+        // Only stays within the bound until the confetto has fully moved past its left edge.
+        final ConfettiManager confettiManager = newManager(new ConfettiSource(0, 400))
+                .setEmissionDuration(ConfettiManager.INFINITE_DURATION)
+                .setEmissionRate(1000)
+                .setVelocityX(-100)
+                .setTTL(-1)
+                .setPrewarmEnabled(true)
+                .animate();
+
+        final ConfettiManager.CapacityEstimate estimate = confettiManager.estimateCapacity();
+        assertTrue(estimate.maxLifetimeMillis > 0);
+        assertTrue(estimate.peakLiveCount > 0);
+        assertEquals(estimate.peakLiveCount, numGenerated);
+    }
+
+    @Test
+    public void test_prewarm_isCapped() {
+        newManager(new ConfettiSource(200, 400))
+                .setEmissionDuration(ConfettiManager.INFINITE_DURATION)
+                .setEmissionRate(1000)
+                .setTTL(60000)
+                .setPrewarmEnabled(true)
+                .animate();
+
+        assertEquals(ConfettiManager.MAX_PREWARM_COUNT, numGenerated);
+    }
+
+    @Test
+    public void test_expiredSettledConfetto_leavesPile() {
+        final Collider collider = new Collider(64f).setFloor(HEIGHT);
+        // The fade out keeps the settled confetto from being baked.
+        final ConfettiManager confettiManager = newManager(new ConfettiSource(200, 0))
+                .setNumInitialCount(1)
+                .setEmissionDuration(ConfettiManager.INFINITE_DURATION)
+                .setVelocityY(500)
+                .setAccelerationY(1000)
+                .setTTL(3000)
+                .enableFadeOut(new LinearInterpolator())
+                .setCollider(collider)
+                .animate();
+
+        long time = 0;
+        for (; time < 2500; time += 16) {
+            confettiManager.onAnimationFrame(time);
+        }
+        final Confetto settled = confettiManager.getConfetti().get(0);
+        assertTrue(settled.isSettled());
+        assertFalse(settled.isBaked());
+        for (; time < 3500; time += 16) {
+            confettiManager.onAnimationFrame(time);
+        }
+        assertEquals(0, confettiManager.getConfetti().size());
+
+        // Falls onto the floor instead of the pile of the expired confetto.
+        final Confetto confetto = new CircleConfetto(Color.RED, 5f);
+        confetto.setInitialX(200f);
+        confetto.setAccelerationY(0.001f);
+        confetto.setTTL(-1);
+        confetto.setCollider(collider);
+        confetto.prepare(new Rect(0, 0, WIDTH, HEIGHT));
+        for (time = 0; time <= 5000 && !confetto.isSettled(); time += 16) {
+            confetto.applyUpdate(time);
+        }
+        assertTrue(confetto.isSettled());
+        assertEquals(HEIGHT, confetto.getCurrentY() + confetto.getHeight(), 0.01f);
+    }
+
+    @Test
+    public void test_proceduralReplay_matchesFullPrepare() {
+        final ConfettiManager replayed = newProceduralManager();
+        final ConfettiManager solved = newProceduralManager();
+
+        // Only the first one draws along the way, so all of its later draws are replays.
+        long time = 0;
+        for (; time <= 1200; time += 16) {
+            replayed.onAnimationFrame(time);
+            solved.onAnimationFrame(time);
+            drawCircles(replayed.getProceduralConfetti());
+        }
+
+        final List<Float> expected = drawCircles(solved.getProceduralConfetti());
+        assertTrue(expected.size() > 0);
+        assertEquals(expected, drawCircles(replayed.getProceduralConfetti()));
+    }
+
+    @Test
+    public void test_frameRateCap_holdsAtHighRefreshRates() {
+        assertEquals(30, countDrawnFrames(30, 120));
+        assertEquals(30, countDrawnFrames(30, 90));
+        assertEquals(30, countDrawnFrames(30, 60));
+        assertEquals(20, countDrawnFrames(20, 60));
+    }
+
+    /**
+     * @return the number of frames that update the confetti over the second of vsyncs following
+     *   a first frame at the provided refresh rate, with the frame rate capped at
+     *   maxFramesPerSecond.
+     */
+    private int countDrawnFrames(int maxFramesPerSecond, int refreshRate) {
+        final ConfettiPowerProfile profile = new ConfettiPowerProfile(maxFramesPerSecond, 1f,
+                true);
+        final ConfettiManager confettiManager = newManager(new ConfettiSource(200, 0))
+                .setNumInitialCount(1)
+                .setEmissionDuration(0)
+                .setVelocityY(10)
+                .setTTL(-1)
+                .enablePowerSaving(new ConfettiPowerPolicy() {
+                    @Override
+                    public ConfettiPowerProfile getProfile(boolean powerSaveMode,
+                            int thermalStatus) {
+                        return profile;
+                    }
+                })
+                .animate();
+        confettiManager.onAnimationFrame(0);
+        final Confetto confetto = confettiManager.getConfetti().get(0);
+
+        int numDrawn = 0;
+        float y = confetto.getCurrentY();
+        for (int vsync = 1; vsync <= refreshRate; vsync++) {
+            confettiManager.onAnimationFrame(vsync * 1000L / refreshRate);
+            if (confetto.getCurrentY() != y) {
+                y = confetto.getCurrentY();
+                numDrawn++;
+            }
+        }
+        return numDrawn;
+    }
+
+    private ConfettiManager newProceduralManager() {
+        final ConfettiManager confettiManager = newManager(new ConfettiSource(0, 0, WIDTH, 0))
+                .setNumInitialCount(50)
+                .setEmissionDuration(ConfettiManager.INFINITE_DURATION)
+                .setEmissionRate(100)
+                .setVelocityX(0, 200)
+                .setVelocityY(100, 100)
+                .setAccelerationY(500)
+                .setTTL(800)
+                .setColors(new int[] { Color.RED, Color.GREEN, Color.BLUE })
+                .enableProceduralMode(4);
+        confettiManager.setRandomSeed(1);
+        return confettiManager.animate();
+    }
+
+    /**
+     * @return the position and color of every circle drawn, three floats per circle.
+     */
+    private static List<Float> drawCircles(ProceduralConfetti proceduralConfetti) {
+        final List<Float> circles = new ArrayList<>();
+        proceduralConfetti.draw(new Canvas() {
+            @Override
+            public void drawCircle(float cx, float cy, float radius, Paint paint) {
+                circles.add(cx);
+                circles.add(cy);
+                circles.add((float) paint.getColor());
+            }
+        }, null);
+        return circles;
+    }
+
+    private ConfettiManager newManager(ConfettiSource confettiSource) {
+        return new ConfettiManager(RuntimeEnvironment.application, generator, confettiSource,
+                container);
+    }
+}
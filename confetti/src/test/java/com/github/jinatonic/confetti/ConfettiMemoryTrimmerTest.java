@@ -0,0 +1,144 @@
+package com.github.jinatonic.confetti;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.github.jinatonic.confetti.confetto.CircleConfetto;
+import com.github.jinatonic.confetti.confetto.Confetto;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ConfettiMemoryTrimmerTest {
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 800;
+    private static final long LAYER_BYTES = WIDTH * HEIGHT * 4;
+
+    private final ConfettiMemoryTrimmer trimmer = ConfettiMemoryTrimmer.getInstance();
+    private FrameLayout container;
+    private ConfettiManager confettiManager;
+    private ConfettiView confettiView;
+    private long spriteBytes;
+
+    @Before
+    public void setup() {
+        // Start from empty caches, whatever other managers are still registered.
+        trimmer.trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+
+        container = new FrameLayout(RuntimeEnvironment.application);
+        layout();
+        final ConfettoGenerator generator = new ConfettoGenerator() {
+            @Override
+            public Confetto generateConfetto(Random random) {
+                return new CircleConfetto(Color.RED, 5f);
+            }
+        };
+        confettiManager = new ConfettiManager(RuntimeEnvironment.application, generator,
+                new ConfettiSource(0, 0, WIDTH, HEIGHT), container)
+                .setNumInitialCount(10)
+                .setEmissionDuration(ConfettiManager.INFINITE_DURATION)
+                .setEmissionRate(100)
+                .setVelocityY(0.01f)
+                .setTTL(1000)
+                .setPrewarmEnabled(true)
+                .animate();
+        layout();
+        confettiView = (ConfettiView) container.getChildAt(0);
+    }
+
+    @Test
+    public void test_runningManager_isOnlyTrimmedUnderPressure() {
+        fill();
+        final long poolBytes = getPoolBytes();
+        final int numPooled = getPool().size();
+        assertTrue(numPooled > 0);
+
+        assertReleased(0, ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+        assertReleased(0, ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+        assertEquals(numPooled, getPool().size());
+
+        // The app is in the background, but the animation keeps its pool.
+        assertReleased(spriteBytes, ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN);
+        assertEquals(numPooled, getPool().size());
+
+        assertReleased(0, ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+        assertReleased(poolBytes + LAYER_BYTES, ComponentCallbacks2.TRIM_MEMORY_MODERATE);
+        assertEquals(0, getPool().size());
+        assertEquals(1, getPool().capacity());
+    }
+
+    @Test
+    public void test_runningManager_isTrimmedWhenRunningCritical() {
+        fill();
+        final long poolBytes = getPoolBytes();
+
+        assertReleased(poolBytes + LAYER_BYTES + spriteBytes,
+                ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL);
+        assertEquals(0, getPool().size());
+        assertReleased(0, ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+    }
+
+    @Test
+    public void test_stoppedManager_isAlwaysTrimmed() {
+        confettiManager.terminate();
+        fill();
+        final long poolBytes = getPoolBytes();
+        assertTrue(getPool().size() > 0);
+
+        assertReleased(poolBytes, ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+        assertEquals(0, getPool().size());
+    }
+
+    private void layout() {
+        container.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        container.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    /**
+     * Fill the sprite cache and, while the manager is running, its baked layer.
+     */
+    private void fill() {
+        spriteBytes = 0;
+        for (Bitmap mask : ConfettiSprites.getDefaultMasks(10)) {
+            spriteBytes += mask.getByteCount();
+        }
+        assertTrue(spriteBytes > 0);
+
+        if (!confettiManager.getConfetti().isEmpty()) {
+            confettiManager.getConfetti().get(0).setStatic(true);
+            confettiManager.onAnimationFrame(16);
+            assertTrue(confettiManager.getConfetti().get(0).isBaked());
+            confettiView.onDraw(new CountingCanvas());
+        }
+    }
+
+    private ConfettoPool getPool() {
+        return confettiManager.getRecycledConfetti();
+    }
+
+    private long getPoolBytes() {
+        return (long) getPool().size() * ConfettiManager.ESTIMATED_CONFETTO_BYTES
+                + (long) (getPool().capacity() - 1) * ConfettoPool.BYTES_PER_SLOT;
+    }
+
+    private void assertReleased(long expected, int level) {
+        final long totalReleasedBytes = trimmer.getTotalReleasedBytes();
+        trimmer.onTrimMemory(level);
+        assertEquals(expected, trimmer.getTotalReleasedBytes() - totalReleasedBytes);
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.jinatonic.confetti;
+
+import android.os.PowerManager;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+public class ConfettiPowerPolicyTest {
+
+    @Test
+    public void test_defaultPolicy_fullWhenIdle() {
+        assertSame(ConfettiPowerProfile.FULL, ConfettiPowerPolicy.DEFAULT.getProfile(
+                false, PowerManager.THERMAL_STATUS_LIGHT));
+    }
+
+    @Test
+    public void test_defaultPolicy_reducedInPowerSaveMode() {
+        final ConfettiPowerProfile profile = ConfettiPowerPolicy.DEFAULT.getProfile(
+                true, PowerManager.THERMAL_STATUS_NONE);
+        assertEquals(30, profile.getMaxFramesPerSecond());
+        assertEquals(0.5f, profile.getEmissionRateMultiplier(), 0f);
+        assertFalse(profile.isAntiAlias());
+    }
+
+    @Test
+    public void test_defaultPolicy_minimalWhenSevere() {
+        final ConfettiPowerProfile profile = ConfettiPowerPolicy.DEFAULT.getProfile(
+                false, PowerManager.THERMAL_STATUS_CRITICAL);
+        assertEquals(20, profile.getMaxFramesPerSecond());
+        assertEquals(0.25f, profile.getEmissionRateMultiplier(), 0f);
+    }
+}
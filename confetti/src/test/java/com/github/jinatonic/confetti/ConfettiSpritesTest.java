@@ -0,0 +1,34 @@
+package com.github.jinatonic.confetti;
+
+import android.graphics.Bitmap;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ConfettiSpritesTest {
+    @Test
+    public void test_decodeStream_scalesToSizeWithoutDensity() throws IOException {
+        final ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB), "png", png);
+
+        final Bitmap bitmap = ConfettiSprites.decodeStream("test",
+                new ByteArrayInputStream(png.toByteArray()), 30, 30);
+
+        assertEquals(30, bitmap.getWidth());
+        assertEquals(30, bitmap.getHeight());
+        assertEquals(Bitmap.DENSITY_NONE, bitmap.getDensity());
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.jinatonic.confetti;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ConfettiTraceTest {
+
+    @After
+    public void tearDown() {
+        ConfettiTrace.setTracer(null);
+    }
+
+    @Test
+    public void test_routesToInstalledTracer() {
+        final List<String> events = new ArrayList<>();
+        ConfettiTrace.setTracer(new ConfettiTracer() {
+            @Override
+            public void beginSection(String name) {
+                events.add("begin " + name);
+            }
+
+            @Override
+            public void endSection() {
+                events.add("end");
+            }
+
+            @Override
+            public void setCounter(String name, long value) {
+                events.add(name + "=" + value);
+            }
+        });
+
+        ConfettiTrace.beginSection(ConfettiTrace.SECTION_UPDATE);
+        ConfettiTrace.setCounter(ConfettiTrace.COUNTER_LIVE, 42);
+        ConfettiTrace.endSection();
+
+        assertEquals(3, events.size());
+        assertEquals("begin " + ConfettiTrace.SECTION_UPDATE, events.get(0));
+        assertEquals(ConfettiTrace.COUNTER_LIVE + "=42", events.get(1));
+        assertEquals("end", events.get(2));
+    }
+
+    @Test
+    public void test_nullRestoresSystemTracer() {
+        ConfettiTrace.setTracer(null);
+        assertSame(ConfettiTracer.SYSTEM, ConfettiTrace.getTracer());
+    }
+}
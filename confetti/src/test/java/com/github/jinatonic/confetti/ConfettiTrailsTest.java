@@ -0,0 +1,113 @@
+package com.github.jinatonic.confetti;
+
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import com.github.jinatonic.confetti.confetto.CircleConfetto;
+import com.github.jinatonic.confetti.confetto.Confetto;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ConfettiTrailsTest {
+    private final Rect bound = new Rect(0, 0, 1000, 1000);
+    private ConfettiTrails trails;
+    private LinesCanvas canvas;
+
+    @Before
+    public void setup() {
+        trails = new ConfettiTrails(4, 2f, Color.WHITE);
+        trails.setBound(bound);
+        canvas = new LinesCanvas();
+    }
+
+    @Test
+    public void test_record_keepsOnlyTheLastPositions() {
+        trails.add(0);
+        for (int i = 0; i < 10; i++) {
+            trails.record(0, confettoAt(i * 10, 0));
+        }
+
+        trails.draw(canvas);
+
+        assertEquals(1, canvas.numLines);
+        // Four positions make three segments, walking back from the newest position.
+        assertEquals(3 * 4, canvas.count);
+        assertEquals(90f, canvas.pts[0], 0f);
+        assertEquals(60f, canvas.pts[canvas.count - 2], 0f);
+    }
+
+    @Test
+    public void test_draw_batchesAllTrailsIntoSingleCall() {
+        for (int i = 0; i < 100; i++) {
+            trails.add(i);
+            trails.record(i, confettoAt(i, 0));
+            trails.record(i, confettoAt(i, 10));
+        }
+
+        trails.draw(canvas);
+
+        assertEquals(1, canvas.numLines);
+        assertEquals(100 * 4, canvas.count);
+    }
+
+    @Test
+    public void test_move_keepsTrailWithConfetto() {
+        trails.add(0);
+        trails.add(1);
+        trails.record(1, confettoAt(50, 0));
+        trails.record(1, confettoAt(60, 0));
+
+        // Confetto 0 dies and confetto 1 is compacted into its place.
+        trails.remove(0);
+        trails.move(1, 0);
+        trails.record(0, confettoAt(70, 0));
+        trails.draw(canvas);
+
+        assertEquals(2 * 4, canvas.count);
+        assertEquals(70f, canvas.pts[0], 0f);
+    }
+
+    @Test
+    public void test_getEffectiveLength_shortensTrailsUnderLoad() {
+        trails.setMaxSegments(30);
+        for (int i = 0; i < 10; i++) {
+            trails.add(i);
+        }
+        assertEquals(4, trails.getEffectiveLength());
+
+        for (int i = 10; i < 30; i++) {
+            trails.add(i);
+        }
+        assertEquals(2, trails.getEffectiveLength());
+    }
+
+    private Confetto confettoAt(float x, float y) {
+        final Confetto confetto = new CircleConfetto(Color.RED, 0f);
+        confetto.setInitialX(x);
+        confetto.setInitialY(y);
+        confetto.prepare(bound);
+        confetto.applyUpdate(0);
+        return confetto;
+    }
+
+    private static class LinesCanvas extends CountingCanvas {
+        float[] pts;
+        int count;
+
+        @Override
+        public void drawLines(float[] pts, int offset, int count, Paint paint) {
+            super.drawLines(pts, offset, count, paint);
+            this.pts = pts;
+            this.count = count;
+        }
+    }
+}
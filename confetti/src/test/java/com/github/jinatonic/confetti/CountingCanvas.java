@@ -0,0 +1,225 @@
+package com.github.jinatonic.confetti;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * A {@link Canvas} that records how many of each operation is issued instead of rasterizing
+ * anything. Paint mutations are counted as the number of draws whose paint differs from the
+ * previous draw's, since that is the state change the renderer has to pay for.
+ */
+public class CountingCanvas extends Canvas {
+    public int numSaves;
+    public int numRestores;
+    public int numClips;
+    public int numBitmaps;
+    public int numCircles;
+    public int numPoints;
+    public int numLines;
+    public int numOtherDraws;
+    public int numMatrixOps;
+    public int numPaintChanges;
+
+    private int saveCount = 1;
+    private Paint lastPaint;
+    private int lastColor;
+    private ColorFilter lastColorFilter;
+    private float lastStrokeWidth;
+
+    public void reset() {
+        numSaves = 0;
+        numRestores = 0;
+        numClips = 0;
+        numBitmaps = 0;
+        numCircles = 0;
+        numPoints = 0;
+        numLines = 0;
+        numOtherDraws = 0;
+        numMatrixOps = 0;
+        numPaintChanges = 0;
+        saveCount = 1;
+        lastPaint = null;
+    }
+
+    public int getNumDraws() {
+        return numBitmaps + numCircles + numPoints + numLines + numOtherDraws;
+    }
+
+    private void recordPaint(Paint paint) {
+        if (paint == null) {
+            return;
+        }
+        if (paint != lastPaint || paint.getColor() != lastColor
+                || paint.getColorFilter() != lastColorFilter
+                || paint.getStrokeWidth() != lastStrokeWidth) {
+            numPaintChanges++;
+            lastPaint = paint;
+            lastColor = paint.getColor();
+            lastColorFilter = paint.getColorFilter();
+            lastStrokeWidth = paint.getStrokeWidth();
+        }
+    }
+
+    private void recordMatrix(Matrix matrix) {
+        if (matrix != null && !matrix.isIdentity()) {
+            numMatrixOps++;
+        }
+    }
+
+    @Override
+    public int save() {
+        numSaves++;
+        return saveCount++;
+    }
+
+    @Override
+    public void restore() {
+        numRestores++;
+        saveCount--;
+    }
+
+    @Override
+    public int getSaveCount() {
+        return saveCount;
+    }
+
+    @Override
+    public boolean clipRect(Rect rect) {
+        numClips++;
+        return true;
+    }
+
+    @Override
+    public boolean clipRect(RectF rect) {
+        numClips++;
+        return true;
+    }
+
+    @Override
+    public boolean clipRect(float left, float top, float right, float bottom) {
+        numClips++;
+        return true;
+    }
+
+    @Override
+    public boolean clipRect(int left, int top, int right, int bottom) {
+        numClips++;
+        return true;
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+        numMatrixOps++;
+    }
+
+    @Override
+    public void scale(float sx, float sy) {
+        numMatrixOps++;
+    }
+
+    @Override
+    public void rotate(float degrees) {
+        numMatrixOps++;
+    }
+
+    @Override
+    public void concat(Matrix matrix) {
+        recordMatrix(matrix);
+    }
+
+    @Override
+    public void setMatrix(Matrix matrix) {
+        numMatrixOps++;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Matrix matrix, Paint paint) {
+        numBitmaps++;
+        recordMatrix(matrix);
+        recordPaint(paint);
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        numBitmaps++;
+        recordPaint(paint);
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
+        numBitmaps++;
+        recordPaint(paint);
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+        numBitmaps++;
+        recordPaint(paint);
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, Paint paint) {
+        numCircles++;
+        recordPaint(paint);
+    }
+
+    @Override
+    public void drawPoints(float[] pts, int offset, int count, Paint paint) {
+        numPoints++;
+        recordPaint(paint);
+    }
+
+    @Override
+    public void drawPoints(float[] pts, Paint paint) {
+        numPoints++;
+        recordPaint(paint);
+    }
+
+    @Override
+    public void drawLines(float[] pts, int offset, int count, Paint paint) {
+        numLines++;
+        recordPaint(paint);
+    }
+
+    @Override
+    public void drawLines(float[] pts, Paint paint) {
+        numLines++;
+        recordPaint(paint);
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        numOtherDraws++;
+        recordPaint(paint);
+    }
+
+    @Override
+    public void drawRect(RectF rect, Paint paint) {
+        numOtherDraws++;
+        recordPaint(paint);
+    }
+
+    @Override
+    public void drawRect(Rect rect, Paint paint) {
+        numOtherDraws++;
+        recordPaint(paint);
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint) {
+        numOtherDraws++;
+        recordPaint(paint);
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, Paint paint) {
+        numOtherDraws++;
+        recordPaint(paint);
+    }
+}
@@ -0,0 +1,194 @@
+package com.github.jinatonic.confetti;
+
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.github.jinatonic.confetti.confetto.CircleConfetto;
+import com.github.jinatonic.confetti.confetto.Confetto;
+import com.github.jinatonic.confetti.confetto.ForceField;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class LongRunningModeTest {
+    private static final long HOUR_MILLIS = 60 * 60 * 1000;
+    private static final long SOAK_MILLIS = 72 * HOUR_MILLIS;
+    // A very low frame rate keeps the 72 hours of frames quick to simulate. The confetti live
+    // for a few frames, which is enough to check that the state stays bounded.
+    private static final long FRAME_MILLIS = 2000;
+    // Frames this far apart outlive every confetto, to skip ahead by hours in a few steps.
+    private static final long SKIP_FRAME_MILLIS = 60 * 1000;
+
+    private FrameLayout container;
+
+    @Before
+    public void setup() {
+        CommonConfetti.resetStaticResources();
+        container = new FrameLayout(RuntimeEnvironment.application);
+        container.measure(View.MeasureSpec.makeMeasureSpec(400, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        container.layout(0, 0, 400, 800);
+    }
+
+    @Test
+    public void test_soak_boundedState() {
+        final ConfettiManager confettiManager =
+                CommonConfetti.rainingConfetti(container, new int[] { Color.RED })
+                        .getConfettiManager()
+                        .setEmissionDuration(ConfettiManager.INFINITE_DURATION)
+                        .setEmissionRate(5)
+                        .enableLongRunningMode()
+                        .setDebugOverlayEnabled(true);
+        confettiManager.setRandomSeed(42);
+        confettiManager.animate();
+        final ConfettiDebugStats stats = confettiManager.getDebugStats();
+
+        int warmupMaxLive = 0;
+        int warmupPoolCapacity = 0;
+        int maxLive = 0;
+        for (long time = FRAME_MILLIS; time <= SOAK_MILLIS; time += FRAME_MILLIS) {
+            confettiManager.onAnimationFrame(time);
+            if (time <= HOUR_MILLIS) {
+                warmupMaxLive = Math.max(warmupMaxLive, stats.getNumLive());
+                warmupPoolCapacity = stats.getPoolCapacity();
+            } else {
+                maxLive = Math.max(maxLive, stats.getNumLive());
+            }
+            assertTrue(time - confettiManager.getTimeOrigin()
+                    < 2 * ConfettiManager.REBASE_INTERVAL_MILLIS);
+        }
+
+        assertTrue(warmupMaxLive > 0);
+        assertTrue("Live confetti grew from " + warmupMaxLive + " to " + maxLive,
+                maxLive <= warmupMaxLive * 2);
+        assertEquals(warmupPoolCapacity, stats.getPoolCapacity());
+    }
+
+    @Test
+    public void test_confettoEmittedAfterHoursMovesLikeFreshOne() {
+        final ConfettiManager confettiManager = createUniformManager().enableLongRunningMode();
+        confettiManager.setRandomSeed(42);
+        confettiManager.animate();
+
+        long time = 0;
+        while (time < SOAK_MILLIS) {
+            time += SKIP_FRAME_MILLIS;
+            confettiManager.onAnimationFrame(time);
+        }
+        assertTrue(confettiManager.getTimeOrigin() > 0);
+
+        // Find a confetto that was emitted on the latest frame.
+        Confetto confetto = null;
+        while (confetto == null) {
+            time += 16;
+            confettiManager.onAnimationFrame(time);
+            for (Confetto candidate : confettiManager.getConfetti()) {
+                if (candidate.getAnimatedTime() == 0) {
+                    confetto = candidate;
+                }
+            }
+        }
+
+        // Follow it against the same confetto emitted at the start of a fresh animation.
+        final Confetto reference = configure(createUniformManager());
+        final long spawnTime = time;
+        for (; time < spawnTime + 2000; time += 16) {
+            confettiManager.onAnimationFrame(time);
+            reference.applyUpdate(time - spawnTime);
+            assertEquals(reference.getAnimatedTime(), confetto.getAnimatedTime());
+            assertEquals(reference.getCurrentX(), confetto.getCurrentX(), 0f);
+            assertEquals(reference.getCurrentY(), confetto.getCurrentY(), 0f);
+        }
+    }
+
+    @Test
+    public void test_rebaseKeepsConfettiInPlace() {
+        assertRebaseKeepsConfettiInPlace(createManager(), createManager());
+    }
+
+    @Test
+    public void test_rebaseKeepsWindGustsInPhase() {
+        // A gust period that doesn't divide the rebase interval, so a rebased field time would
+        // jump to a different phase.
+        final ForceField wind = ForceField.wind(0.0002f, 0f, 1f, 7000);
+        assertRebaseKeepsConfettiInPlace(createManager().addForceField(wind),
+                createManager().addForceField(wind));
+    }
+
+    private static void assertRebaseKeepsConfettiInPlace(ConfettiManager rebased,
+            ConfettiManager reference) {
+        rebased.enableLongRunningMode();
+        rebased.setRandomSeed(7);
+        reference.setRandomSeed(7);
+        rebased.animate();
+        reference.animate();
+
+        // Step both past the first rebase with frames that are not aligned to the interval.
+        final long end = 2 * ConfettiManager.REBASE_INTERVAL_MILLIS + 5000;
+        for (long time = 2 * ConfettiManager.REBASE_INTERVAL_MILLIS - 5000; time <= end;
+                time += 16) {
+            rebased.onAnimationFrame(time);
+            reference.onAnimationFrame(time);
+        }
+        assertEquals(ConfettiManager.REBASE_INTERVAL_MILLIS, rebased.getTimeOrigin());
+        assertEquals(0, reference.getTimeOrigin());
+
+        final List<Confetto> rebasedConfetti = rebased.getConfetti();
+        final List<Confetto> referenceConfetti = reference.getConfetti();
+        assertTrue(rebasedConfetti.size() > 0);
+        assertEquals(referenceConfetti.size(), rebasedConfetti.size());
+        for (int i = 0; i < rebasedConfetti.size(); i++) {
+            assertEquals(referenceConfetti.get(i).getCurrentX(),
+                    rebasedConfetti.get(i).getCurrentX(), 0f);
+            assertEquals(referenceConfetti.get(i).getCurrentY(),
+                    rebasedConfetti.get(i).getCurrentY(), 0f);
+        }
+    }
+
+    /**
+     * @return a manager whose confetti all move the same way from the same point.
+     */
+    private ConfettiManager createUniformManager() {
+        final ConfettoGenerator generator = new ConfettoGenerator() {
+            @Override
+            public Confetto generateConfetto(Random random) {
+                return new CircleConfetto(Color.RED, 5f);
+            }
+        };
+        return new ConfettiManager(RuntimeEnvironment.application, generator,
+                new ConfettiSource(200, 0), container)
+                .setEmissionDuration(ConfettiManager.INFINITE_DURATION)
+                .setEmissionRate(1)
+                .setVelocityX(20)
+                .setVelocityY(50)
+                .setAccelerationY(100);
+    }
+
+    private ConfettiManager createManager() {
+        return CommonConfetti.rainingConfetti(container, new int[] { Color.RED })
+                .getConfettiManager()
+                .setEmissionDuration(ConfettiManager.INFINITE_DURATION)
+                .setEmissionRate(5);
+    }
+
+    private static Confetto configure(ConfettiManager confettiManager) {
+        final Confetto confetto = new CircleConfetto(Color.RED, 5f);
+        confettiManager.configureConfetto(confetto, new ConfettiSource(200, 0), new Random(1), 0);
+        confetto.prepare(new Rect(0, 0, 400, 800));
+        return confetto;
+    }
+}
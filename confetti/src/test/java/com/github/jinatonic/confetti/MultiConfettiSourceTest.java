@@ -0,0 +1,118 @@
+package com.github.jinatonic.confetti;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.github.jinatonic.confetti.confetto.CircleConfetto;
+import com.github.jinatonic.confetti.confetto.Confetto;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class MultiConfettiSourceTest {
+
+    @Test
+    public void test_getInitialPosition_onlyPicksWeightedSources() {
+        final MultiConfettiSource multiSource = new MultiConfettiSource()
+                .addSource(new ConfettiSource(10, 20), 0f)
+                .addSource(new ConfettiSource(30, 40), 1f);
+        final float[] position = new float[2];
+        final Random random = new Random(0);
+        for (int i = 0; i < 100; i++) {
+            multiSource.getInitialPosition(random, position);
+            assertEquals(30f, position[0], 0f);
+            assertEquals(40f, position[1], 0f);
+        }
+    }
+
+    @Test
+    public void test_pollEmissions_carriesFractionalConfetti() {
+        final MultiConfettiSource multiSource = new MultiConfettiSource()
+                .addSource(new ConfettiSource(0, 0), 0f, 50f);
+        assertFalse(multiSource.hasWeightedSources());
+
+        int total = 0;
+        for (int i = 0; i < 100; i++) {
+            total += multiSource.pollEmissions(0, 10);
+        }
+        assertEquals(50, total);
+    }
+
+    @Test
+    public void test_bounds_coverAllSources() {
+        final ConfettiSource line = new ConfettiSource(0, 100, 50, 100);
+        final MultiConfettiSource multiSource = new MultiConfettiSource()
+                .addSource(line, 1f)
+                .addSource(new ConfettiSource(-20, 300), 1f);
+        assertEquals(-20f, multiSource.getMinX(), 0f);
+        assertEquals(50f, multiSource.getMaxX(), 0f);
+        assertEquals(300f, multiSource.getMaxY(), 0f);
+
+        assertTrue(multiSource.removeSource(line));
+        assertEquals(-20f, multiSource.getMaxX(), 0f);
+    }
+
+    @Test
+    public void test_proceduralConfetti_keepTheirSourceWhenSourcesChange() {
+        final FrameLayout container = new FrameLayout(RuntimeEnvironment.application);
+        container.measure(View.MeasureSpec.makeMeasureSpec(400, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        container.layout(0, 0, 400, 800);
+        final ConfettoGenerator generator = new ConfettoGenerator() {
+            @Override
+            public Confetto generateConfetto(Random random) {
+                return new CircleConfetto(Color.RED, 5f);
+            }
+        };
+        final ConfettiSource first = new ConfettiSource(100, 100);
+        final MultiConfettiSource multiSource = new MultiConfettiSource()
+                .addSource(first, 1f)
+                .addSource(new ConfettiSource(300, 100), 1f);
+        final ConfettiManager confettiManager = new ConfettiManager(
+                RuntimeEnvironment.application, generator, multiSource, container)
+                .setNumInitialCount(100)
+                .setEmissionDuration(ConfettiManager.INFINITE_DURATION)
+                .setVelocityY(100)
+                .setTTL(-1)
+                .enableProceduralMode(4);
+        confettiManager.setRandomSeed(1);
+        confettiManager.animate();
+        confettiManager.onAnimationFrame(100);
+        final ProceduralConfetti proceduralConfetti = confettiManager.getProceduralConfetti();
+        final List<Float> before = drawPositions(proceduralConfetti);
+
+        multiSource.removeSource(first);
+        multiSource.addSource(new ConfettiSource(200, 700), 5f);
+
+        assertEquals(200, before.size());
+        assertEquals(before, drawPositions(proceduralConfetti));
+    }
+
+    private static List<Float> drawPositions(ProceduralConfetti proceduralConfetti) {
+        final List<Float> positions = new ArrayList<>();
+        proceduralConfetti.draw(new Canvas() {
+            @Override
+            public void drawCircle(float cx, float cy, float radius, Paint paint) {
+                positions.add(cx);
+                positions.add(cy);
+            }
+        }, null);
+        return positions;
+    }
+}
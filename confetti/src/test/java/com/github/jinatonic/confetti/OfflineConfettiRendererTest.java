@@ -0,0 +1,151 @@
+package com.github.jinatonic.confetti;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.github.jinatonic.confetti.confetto.CircleConfetto;
+import com.github.jinatonic.confetti.confetto.Confetto;
+import com.github.jinatonic.confetti.confetto.ForceField;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class OfflineConfettiRendererTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FrameLayout container;
+    private ConfettiManager confettiManager;
+
+    @Before
+    public void setup() {
+        container = new FrameLayout(RuntimeEnvironment.application);
+        container.measure(View.MeasureSpec.makeMeasureSpec(400, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        container.layout(0, 0, 400, 800);
+        CommonConfetti.resetStaticResources();
+        confettiManager = CommonConfetti.rainingConfetti(container, new int[] { Color.RED })
+                .getConfettiManager()
+                .setEmissionDuration(1000)
+                .setEmissionRate(50);
+    }
+
+    @Test
+    public void test_rendersEveryFrameOnce() throws IOException {
+        final ConcurrentHashMap<Integer, Integer> frames = new ConcurrentHashMap<>();
+        new OfflineConfettiRenderer(confettiManager, 100, 200)
+                .setNumThreads(4)
+                .render(10, 40, new OfflineConfettiRenderer.FrameSink() {
+                    @Override
+                    public void onFrameRendered(int frame, Bitmap bitmap) {
+                        assertEquals(100, bitmap.getWidth());
+                        assertEquals(200, bitmap.getHeight());
+                        assertEquals(null, frames.put(frame, frame));
+                    }
+                });
+
+        assertEquals(30, frames.size());
+        for (int i = 10; i < 40; i++) {
+            assertTrue(frames.containsKey(i));
+        }
+    }
+
+    @Test
+    public void test_rgbaSinkWritesFrames() throws IOException {
+        final File directory = folder.newFolder();
+        new OfflineConfettiRenderer(confettiManager, 20, 10)
+                .setNumThreads(2)
+                .render(0, 3, OfflineConfettiRenderer.rgbaSink(directory));
+
+        for (int i = 0; i < 3; i++) {
+            final File file = new File(directory, "frame_0000" + i + ".rgba");
+            assertEquals(20 * 10 * 4, file.length());
+        }
+    }
+
+    @Test
+    public void test_sinkFailureStopsRendering() {
+        final AtomicInteger numFrames = new AtomicInteger();
+        try {
+            new OfflineConfettiRenderer(confettiManager, 10, 10)
+                    .setNumThreads(1)
+                    .render(0, 100, new OfflineConfettiRenderer.FrameSink() {
+                        @Override
+                        public void onFrameRendered(int frame, Bitmap bitmap)
+                                throws IOException {
+                            numFrames.incrementAndGet();
+                            throw new IOException("disk full");
+                        }
+                    });
+            fail("Expected the sink failure to be rethrown");
+        } catch (IOException e) {
+            assertEquals("disk full", e.getMessage());
+        }
+        assertEquals(1, numFrames.get());
+    }
+
+    @Test
+    public void test_usesTheProceduralTemplateCount() throws IOException {
+        final AtomicInteger numGenerated = new AtomicInteger();
+        final ConfettoGenerator generator = new ConfettoGenerator() {
+            @Override
+            public Confetto generateConfetto(Random random) {
+                numGenerated.incrementAndGet();
+                return new CircleConfetto(Color.RED, 5f);
+            }
+        };
+        final ConfettiManager countingManager = new ConfettiManager(
+                RuntimeEnvironment.application, generator, new ConfettiSource(0, 0), container)
+                .setEmissionDuration(1000)
+                .setEmissionRate(50);
+        final OfflineConfettiRenderer.FrameSink sink = new OfflineConfettiRenderer.FrameSink() {
+            @Override
+            public void onFrameRendered(int frame, Bitmap bitmap) {
+            }
+        };
+
+        new OfflineConfettiRenderer(countingManager, 10, 10)
+                .setNumThreads(2)
+                .render(0, 1, sink);
+        assertEquals(2 * OfflineConfettiRenderer.DEFAULT_NUM_TEMPLATES, numGenerated.get());
+
+        numGenerated.set(0);
+        countingManager.enableProceduralMode(200);
+        new OfflineConfettiRenderer(countingManager, 10, 10)
+                .setNumThreads(2)
+                .render(0, 1, sink);
+        assertEquals(2 * 200, numGenerated.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_rejectsForceFields() throws IOException {
+        confettiManager.addForceField(ForceField.drag(0.001f));
+        new OfflineConfettiRenderer(confettiManager, 10, 10)
+                .render(0, 1, new OfflineConfettiRenderer.FrameSink() {
+                    @Override
+                    public void onFrameRendered(int frame, Bitmap bitmap) {
+                        fail("Expected no frames to be rendered");
+                    }
+                });
+    }
+}
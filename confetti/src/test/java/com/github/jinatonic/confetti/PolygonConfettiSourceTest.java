@@ -0,0 +1,26 @@
+package com.github.jinatonic.confetti;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PolygonConfettiSourceTest {
+
+    @Test
+    public void test_triangulate_concavePolygon() {
+        // An L shape with an area of 3.
+        final float[] points = new float[] { 0, 0, 2, 0, 2, 1, 1, 1, 1, 2, 0, 2 };
+        final float[] triangles = PolygonConfettiSource.triangulate(points);
+
+        assertEquals(4 * 6, triangles.length);
+        float area = 0f;
+        for (int t = 0; t < triangles.length; t += 6) {
+            final float abx = triangles[t + 2] - triangles[t];
+            final float aby = triangles[t + 3] - triangles[t + 1];
+            final float acx = triangles[t + 4] - triangles[t];
+            final float acy = triangles[t + 5] - triangles[t + 1];
+            area += Math.abs(abx * acy - aby * acx) / 2;
+        }
+        assertEquals(3f, area, 0.0001f);
+    }
+}
@@ -0,0 +1,259 @@
+package com.github.jinatonic.confetti;
+
+import android.graphics.Color;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.github.jinatonic.confetti.confetto.CircleConfetto;
+import com.github.jinatonic.confetti.confetto.Confetto;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Renders the {@link CommonConfetti} presets frame by frame with a fake clock into a
+ * {@link CountingCanvas} and fails if the per-frame canvas operations or allocations exceed the
+ * golden thresholds below. If a change legitimately makes rendering more expensive, update the
+ * thresholds in the same change so that the cost increase is reviewed.
+ *
+ * Allocations are measured relative to rendering an empty frame, which cancels out the
+ * overhead of the Robolectric shadows, and must stay close to zero.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+// The legacy graphics shadows allocate on every matrix operation, the native ones don't.
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class RenderCostTest {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final long SEED = 42;
+    private static final long FRAME_MILLIS = 16;
+    // Upper bound on the frames rendered per preset, for the presets that never end.
+    private static final int MAX_FRAMES = 300;
+    private static final int[] COLORS = { Color.RED, Color.GREEN, Color.BLUE };
+    // Slack for the confetti that a stream generates over time, drawing itself allocates nothing.
+    private static final long MAX_BYTES_PER_FRAME = 128;
+
+    private FrameLayout container;
+
+    @Before
+    public void setup() {
+        CommonConfetti.resetStaticResources();
+        container = new FrameLayout(RuntimeEnvironment.application);
+        container.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        container.layout(0, 0, WIDTH, HEIGHT);
+        warmUpGraphics();
+    }
+
+    /**
+     * Draw a frame of confetti once so that the one-time initialization of the native graphics
+     * isn't counted against the first frame that draws a confetto.
+     */
+    private static void warmUpGraphics() {
+        final FrameLayout warmUpContainer = new FrameLayout(RuntimeEnvironment.application);
+        warmUpContainer.measure(
+                View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        warmUpContainer.layout(0, 0, WIDTH, HEIGHT);
+        final ConfettiManager confettiManager =
+                CommonConfetti.rainingConfetti(warmUpContainer, COLORS).oneShot();
+        confettiManager.onAnimationFrame(FRAME_MILLIS);
+        ((ConfettiView) warmUpContainer.getChildAt(0)).onDraw(new CountingCanvas());
+        confettiManager.terminate();
+    }
+
+    @Test
+    public void test_rainingConfetti_oneShot() {
+        final CommonConfetti preset = CommonConfetti.rainingConfetti(container, COLORS);
+        final boolean[] ended = prepare(preset.getConfettiManager());
+        render(preset.oneShot(), ended)
+                .assertWithin(new RenderCost(100, 101, 100, 100, 100, MAX_BYTES_PER_FRAME));
+    }
+
+    @Test
+    public void test_rainingConfetti_stream() {
+        final CommonConfetti preset = CommonConfetti.rainingConfetti(container, COLORS);
+        final boolean[] ended = prepare(preset.getConfettiManager());
+        render(preset.stream(3000), ended)
+                .assertWithin(new RenderCost(140, 141, 140, 140, 140, MAX_BYTES_PER_FRAME));
+    }
+
+    @Test
+    public void test_rainingConfetti_infinite() {
+        final CommonConfetti preset = CommonConfetti.rainingConfetti(container, COLORS);
+        final boolean[] ended = prepare(preset.getConfettiManager());
+        render(preset.infinite(), ended)
+                .assertWithin(new RenderCost(227, 228, 227, 227, 227, MAX_BYTES_PER_FRAME));
+    }
+
+    @Test
+    public void test_explosion_oneShot() {
+        final CommonConfetti preset =
+                CommonConfetti.explosion(container, WIDTH / 2, HEIGHT / 2, COLORS);
+        final boolean[] ended = prepare(preset.getConfettiManager());
+        render(preset.oneShot(), ended)
+                .assertWithin(new RenderCost(100, 101, 100, 100, 100, MAX_BYTES_PER_FRAME));
+    }
+
+    @Test
+    public void test_explosion_stream() {
+        final CommonConfetti preset =
+                CommonConfetti.explosion(container, WIDTH / 2, HEIGHT / 2, COLORS);
+        final boolean[] ended = prepare(preset.getConfettiManager());
+        render(preset.stream(3000), ended)
+                .assertWithin(new RenderCost(45, 46, 45, 45, 45, MAX_BYTES_PER_FRAME));
+    }
+
+    @Test
+    public void test_explosion_infinite() {
+        final CommonConfetti preset =
+                CommonConfetti.explosion(container, WIDTH / 2, HEIGHT / 2, COLORS);
+        final boolean[] ended = prepare(preset.getConfettiManager());
+        render(preset.infinite(), ended)
+                .assertWithin(new RenderCost(45, 46, 45, 45, 45, MAX_BYTES_PER_FRAME));
+    }
+
+    /**
+     * Make the preset's manager deterministic and pre-allocated before the preset starts it.
+     *
+     * @return a flag that is set once the animation ends.
+     */
+    private static boolean[] prepare(ConfettiManager confettiManager) {
+        final boolean[] ended = new boolean[1];
+        confettiManager.setRandomSeed(SEED);
+        // Confetti generated on demand are expected allocations, keep them out of the frames.
+        confettiManager.setPrewarmEnabled(true);
+        confettiManager.setConfettiAnimationListener(
+                new ConfettiManager.ConfettiAnimationListenerAdapter() {
+                    @Override
+                    public void onAnimationEnd(ConfettiManager confettiManager) {
+                        ended[0] = true;
+                    }
+                });
+        return ended;
+    }
+
+    /**
+     * Render every frame of the provided animating manager with a fake clock.
+     *
+     * @return the most expensive frame's cost, and the average allocations per frame beyond
+     *   those of rendering an empty frame.
+     */
+    private RenderCost render(ConfettiManager confettiManager, boolean[] ended) {
+        final ConfettiView confettiView = (ConfettiView) container.getChildAt(0);
+        final CountingCanvas canvas = new CountingCanvas();
+        final RenderCost cost = new RenderCost();
+        int numFrames = 0;
+        final long startBytes = getAllocatedBytes();
+        while (!ended[0] && numFrames < MAX_FRAMES) {
+            numFrames++;
+            confettiManager.onAnimationFrame(numFrames * FRAME_MILLIS);
+            canvas.reset();
+            confettiView.onDraw(canvas);
+            cost.record(canvas);
+        }
+        final long allocatedBytes = getAllocatedBytes() - startBytes;
+        cost.bytesPerFrame = allocatedBytes / numFrames - getEmptyFrameBytes(numFrames);
+        return cost;
+    }
+
+    /**
+     * @return the average bytes allocated to render an empty frame, which is the overhead of the
+     *   test harness and of the Robolectric shadows rather than of the confetti.
+     */
+    private long getEmptyFrameBytes(int numFrames) {
+        final FrameLayout emptyContainer = new FrameLayout(RuntimeEnvironment.application);
+        final ConfettiManager confettiManager = new ConfettiManager(
+                RuntimeEnvironment.application, new ConfettoGenerator() {
+                    @Override
+                    public Confetto generateConfetto(Random random) {
+                        return new CircleConfetto(Color.RED, 1f);
+                    }
+                }, new ConfettiSource(0, 0), emptyContainer)
+                .setNumInitialCount(0)
+                .setEmissionDuration(ConfettiManager.INFINITE_DURATION)
+                .setEmissionRate(0)
+                .animate();
+        final ConfettiView confettiView = (ConfettiView) emptyContainer.getChildAt(0);
+        final CountingCanvas canvas = new CountingCanvas();
+        final RenderCost cost = new RenderCost();
+        final long startBytes = getAllocatedBytes();
+        for (int frame = 1; frame <= numFrames; frame++) {
+            confettiManager.onAnimationFrame(frame * FRAME_MILLIS);
+            canvas.reset();
+            confettiView.onDraw(canvas);
+            cost.record(canvas);
+        }
+        final long bytes = (getAllocatedBytes() - startBytes) / numFrames;
+        confettiManager.terminate();
+        return bytes;
+    }
+
+    private static long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * The cost of the most expensive frame, and the golden thresholds it is compared against.
+     */
+    private static class RenderCost {
+        int maxDraws;
+        int maxSaves;
+        int maxClips;
+        int maxMatrixOps;
+        int maxPaintChanges;
+        long bytesPerFrame;
+
+        RenderCost() {
+        }
+
+        RenderCost(int maxDraws, int maxSaves, int maxClips, int maxMatrixOps,
+                int maxPaintChanges, long bytesPerFrame) {
+            this.maxDraws = maxDraws;
+            this.maxSaves = maxSaves;
+            this.maxClips = maxClips;
+            this.maxMatrixOps = maxMatrixOps;
+            this.maxPaintChanges = maxPaintChanges;
+            this.bytesPerFrame = bytesPerFrame;
+        }
+
+        void record(CountingCanvas canvas) {
+            assertEquals("Unbalanced save/restore", canvas.numSaves, canvas.numRestores);
+            maxDraws = Math.max(maxDraws, canvas.getNumDraws());
+            maxSaves = Math.max(maxSaves, canvas.numSaves);
+            maxClips = Math.max(maxClips, canvas.numClips);
+            maxMatrixOps = Math.max(maxMatrixOps, canvas.numMatrixOps);
+            maxPaintChanges = Math.max(maxPaintChanges, canvas.numPaintChanges);
+        }
+
+        void assertWithin(RenderCost golden) {
+            final String message = "Render cost regressed: " + this + " exceeds " + golden;
+            assertTrue(message, maxDraws <= golden.maxDraws);
+            assertTrue(message, maxSaves <= golden.maxSaves);
+            assertTrue(message, maxClips <= golden.maxClips);
+            assertTrue(message, maxMatrixOps <= golden.maxMatrixOps);
+            assertTrue(message, maxPaintChanges <= golden.maxPaintChanges);
+            assertTrue(message, bytesPerFrame <= golden.bytesPerFrame);
+        }
+
+        @Override
+        public String toString() {
+            return "draws=" + maxDraws + " saves=" + maxSaves + " clips=" + maxClips
+                    + " matrixOps=" + maxMatrixOps + " paintChanges=" + maxPaintChanges
+                    + " bytesPerFrame=" + bytesPerFrame;
+        }
+    }
+}
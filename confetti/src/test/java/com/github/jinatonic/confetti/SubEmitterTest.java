@@ -0,0 +1,106 @@
+package com.github.jinatonic.confetti;
+
+import android.graphics.Color;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.github.jinatonic.confetti.confetto.CircleConfetto;
+import com.github.jinatonic.confetti.confetto.Confetto;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class SubEmitterTest {
+    private static final EmitterConfig CHILD_CONFIG = new EmitterConfig.Builder()
+            .setVelocityX(0, 100)
+            .setVelocityY(0, 100)
+            .setTTL(200)
+            .build();
+
+    private ConfettiManager confettiManager;
+
+    @Before
+    public void setup() {
+        final FrameLayout container = new FrameLayout(RuntimeEnvironment.application);
+        container.measure(View.MeasureSpec.makeMeasureSpec(400, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(800, View.MeasureSpec.EXACTLY));
+        container.layout(0, 0, 400, 800);
+        final ConfettoGenerator generator = new ConfettoGenerator() {
+            @Override
+            public Confetto generateConfetto(Random random) {
+                return new CircleConfetto(Color.RED, 5f);
+            }
+        };
+        // A single rocket that flies up for 500ms.
+        confettiManager = new ConfettiManager(RuntimeEnvironment.application, generator,
+                new ConfettiSource(200, 700), container)
+                .setNumInitialCount(1)
+                .setEmissionDuration(0)
+                .setVelocityY(-500)
+                .setTTL(500);
+    }
+
+    @Test
+    public void test_onDeath_spawnsBurstWhereParentDied() {
+        confettiManager.addSubEmitter(SubEmitter.onDeath(10, CHILD_CONFIG)).animate();
+
+        confettiManager.onAnimationFrame(490);
+        final float rocketY = confettiManager.getConfetti().get(0).getCurrentY();
+        confettiManager.onAnimationFrame(500);
+
+        final List<Confetto> confetti = confettiManager.getConfetti();
+        assertEquals(10, confetti.size());
+        for (Confetto confetto : confetti) {
+            assertEquals(1, confetto.getGeneration());
+            assertEquals(rocketY - 5f, confetto.getCurrentY(), 10f);
+        }
+    }
+
+    @Test
+    public void test_onBoundHit_onlyTriggersAtBound() {
+        confettiManager.setTTL(-1)
+                .addSubEmitter(SubEmitter.onDeath(10, CHILD_CONFIG))
+                .addSubEmitter(SubEmitter.onBoundHit(3, CHILD_CONFIG))
+                .animate();
+
+        // The rocket leaves the top of the bound after about 1.4s.
+        for (long time = 16; time <= 1600; time += 16) {
+            confettiManager.onAnimationFrame(time);
+        }
+        assertEquals(3, confettiManager.getConfetti().size());
+    }
+
+    @Test
+    public void test_atTimeOffset_spawnsOnce() {
+        confettiManager.addSubEmitter(SubEmitter.atTimeOffset(100, 5, CHILD_CONFIG)).animate();
+
+        for (long time = 16; time <= 180; time += 16) {
+            confettiManager.onAnimationFrame(time);
+        }
+        assertEquals(6, confettiManager.getConfetti().size());
+    }
+
+    @Test
+    public void test_cascadeIsCapped() {
+        confettiManager.setMaxSubEmitterSpawnsPerFrame(4)
+                .addSubEmitter(SubEmitter.onDeath(10, CHILD_CONFIG).setMaxGeneration(5))
+                .animate();
+
+        confettiManager.onAnimationFrame(500);
+        assertEquals(4, confettiManager.getConfetti().size());
+        // Each of the 4 children bursts into at most 4 grandchildren in total.
+        confettiManager.onAnimationFrame(700);
+        assertEquals(4, confettiManager.getConfetti().size());
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.jinatonic.confetti.confetto;
+
+import android.graphics.Color;
+import android.graphics.Rect;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ColliderTest {
+    private final Rect bound = new Rect(0, 0, 1000, 1000);
+    private Collider collider;
+
+    @Before
+    public void setup() {
+        collider = new Collider(64f)
+                .setObstacles(Collections.singletonList(new Rect(100, 500, 300, 550)));
+        collider.setPileRange(bound.left, bound.right);
+    }
+
+    @Test
+    public void test_collide_settlesOnTopOfObstacle() {
+        final Confetto confetto = newFallingConfetto(200f);
+
+        assertTrue(animateUntilSettled(confetto));
+        assertEquals(500f, confetto.getCurrentY() + confetto.getHeight(), 0.01f);
+    }
+
+    @Test
+    public void test_collide_fallsPastObstacle() {
+        final Confetto confetto = newFallingConfetto(600f);
+
+        for (long time = 0; time <= 5000 && confetto.applyUpdate(time); time += 16) {
+            assertFalse(confetto.isSettled());
+        }
+        assertTrue(confetto.endsAtBound());
+    }
+
+    @Test
+    public void test_collide_doesNotPileUpPastObstacleEdge() {
+        // Settles on the obstacle while hanging over its right edge.
+        final Confetto settled = newFallingConfetto(296f);
+        assertTrue(animateUntilSettled(settled));
+        assertEquals(500f, settled.getCurrentY() + settled.getHeight(), 0.01f);
+
+        // Misses the obstacle, so it must not land on the settled confetto's overhang.
+        final Confetto confetto = newFallingConfetto(302f);
+        for (long time = 0; time <= 5000 && confetto.applyUpdate(time); time += 16) {
+            assertFalse(confetto.isSettled());
+        }
+        assertTrue(confetto.endsAtBound());
+    }
+
+    @Test
+    public void test_collide_settlesOnFloorAndPilesUp() {
+        collider.setFloor(bound.bottom);
+        final Confetto first = newFallingConfetto(700f);
+        final Confetto second = newFallingConfetto(700f);
+
+        assertTrue(animateUntilSettled(first));
+        assertTrue(animateUntilSettled(second));
+        assertEquals(1000f, first.getCurrentY() + first.getHeight(), 0.01f);
+        assertEquals(first.getCurrentY(), second.getCurrentY() + second.getHeight(), 0.01f);
+    }
+
+    @Test
+    public void test_settled_isFrozen() {
+        final Confetto confetto = newFallingConfetto(200f);
+        assertTrue(animateUntilSettled(confetto));
+        final float x = confetto.getCurrentX();
+        final float y = confetto.getCurrentY();
+
+        assertTrue(confetto.applyUpdate(60000));
+        assertEquals(x, confetto.getCurrentX(), 0f);
+        assertEquals(y, confetto.getCurrentY(), 0f);
+    }
+
+    private Confetto newFallingConfetto(float x) {
+        final Confetto confetto = new CircleConfetto(Color.RED, 5f);
+        confetto.setInitialX(x);
+        confetto.setInitialY(0f);
+        confetto.setAccelerationY(0.0005f);
+        confetto.setTargetVelocityY(0.5f);
+        confetto.setTTL(-1);
+        confetto.setCollider(collider);
+        confetto.prepare(bound);
+        return confetto;
+    }
+
+    private static boolean animateUntilSettled(Confetto confetto) {
+        for (long time = 0; time <= 10000; time += 16) {
+            confetto.applyUpdate(time);
+            if (confetto.isSettled()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
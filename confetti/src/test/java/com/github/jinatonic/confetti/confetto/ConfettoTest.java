@@ -77,4 +77,19 @@ public class ConfettoTest {
         time = Confetto.computeBound(10f, -0.01f, -0.01f, 3L, -0.04f, -100, 10000);
         assertEquals(2251, time);
     }
+
+    @Test
+    public void test_computeMillisToLeaveBound() {
+        // Same as computeBound with the target time derived from the target velocity
+        long time = Confetto.computeMillisToLeaveBound(0f, 0.01f, 0f, null, -10000, 100);
+        assertEquals(10000, time);
+        time = Confetto.computeMillisToLeaveBound(0f, 0f, 0.01f, null, -10000, 100);
+        assertEquals(141, time);
+        time = Confetto.computeMillisToLeaveBound(0f, 0f, 0.01f, 0.03f, -10000, 100);
+        assertEquals(3334, time);
+
+        // Never leaves the bound
+        time = Confetto.computeMillisToLeaveBound(0f, 0f, 0f, null, -100, 100);
+        assertEquals(Long.MAX_VALUE, time);
+    }
 }
@@ -0,0 +1,115 @@
+package com.github.jinatonic.confetti.confetto;
+
+import android.graphics.Color;
+import android.graphics.Rect;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ForceFieldTest {
+    private static final ForceField NO_FORCE = new ForceField() {
+        @Override
+        public void accumulate(float x, float y, float velocityX, float velocityY, long time,
+                float[] acceleration) {
+        }
+    };
+
+    private final Rect bound = new Rect(0, 0, 1000, 1000);
+
+    @Test
+    public void test_integrator_matchesClosedFormWithoutForces() {
+        final Confetto closedForm = newConfetto(null);
+        final Confetto integrated = newConfetto(new ForceField[] { NO_FORCE });
+
+        for (long time = 0; time <= 1000; time += 16) {
+            assertEquals(closedForm.applyUpdate(time), integrated.applyUpdate(time));
+            assertEquals(closedForm.getCurrentX(), integrated.getCurrentX(), 1f);
+            assertEquals(closedForm.getCurrentY(), integrated.getCurrentY(), 1f);
+        }
+        // The configured acceleration stops once the target velocity is reached.
+        assertEquals(0.3f, integrated.currentVelocityY, 1e-4f);
+    }
+
+    @Test
+    public void test_drag_slowsConfettoDown() {
+        final Confetto closedForm = newConfetto(null);
+        final Confetto dragged = newConfetto(new ForceField[] { ForceField.drag(0.005f) });
+
+        closedForm.applyUpdate(500);
+        dragged.applyUpdate(500);
+
+        assertTrue(Math.abs(dragged.currentVelocityX) < Math.abs(closedForm.currentVelocityX));
+        assertTrue(dragged.getCurrentX() < closedForm.getCurrentX());
+    }
+
+    @Test
+    public void test_wind_terminatesConfettoAtBound() {
+        final Confetto confetto =
+                newConfetto(new ForceField[] { ForceField.wind(0.01f, 0f, 0f, 0) });
+
+        long time = 0;
+        while (confetto.applyUpdate(time)) {
+            time += 16;
+            assertTrue(time < 2000);
+        }
+
+        assertTrue(confetto.endsAtBound());
+        assertTrue(confetto.getCurrentX() > bound.right);
+    }
+
+    @Test
+    public void test_attractor_pullsConfettoInsteadOfLeavingBound() {
+        final Confetto confetto = newConfetto(
+                new ForceField[] { ForceField.attractor(500f, 500f, 0.002f, 100f),
+                        ForceField.drag(0.002f) });
+
+        for (long time = 0; time <= 10000; time += 16) {
+            assertTrue(confetto.applyUpdate(time));
+        }
+        assertFalse(confetto.endsAtBound());
+        assertEquals(500f, confetto.getCurrentX() + confetto.getWidth() / 2f, 50f);
+        assertEquals(500f, confetto.getCurrentY() + confetto.getHeight() / 2f, 50f);
+    }
+
+    @Test
+    public void test_lifetimeCurves_progressOverTTL() {
+        final Confetto confetto = newConfetto(new ForceField[] { NO_FORCE }, 1000,
+                LifetimeCurve.fromKeyframes(new float[] { 0f, 1f }, new float[] { 1f, 0f }));
+
+        confetto.applyUpdate(500);
+        assertEquals(0.5f, confetto.getAlpha() / 255f, 0.02f);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_lifetimeCurves_requireTTL() {
+        newConfetto(new ForceField[] { NO_FORCE }, -1,
+                LifetimeCurve.fromKeyframes(new float[] { 0f, 1f }, new float[] { 1f, 0f }));
+    }
+
+    private Confetto newConfetto(ForceField[] forceFields) {
+        return newConfetto(forceFields, -1, null);
+    }
+
+    private Confetto newConfetto(ForceField[] forceFields, long ttl, LifetimeCurve alphaCurve) {
+        final Confetto confetto = new CircleConfetto(Color.RED, 5f);
+        confetto.setInitialX(400f);
+        confetto.setInitialY(100f);
+        confetto.setInitialVelocityX(0.2f);
+        confetto.setInitialVelocityY(0f);
+        confetto.setAccelerationY(0.0005f);
+        confetto.setTargetVelocityY(0.3f);
+        confetto.setTTL(ttl);
+        confetto.setAlphaCurve(alphaCurve);
+        confetto.setForceFields(forceFields);
+        confetto.prepare(bound);
+        return confetto;
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.jinatonic.confetti.confetto;
+
+import android.view.animation.Interpolator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LifetimeCurveTest {
+
+    @Test
+    public void test_fromInterpolator() {
+        final LifetimeCurve curve = LifetimeCurve.fromInterpolator(new Interpolator() {
+            @Override
+            public float getInterpolation(float v) {
+                return 1f - v;
+            }
+        });
+        assertEquals(1f, curve.sample(0f), 0f);
+        assertEquals(0f, curve.sample(1f), 0f);
+        assertEquals(0.5f, curve.sample(0.5f), 0.01f);
+
+        // Out of range progress is clamped
+        assertEquals(1f, curve.sample(-1f), 0f);
+        assertEquals(0f, curve.sample(2f), 0f);
+    }
+
+    @Test
+    public void test_fromKeyframes() {
+        final LifetimeCurve curve = LifetimeCurve.fromKeyframes(
+                new float[] { 0.25f, 0.75f }, new float[] { 2f, 4f });
+        assertEquals(2f, curve.sample(0f), 0f);
+        assertEquals(2f, curve.sample(0.25f), 0.05f);
+        assertEquals(3f, curve.sample(0.5f), 0.05f);
+        assertEquals(4f, curve.sample(0.75f), 0.05f);
+        assertEquals(4f, curve.sample(1f), 0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_fromKeyframes_mismatchedLengths() {
+        LifetimeCurve.fromKeyframes(new float[] { 0f, 1f }, new float[] { 1f });
+    }
+}